@@ -0,0 +1,130 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.metrics.micrometer;
+
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.notification.NotificationOutcome;
+import com.apple.itunes.storekit.verification.VerificationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link MetricsRecorder} publishing measurements to a Micrometer {@link MeterRegistry}.
+ * <p>
+ * The following meters are registered:
+ * <ul>
+ *     <li>{@code appstore.api.requests}, a timer tagged with {@code endpoint}, {@code method}, {@code status} and {@code exception}</li>
+ *     <li>{@code appstore.api.request.size}, a distribution summary of request body sizes in bytes, tagged with {@code endpoint} and {@code method}</li>
+ *     <li>{@code appstore.api.retries}, a counter tagged with {@code endpoint}, {@code method} and the {@code outcome}, either retried or budget_exhausted</li>
+ *     <li>{@code appstore.api.rate.limiter.wait}, a timer of the time calls wait for the client-side rate limiter, tagged with {@code endpoint} and {@code method}</li>
+ *     <li>{@code appstore.api.rate.limiter.rejections}, a counter of calls failed by the client-side rate limiter, tagged with {@code endpoint} and {@code method}</li>
+ *     <li>{@code appstore.token.generation}, a timer of the time taken to obtain bearer tokens</li>
+ *     <li>{@code appstore.verification}, a timer tagged with the decoded {@code type} and the verification {@code status}</li>
+ *     <li>{@code appstore.chain.cache}, a counter tagged with the {@code cache}, either online or offline, and the {@code result}, either hit or miss</li>
+ *     <li>{@code appstore.notification.received}, a counter of notification request bodies tagged with the {@code result}, either accepted or rejected</li>
+ *     <li>{@code appstore.notification.queue.depth}, a gauge of the notification request bodies last reported waiting to be processed</li>
+ *     <li>{@code appstore.notification.queue.wait}, a timer of the time notification request bodies waited to be processed</li>
+ *     <li>{@code appstore.notification.processing}, a timer of the time taken to process notifications, tagged with the {@code outcome}</li>
+ * </ul>
+ */
+public class MicrometerMetricsRecorder implements MetricsRecorder {
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final Timer tokenGenerationTimer;
+    private final Counter[] chainCacheCounters;
+    private final Counter notificationsAccepted;
+    private final Counter notificationsRejected;
+    private final AtomicInteger notificationQueueDepth;
+    private final Timer notificationQueueWaitTimer;
+
+    /**
+     * @param registry The registry in which meters are registered
+     */
+    public MicrometerMetricsRecorder(MeterRegistry registry) {
+        this.registry = registry;
+        this.tokenGenerationTimer = registry.timer("appstore.token.generation");
+        this.chainCacheCounters = new Counter[] {
+                registry.counter("appstore.chain.cache", "cache", "offline", "result", "miss"),
+                registry.counter("appstore.chain.cache", "cache", "offline", "result", "hit"),
+                registry.counter("appstore.chain.cache", "cache", "online", "result", "miss"),
+                registry.counter("appstore.chain.cache", "cache", "online", "result", "hit")
+        };
+        this.notificationsAccepted = registry.counter("appstore.notification.received", "result", "accepted");
+        this.notificationsRejected = registry.counter("appstore.notification.received", "result", "rejected");
+        this.notificationQueueDepth = registry.gauge("appstore.notification.queue.depth", new AtomicInteger());
+        this.notificationQueueWaitTimer = registry.timer("appstore.notification.queue.wait");
+    }
+
+    @Override
+    public void recordApiCall(String endpoint, String method, int statusCode, long requestBytes, long durationNanos) {
+        registry.timer("appstore.api.requests", "endpoint", endpoint, "method", method, "status", Integer.toString(statusCode), "exception", NONE)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (requestBytes > 0) {
+            DistributionSummary.builder("appstore.api.request.size")
+                    .baseUnit("bytes")
+                    .tags("endpoint", endpoint, "method", method)
+                    .register(registry)
+                    .record(requestBytes);
+        }
+    }
+
+    @Override
+    public void recordApiCallFailure(String endpoint, String method, Throwable cause, long durationNanos) {
+        registry.timer("appstore.api.requests", "endpoint", endpoint, "method", method, "status", NONE, "exception", cause.getClass().getSimpleName())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRetry(String endpoint, String method, int attempt, long backoffNanos) {
+        registry.counter("appstore.api.retries", "endpoint", endpoint, "method", method, "outcome", "retried").increment();
+    }
+
+    @Override
+    public void recordRetryBudgetExhausted(String endpoint, String method) {
+        registry.counter("appstore.api.retries", "endpoint", endpoint, "method", method, "outcome", "budget_exhausted").increment();
+    }
+
+    @Override
+    public void recordRateLimiterWait(String endpoint, String method, long waitNanos) {
+        registry.timer("appstore.api.rate.limiter.wait", "endpoint", endpoint, "method", method).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRateLimiterRejection(String endpoint, String method) {
+        registry.counter("appstore.api.rate.limiter.rejections", "endpoint", endpoint, "method", method).increment();
+    }
+
+    @Override
+    public void recordTokenGeneration(long durationNanos) {
+        tokenGenerationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordVerification(Class<?> payloadType, VerificationStatus status, long durationNanos) {
+        registry.timer("appstore.verification", "type", payloadType.getSimpleName(), "status", status.name())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordChainCacheLookup(boolean revocationChecking, boolean hit) {
+        chainCacheCounters[(revocationChecking ? 2 : 0) + (hit ? 1 : 0)].increment();
+    }
+
+    @Override
+    public void recordNotificationReceived(boolean accepted, int queueDepth) {
+        (accepted ? notificationsAccepted : notificationsRejected).increment();
+        notificationQueueDepth.set(queueDepth);
+    }
+
+    @Override
+    public void recordNotificationProcessed(NotificationOutcome outcome, long queueNanos, long processingNanos) {
+        notificationQueueWaitTimer.record(queueNanos, TimeUnit.NANOSECONDS);
+        registry.timer("appstore.notification.processing", "outcome", outcome.name()).record(processingNanos, TimeUnit.NANOSECONDS);
+    }
+}
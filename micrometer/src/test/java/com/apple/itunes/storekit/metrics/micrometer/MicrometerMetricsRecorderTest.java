@@ -0,0 +1,76 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.metrics.micrometer;
+
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.notification.NotificationOutcome;
+import com.apple.itunes.storekit.verification.VerificationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class MicrometerMetricsRecorderTest {
+
+    @Test
+    public void testApiCalls() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricsRecorder recorder = new MicrometerMetricsRecorder(registry);
+
+        recorder.recordApiCall("/inApps/v1/transactions/{transactionId}", "GET", 200, 0, 5_000_000);
+        recorder.recordApiCall("/inApps/v1/transactions/{transactionId}", "GET", 200, 0, 7_000_000);
+        recorder.recordApiCall("/inApps/v1/notifications/history", "POST", 429, 120, 1_000_000);
+        recorder.recordApiCallFailure("/inApps/v1/notifications/history", "POST", new IOException(), 2_000_000);
+        recorder.recordRetry("/inApps/v1/notifications/history", "POST", 1, 1_000_000);
+        recorder.recordRetryBudgetExhausted("/inApps/v1/notifications/history", "POST");
+
+        Assertions.assertEquals(2, registry.get("appstore.api.requests").tags("endpoint", "/inApps/v1/transactions/{transactionId}", "status", "200").timer().count());
+        Assertions.assertEquals(12, registry.get("appstore.api.requests").tags("endpoint", "/inApps/v1/transactions/{transactionId}").timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.api.requests").tags("status", "429").timer().count());
+        Assertions.assertEquals(1, registry.get("appstore.api.requests").tags("exception", "IOException").timer().count());
+        Assertions.assertEquals(1, registry.get("appstore.api.retries").tags("outcome", "retried").counter().count(), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.api.retries").tags("outcome", "budget_exhausted").counter().count(), 0.001);
+        Assertions.assertEquals(120, registry.get("appstore.api.request.size").tags("method", "POST").summary().totalAmount(), 0.001);
+    }
+
+    @Test
+    public void testVerificationAndCaches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricsRecorder recorder = new MicrometerMetricsRecorder(registry);
+
+        recorder.recordVerification(JWSTransactionDecodedPayload.class, VerificationStatus.OK, 1_000);
+        recorder.recordVerification(JWSTransactionDecodedPayload.class, VerificationStatus.INVALID_ENVIRONMENT, 1_000);
+        recorder.recordChainCacheLookup(true, true);
+        recorder.recordChainCacheLookup(true, true);
+        recorder.recordChainCacheLookup(false, false);
+        recorder.recordTokenGeneration(1_000);
+
+        Assertions.assertEquals(1, registry.get("appstore.verification").tags("type", "JWSTransactionDecodedPayload", "status", "OK").timer().count());
+        Assertions.assertEquals(1, registry.get("appstore.verification").tags("status", "INVALID_ENVIRONMENT").timer().count());
+        Assertions.assertEquals(2, registry.get("appstore.chain.cache").tags("cache", "online", "result", "hit").counter().count(), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.chain.cache").tags("cache", "offline", "result", "miss").counter().count(), 0.001);
+        Assertions.assertEquals(0, registry.get("appstore.chain.cache").tags("cache", "online", "result", "miss").counter().count(), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.token.generation").timer().count());
+    }
+
+    @Test
+    public void testNotifications() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricsRecorder recorder = new MicrometerMetricsRecorder(registry);
+
+        recorder.recordNotificationReceived(true, 3);
+        recorder.recordNotificationReceived(false, 10);
+        recorder.recordNotificationReceived(true, 2);
+        recorder.recordNotificationProcessed(NotificationOutcome.PROCESSED, 1_000_000, 4_000_000);
+        recorder.recordNotificationProcessed(NotificationOutcome.DUPLICATE, 3_000_000, 1_000_000);
+
+        Assertions.assertEquals(2, registry.get("appstore.notification.received").tags("result", "accepted").counter().count(), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.notification.received").tags("result", "rejected").counter().count(), 0.001);
+        Assertions.assertEquals(2, registry.get("appstore.notification.queue.depth").gauge().value(), 0.001);
+        Assertions.assertEquals(4, registry.get("appstore.notification.queue.wait").timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assertions.assertEquals(1, registry.get("appstore.notification.processing").tags("outcome", "PROCESSED").timer().count());
+        Assertions.assertEquals(1, registry.get("appstore.notification.processing").tags("outcome", "DUPLICATE").timer().count());
+    }
+}
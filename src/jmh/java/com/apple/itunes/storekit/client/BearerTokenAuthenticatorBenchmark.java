@@ -0,0 +1,33 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.util.TestingUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class BearerTokenAuthenticatorBenchmark {
+
+    private BearerTokenAuthenticator bearerTokenAuthenticator;
+    private CachingBearerTokenAuthenticator cachingBearerTokenAuthenticator;
+
+    @Setup
+    public void setup() throws Exception {
+        String signingKey = TestingUtility.readFile("certs/testSigningKey.p8");
+        bearerTokenAuthenticator = new BearerTokenAuthenticator(signingKey, "keyId", "issuerId", "bundleId");
+        cachingBearerTokenAuthenticator = new CachingBearerTokenAuthenticator(signingKey, "keyId", "issuerId", "bundleId");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return bearerTokenAuthenticator.generateToken();
+    }
+
+    @Benchmark
+    public String generateCachedToken() {
+        return cachingBearerTokenAuthenticator.generateToken();
+    }
+}
@@ -0,0 +1,44 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.internal;
+
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] transaction;
+
+    @Setup
+    public void setup() throws IOException {
+        // Configured as each client and verifier previously configured its own mapper
+        objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        transaction = TestingUtility.readBytes("models/signedTransaction.json");
+    }
+
+    @Benchmark
+    public JWSTransactionDecodedPayload readWithObjectMapper() throws IOException {
+        return objectMapper.readValue(transaction, 0, transaction.length, JWSTransactionDecodedPayload.class);
+    }
+
+    @Benchmark
+    public JWSTransactionDecodedPayload readWithCodec() throws IOException {
+        return JsonCodec.getInstance().readValue(transaction, 0, transaction.length, JWSTransactionDecodedPayload.class);
+    }
+}
@@ -0,0 +1,29 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.migration;
+
+import com.apple.itunes.storekit.util.TestingUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+@State(Scope.Benchmark)
+public class ReceiptUtilityBenchmark {
+
+    private ReceiptUtility receiptUtility;
+    private String appReceipt;
+
+    @Setup
+    public void setup() throws IOException {
+        receiptUtility = new ReceiptUtility();
+        appReceipt = TestingUtility.readFile("xcode/xcode-app-receipt-with-transaction");
+    }
+
+    @Benchmark
+    public String extractTransactionIdFromAppReceipt() throws IOException {
+        return receiptUtility.extractTransactionIdFromAppReceipt(appReceipt);
+    }
+}
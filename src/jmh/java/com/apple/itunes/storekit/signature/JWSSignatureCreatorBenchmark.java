@@ -0,0 +1,50 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.signature;
+
+import com.apple.itunes.storekit.advancedcommerce.AdvancedCommerceInAppSignatureCreator;
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.apple.itunes.storekit.model.AdvancedCommerceOneTimeChargeCreateRequest;
+import com.apple.itunes.storekit.offers.IntroductoryOfferEligibilitySignatureCreator;
+import com.apple.itunes.storekit.offers.PromotionalOfferV2SignatureCreator;
+import com.apple.itunes.storekit.util.TestingUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+@State(Scope.Benchmark)
+public class JWSSignatureCreatorBenchmark {
+
+    private PromotionalOfferV2SignatureCreator promotionalOfferV2SignatureCreator;
+    private IntroductoryOfferEligibilitySignatureCreator introductoryOfferEligibilitySignatureCreator;
+    private AdvancedCommerceInAppSignatureCreator advancedCommerceInAppSignatureCreator;
+    private AdvancedCommerceOneTimeChargeCreateRequest advancedCommerceRequest;
+
+    @Setup
+    public void setup() throws Exception {
+        String signingKey = TestingUtility.readFile("certs/testSigningKey.p8");
+        promotionalOfferV2SignatureCreator = new PromotionalOfferV2SignatureCreator(signingKey, "keyId", "issuerId", "bundleId");
+        introductoryOfferEligibilitySignatureCreator = new IntroductoryOfferEligibilitySignatureCreator(signingKey, "keyId", "issuerId", "bundleId");
+        advancedCommerceInAppSignatureCreator = new AdvancedCommerceInAppSignatureCreator(signingKey, "keyId", "issuerId", "bundleId");
+        byte[] request = TestingUtility.readBytes("models/advancedCommerceOneTimeChargeCreateRequest.json");
+        advancedCommerceRequest = JsonCodec.getInstance().readValue(request, 0, request.length, AdvancedCommerceOneTimeChargeCreateRequest.class);
+    }
+
+    @Benchmark
+    public String createPromotionalOfferV2Signature() {
+        return promotionalOfferV2SignatureCreator.createSignature("productId", "offerIdentifier", "transactionId");
+    }
+
+    @Benchmark
+    public String createIntroductoryOfferEligibilitySignature() {
+        return introductoryOfferEligibilitySignatureCreator.createSignature("productId", true, "transactionId");
+    }
+
+    @Benchmark
+    public String createAdvancedCommerceInAppSignature() throws IOException {
+        return advancedCommerceInAppSignatureCreator.createSignature(advancedCommerceRequest);
+    }
+}
@@ -0,0 +1,45 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.Set;
+
+@State(Scope.Benchmark)
+public class ChainVerifierBenchmark {
+
+    private ChainVerifier chainVerifier;
+    private String[] certificates;
+    private Date effectiveDate;
+
+    @Setup
+    public void setup() throws Exception {
+        chainVerifier = new ChainVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der"))));
+        DecodedJWT signedTransaction = JWT.decode(TestingUtility.readFile("mock_signed_data/transactionInfo"));
+        certificates = signedTransaction.getHeaderClaim("x5c").asArray(String.class);
+        effectiveDate = new Date(signedTransaction.getClaim("signedDate").asLong());
+    }
+
+    @Benchmark
+    public PublicKey verifyChainCached() throws VerificationException {
+        return chainVerifier.verifyChain(certificates, false, effectiveDate);
+    }
+
+    /**
+     * A full PKIX validation of the chain, as performed on a cache miss
+     */
+    @Benchmark
+    public PublicKey verifyChainUncached() throws VerificationException {
+        return chainVerifier.verifyChainWithoutCaching(certificates, false, effectiveDate);
+    }
+}
@@ -0,0 +1,168 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.JWSRenewalInfoDecodedPayload;
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.model.ResponseBodyV2DecodedPayload;
+import com.apple.itunes.storekit.util.SignedDataCreator;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+
+@State(Scope.Benchmark)
+public class SignedDataVerifierBenchmark {
+
+    private SignedDataVerifier verifier;
+    private SignedDataVerifier localTestingVerifier;
+    private String signedTransaction;
+    private String signedRenewalInfo;
+    private String signedNotification;
+    private String localTestingTransaction;
+    private JsonCodec jsonCodec;
+    private ChainVerifier chainVerifier;
+    private PublicKey signingKey;
+    private SignatureVerifier signatureVerifier;
+    private CompactJWS parsedTransaction;
+    private byte[] signedBytes;
+    private byte[] signatureBytes;
+    private Signature signature;
+
+    @Setup
+    public void setup() throws Exception {
+        verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example");
+        localTestingVerifier = TestingUtility.getSignedPayloadVerifier();
+        signedTransaction = TestingUtility.readFile("mock_signed_data/transactionInfo");
+        signedRenewalInfo = TestingUtility.readFile("mock_signed_data/renewalInfo");
+        signedNotification = TestingUtility.readFile("mock_signed_data/testNotification");
+        localTestingTransaction = SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json");
+        jsonCodec = JsonCodec.getInstance();
+        chainVerifier = new ChainVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der"))));
+        CompactJWS jws = CompactJWS.parse(signedTransaction, jsonCodec);
+        signatureVerifier = chainVerifier.verifyChainForSignatures(jws.getX5cChain(), false, new Date(jws.readPayload(JWSTransactionDecodedPayload.class, jsonCodec).getSignedDate()));
+        signingKey = signatureVerifier.getPublicKey();
+        parsedTransaction = jws;
+        signedBytes = signedTransaction.substring(0, signedTransaction.lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+        signatureBytes = Base64.getUrlDecoder().decode(signedTransaction.substring(signedTransaction.lastIndexOf('.') + 1));
+        signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initVerify(signingKey);
+    }
+
+    @Benchmark
+    public JWSTransactionDecodedPayload verifyAndDecodeTransaction() throws VerificationException {
+        return verifier.verifyAndDecodeTransaction(signedTransaction);
+    }
+
+    @Benchmark
+    public JWSRenewalInfoDecodedPayload verifyAndDecodeRenewalInfo() throws VerificationException {
+        return verifier.verifyAndDecodeRenewalInfo(signedRenewalInfo);
+    }
+
+    @Benchmark
+    public ResponseBodyV2DecodedPayload verifyAndDecodeNotification() throws VerificationException {
+        return verifier.verifyAndDecodeNotification(signedNotification);
+    }
+
+    /**
+     * Decoding without chain or signature verification, isolating the cost of parsing a full transaction payload
+     */
+    @Benchmark
+    public JWSTransactionDecodedPayload decodeLocalTestingTransaction() throws VerificationException {
+        return localTestingVerifier.verifyAndDecodeTransaction(localTestingTransaction);
+    }
+
+    /**
+     * The previous verification path for comparison, which decodes the token with java-jwt, decodes the payload a second
+     * time into the model, and builds a new verifier for every call
+     */
+    @Benchmark
+    public JWSTransactionDecodedPayload verifyAndDecodeTransactionWithJavaJwt() throws Exception {
+        DecodedJWT jwt = JWT.decode(signedTransaction);
+        String[] x5cChain = jwt.getHeaderClaim("x5c").asArray(String.class);
+        JWSTransactionDecodedPayload payload = jsonCodec.readerFor(JWSTransactionDecodedPayload.class).readValue(Base64.getUrlDecoder().decode(jwt.getPayload()));
+        PublicKey publicKey = chainVerifier.verifyChain(x5cChain, false, new Date(payload.getSignedDate()));
+        JWT.require(Algorithm.ECDSA256((ECPublicKey) publicKey)).build().verify(jwt);
+        return payload;
+    }
+
+    /**
+     * Splitting, decoding and verifying the signature of a transaction with a known key, without chain validation
+     */
+    @Benchmark
+    public JWSTransactionDecodedPayload decodeAndVerifySignature() throws VerificationException {
+        CompactJWS jws = CompactJWS.parse(signedTransaction, jsonCodec);
+        JWSTransactionDecodedPayload payload = jws.readPayload(JWSTransactionDecodedPayload.class, jsonCodec);
+        if (!jws.verifySignature(signatureVerifier)) {
+            throw new IllegalStateException();
+        }
+        return payload;
+    }
+
+    /**
+     * The equivalent of {@link #decodeAndVerifySignature()} initializing a signature for the key each time
+     */
+    @Benchmark
+    public JWSTransactionDecodedPayload decodeAndVerifySignatureWithUncachedVerifier() throws VerificationException {
+        CompactJWS jws = CompactJWS.parse(signedTransaction, jsonCodec);
+        JWSTransactionDecodedPayload payload = jws.readPayload(JWSTransactionDecodedPayload.class, jsonCodec);
+        if (!jws.verifySignature(signingKey)) {
+            throw new IllegalStateException();
+        }
+        return payload;
+    }
+
+    /**
+     * Only verifying the signature of an already parsed transaction with a cached verifier. With the gc profiler,
+     * its allocation per operation should only exceed {@link #verifySignatureWithProvider()} by the decoded signature.
+     */
+    @Benchmark
+    public boolean verifySignature() throws VerificationException {
+        return parsedTransaction.verifySignature(signatureVerifier);
+    }
+
+    /**
+     * The equivalent of {@link #verifySignature()} initializing a signature for the key each time
+     */
+    @Benchmark
+    public boolean verifySignatureWithUncachedVerifier() throws VerificationException {
+        return parsedTransaction.verifySignature(signingKey);
+    }
+
+    /**
+     * The provider's own cost of a verification, with a signature initialized once and an already decoded signature
+     */
+    @Benchmark
+    public boolean verifySignatureWithProvider() throws SignatureException {
+        signature.update(signedBytes);
+        return signature.verify(signatureBytes);
+    }
+
+    /**
+     * The equivalent of {@link #decodeAndVerifySignature()} through java-jwt, as previously used
+     */
+    @Benchmark
+    public JWSTransactionDecodedPayload decodeAndVerifySignatureWithJavaJwt() throws Exception {
+        DecodedJWT jwt = JWT.decode(signedTransaction);
+        jwt.getHeaderClaim("x5c").asArray(String.class);
+        JWSTransactionDecodedPayload payload = jsonCodec.readerFor(JWSTransactionDecodedPayload.class).readValue(Base64.getUrlDecoder().decode(jwt.getPayload()));
+        JWT.require(Algorithm.ECDSA256((ECPublicKey) signingKey)).build().verify(jwt);
+        return payload;
+    }
+}
@@ -2,13 +2,11 @@
 
 package com.apple.itunes.storekit.advancedcommerce;
 
+import com.apple.itunes.storekit.internal.JsonCodec;
 import com.apple.itunes.storekit.model.AdvancedCommerceInAppRequest;
 import com.apple.itunes.storekit.signature.JWSSignatureCreator;
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,7 +16,7 @@ public class AdvancedCommerceInAppSignatureCreator extends JWSSignatureCreator {
     private static final String AUDIENCE = "advanced-commerce-api";
     private static final String REQUEST_KEY = "request";
 
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
 
     /**
      * Create an AdvancedCommerceInAppSignatureCreator
@@ -29,13 +27,7 @@ public class AdvancedCommerceInAppSignatureCreator extends JWSSignatureCreator {
      */
     public AdvancedCommerceInAppSignatureCreator(String signingKey, String keyId, String issuerId, String bundleId) {
         super(AUDIENCE, signingKey, keyId, issuerId, bundleId);
-        this.objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        this.jsonCodec = JsonCodec.getInstance();
     }
 
     /**
@@ -49,8 +41,7 @@ public class AdvancedCommerceInAppSignatureCreator extends JWSSignatureCreator {
         if (advancedCommerceInAppRequest == null) {
             throw new IllegalArgumentException("advancedCommerceInAppRequest cannot be null");
         }
-        String jsonRequest = objectMapper.writeValueAsString(advancedCommerceInAppRequest);
-        byte[] utf8Bytes = jsonRequest.getBytes(StandardCharsets.UTF_8);
+        byte[] utf8Bytes = jsonCodec.writeValueAsBytes(advancedCommerceInAppRequest);
         String encodedRequest = Base64.getEncoder().encodeToString(utf8Bytes);
         Map<String, Object> claims = new HashMap<>();
         claims.put(REQUEST_KEY, encodedRequest);
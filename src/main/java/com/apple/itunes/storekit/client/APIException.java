@@ -2,6 +2,8 @@
 
 package com.apple.itunes.storekit.client;
 
+import java.time.Duration;
+
 /**
  * Thrown when a non-2xx response is returned when calling the App Store Server API.
  * <p>
@@ -11,6 +13,7 @@ public class APIException extends Exception {
     private final int httpStatusCode;
     private final Long apiErrorCode;
     private final String apiErrorMessage;
+    private Duration retryAfter;
 
     public APIException(int httpStatusCode, Exception cause) {
         super("Failed to call API with httpStatusCode=" + httpStatusCode, cause);
@@ -56,6 +59,17 @@ public class APIException extends Exception {
         return apiErrorMessage;
     }
 
+    /**
+     * @return How long the response asked clients to wait before retrying, from its {@code Retry-After} header, or null if it did not
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
     @Override
     public String toString() {
         return "APIException{" +
@@ -0,0 +1,276 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A client-side token bucket rate limiter with a separate bucket for each App Store Server API endpoint path template.
+ * <p>
+ * Each bucket starts at the configured rate for its endpoint. When the App Store Server API responds with
+ * {@link APIError#RATE_LIMIT_EXCEEDED} or HTTP 429, the rate of the endpoint is reduced multiplicatively, and every
+ * successful response increases it again, up to the configured rate.
+ * <p>
+ * A call that cannot start immediately waits up to the configured maximum wait, after which it fails with a
+ * {@link RateLimitedException}. A maximum wait of zero fails fast. {@link #withMaxWait(Duration)} returns a limiter
+ * sharing the same buckets with a different maximum wait, so that for example a bulk job may queue while interactive
+ * calls against the same endpoints fail fast.
+ */
+public final class AdaptiveRateLimiter {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final Settings settings;
+    private final ConcurrentHashMap<String, Bucket> buckets;
+    private final long maxWaitNanos;
+
+    private AdaptiveRateLimiter(Settings settings, ConcurrentHashMap<String, Bucket> buckets, long maxWaitNanos) {
+        this.settings = settings;
+        this.buckets = buckets;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @return A builder for a limiter allowing 20 calls per second to each endpoint that fails fast
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param maxWait How long a call may wait for its endpoint's bucket, zero to fail fast
+     * @return A limiter sharing the buckets of this limiter, with a different maximum wait
+     */
+    public AdaptiveRateLimiter withMaxWait(Duration maxWait) {
+        validateMaxWait(maxWait);
+        return new AdaptiveRateLimiter(settings, buckets, maxWait.toNanos());
+    }
+
+    /**
+     * @param endpoint The path template of an endpoint
+     * @return The number of calls per second currently allowed to the endpoint
+     */
+    public double getCurrentRate(String endpoint) {
+        return bucket(endpoint).getRate();
+    }
+
+    /**
+     * Reserve a call to an endpoint
+     * @param endpoint The path template of the endpoint
+     * @return How long the caller must wait before making the call in nanoseconds, or a negative value if the wait would exceed the maximum wait, in which case nothing was reserved
+     */
+    long reserve(String endpoint) {
+        return bucket(endpoint).reserve(System.nanoTime(), maxWaitNanos);
+    }
+
+    /**
+     * @param endpoint The path template of the endpoint
+     * @return How long until a call to the endpoint could start without waiting, in nanoseconds
+     */
+    long nanosUntilAvailable(String endpoint) {
+        return bucket(endpoint).nanosUntilAvailable(System.nanoTime());
+    }
+
+    /**
+     * Adapt the rate of an endpoint to the outcome of a call
+     * @param endpoint The path template of the endpoint
+     * @param statusCode The HTTP status code of the response, 429 when the App Store Server API returned {@link APIError#RATE_LIMIT_EXCEEDED}
+     */
+    void onResponse(String endpoint, int statusCode) {
+        if (statusCode == TOO_MANY_REQUESTS) {
+            bucket(endpoint).decrease();
+        } else if (statusCode >= 200 && statusCode < 300) {
+            bucket(endpoint).increase();
+        }
+    }
+
+    private Bucket bucket(String endpoint) {
+        return buckets.computeIfAbsent(endpoint, e -> new Bucket(settings, settings.endpointRates.getOrDefault(e, settings.defaultRate), System.nanoTime()));
+    }
+
+    private static void validateMaxWait(Duration maxWait) {
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+    }
+
+    public static final class Builder {
+        private double defaultRate = 20;
+        private final Map<String, Double> endpointRates = new HashMap<>();
+        private double minimumRate = 1;
+        private double decreaseFactor = 0.5;
+        private double recoveryFraction = 0.01;
+        private Duration burst = Duration.ofSeconds(1);
+        private Duration maxWait = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        /**
+         * @param callsPerSecond The highest rate allowed to an endpoint without its own rate
+         * @return This builder
+         */
+        public Builder defaultRate(double callsPerSecond) {
+            validateRate(callsPerSecond);
+            this.defaultRate = callsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param endpoint The path template of the endpoint, for example {@code /inApps/v1/subscriptions/{transactionId}}
+         * @param callsPerSecond The highest rate allowed to the endpoint
+         * @return This builder
+         */
+        public Builder endpointRate(String endpoint, double callsPerSecond) {
+            validateRate(callsPerSecond);
+            this.endpointRates.put(endpoint, callsPerSecond);
+            return this;
+        }
+
+        /**
+         * @param callsPerSecond The rate below which an endpoint is never reduced
+         * @return This builder
+         */
+        public Builder minimumRate(double callsPerSecond) {
+            validateRate(callsPerSecond);
+            this.minimumRate = callsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param decreaseFactor The factor the rate of an endpoint is multiplied by when it is rate limited, between 0 and 1
+         * @param recoveryFraction The fraction of the configured rate of an endpoint that each successful call adds back, between 0 and 1
+         * @return This builder
+         */
+        public Builder adaptation(double decreaseFactor, double recoveryFraction) {
+            if (decreaseFactor <= 0 || decreaseFactor >= 1 || recoveryFraction <= 0 || recoveryFraction > 1) {
+                throw new IllegalArgumentException("decreaseFactor must be between 0 and 1 exclusive, and recoveryFraction between 0 exclusive and 1");
+            }
+            this.decreaseFactor = decreaseFactor;
+            this.recoveryFraction = recoveryFraction;
+            return this;
+        }
+
+        /**
+         * @param burst How many seconds of calls an idle endpoint accumulates, allowing them to be made at once
+         * @return This builder
+         */
+        public Builder burst(Duration burst) {
+            if (burst.isNegative() || burst.isZero()) {
+                throw new IllegalArgumentException("burst must be positive");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * @param maxWait How long a call may wait for its endpoint's bucket, zero to fail fast
+         * @return This builder
+         */
+        public Builder maxWait(Duration maxWait) {
+            validateMaxWait(maxWait);
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        private static void validateRate(double callsPerSecond) {
+            if (!(callsPerSecond > 0)) {
+                throw new IllegalArgumentException("Rates must be positive");
+            }
+        }
+
+        public AdaptiveRateLimiter build() {
+            Settings settings = new Settings(defaultRate, Map.copyOf(endpointRates), minimumRate, decreaseFactor, recoveryFraction, burst.toNanos() / NANOS_PER_SECOND);
+            return new AdaptiveRateLimiter(settings, new ConcurrentHashMap<>(), maxWait.toNanos());
+        }
+    }
+
+    private static class Settings {
+        private final double defaultRate;
+        private final Map<String, Double> endpointRates;
+        private final double minimumRate;
+        private final double decreaseFactor;
+        private final double recoveryFraction;
+        private final double burstSeconds;
+
+        public Settings(double defaultRate, Map<String, Double> endpointRates, double minimumRate, double decreaseFactor, double recoveryFraction, double burstSeconds) {
+            this.defaultRate = defaultRate;
+            this.endpointRates = endpointRates;
+            this.minimumRate = minimumRate;
+            this.decreaseFactor = decreaseFactor;
+            this.recoveryFraction = recoveryFraction;
+            this.burstSeconds = burstSeconds;
+        }
+    }
+
+    private static class Bucket {
+        private final double maximumRate;
+        private final double minimumRate;
+        private final double decreaseFactor;
+        private final double increase;
+        private final double burstSeconds;
+        private double rate;
+        // Negative when calls are waiting for their reservation
+        private double tokens;
+        private long lastRefillNanos;
+
+        public Bucket(Settings settings, double maximumRate, long nowNanos) {
+            this.maximumRate = maximumRate;
+            this.minimumRate = Math.min(settings.minimumRate, maximumRate);
+            this.decreaseFactor = settings.decreaseFactor;
+            this.increase = maximumRate * settings.recoveryFraction;
+            this.burstSeconds = settings.burstSeconds;
+            this.rate = maximumRate;
+            this.tokens = capacity();
+            this.lastRefillNanos = nowNanos;
+        }
+
+        public synchronized long reserve(long nowNanos, long maxWaitNanos) {
+            refill(nowNanos);
+            long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            tokens -= 1;
+            return waitNanos;
+        }
+
+        public synchronized long nanosUntilAvailable(long nowNanos) {
+            refill(nowNanos);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND);
+        }
+
+        public synchronized void decrease() {
+            refill(System.nanoTime());
+            rate = Math.max(minimumRate, rate * decreaseFactor);
+            // Any accumulated burst is what caused the rate limit, do not spend it
+            tokens = Math.min(tokens, 0);
+        }
+
+        public synchronized void increase() {
+            if (rate < maximumRate) {
+                refill(System.nanoTime());
+                rate = Math.min(maximumRate, rate + increase);
+            }
+        }
+
+        public synchronized double getRate() {
+            return rate;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsedNanos = nowNanos - lastRefillNanos;
+            if (elapsedNanos > 0) {
+                tokens = Math.min(capacity(), tokens + elapsedNanos / NANOS_PER_SECOND * rate);
+                lastRefillNanos = nowNanos;
+            }
+        }
+
+        private double capacity() {
+            return Math.max(1, rate * burstSeconds);
+        }
+    }
+}
@@ -2,24 +2,35 @@
 
 package com.apple.itunes.storekit.client;
 
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
 import com.apple.itunes.storekit.model.Environment;
 import com.apple.itunes.storekit.model.ErrorPayload;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import okhttp3.Authenticator;
 import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
 
@@ -27,7 +38,7 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
     private final HttpUrl urlBase;
 
     /**
-     * Create an App Store Server API client
+     * Create an App Store Server API client, with the same HTTP client defaults as {@link #builder()}
      * @param signingKey Your private key downloaded from App Store Connect
      * @param keyId Your private key ID from App Store Connect
      * @param issuerId Your issuer ID from the Keys page in App Store Connect
@@ -39,17 +50,42 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
     }
 
     /**
-     * Create an App Store Server API client using a custom Bearer token provider
+     * Create an App Store Server API client using a custom Bearer token provider, with the same HTTP client defaults as
+     * {@link #builder()}
      * @param bearerTokenAuthenticator An implementation of {@link BearerTokenAuthenticatorInterface} that provides tokens
      * @param environment The environment to target
      */
     public AppStoreServerAPIClient(BearerTokenAuthenticatorInterface bearerTokenAuthenticator, Environment environment) {
+        this(bearerTokenAuthenticator, environment, new Builder().buildHttpClient());
+    }
+
+    /**
+     * Create an App Store Server API client sending requests through an existing {@link OkHttpClient}
+     * <p>
+     * Clients created from the same {@link OkHttpClient}, for example one per bundle ID, share its connection pool and dispatcher.
+     * @param bearerTokenAuthenticator An implementation of {@link BearerTokenAuthenticatorInterface} that provides tokens
+     * @param environment The environment to target
+     * @param httpClient The HTTP client used for requests
+     * @see #builder()
+     */
+    public AppStoreServerAPIClient(BearerTokenAuthenticatorInterface bearerTokenAuthenticator, Environment environment, OkHttpClient httpClient) {
         super(bearerTokenAuthenticator, environment);
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.urlBase = HttpUrl.parse(this.url);
+    }
+
+    /**
+     * @return A builder for a client, allowing the connection pool, concurrency, protocols and timeouts of its HTTP client to be configured
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static OkHttpClient.Builder newHttpClientBuilder() {
         OkHttpClient.Builder builder = new OkHttpClient.Builder();
         // If a proxy is configured via java.net.ProxySelector.setDefault, this will allow java.net.Authenticator.setDefault to serve as its auth source
         builder.proxyAuthenticator(Authenticator.JAVA_NET_AUTHENTICATOR);
-        this.httpClient = builder.build();
-        this.urlBase = HttpUrl.parse(this.url);
+        return builder;
     }
 
     @Override
@@ -59,6 +95,40 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
                                                 Map<String, String> headers,
                                                 String contentType,
                                                 byte[] body) throws IOException {
+        return new OkHttpResponse(getResponse(buildRequest(path, method, queryParameters, headers, contentType, body)));
+    }
+
+    @Override
+    protected CompletableFuture<HttpResponseInterface> makeRequestAsync(String path,
+                                                                         String method,
+                                                                         Map<String, List<String>> queryParameters,
+                                                                         Map<String, String> headers,
+                                                                         String contentType,
+                                                                         byte[] body) {
+        CompletableFuture<Response> response = getResponseAsync(buildRequest(path, method, queryParameters, headers, contentType, body));
+        CompletableFuture<HttpResponseInterface> result = new CompletableFuture<>();
+        response.whenComplete((r, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else if (!result.complete(new OkHttpResponse(r))) {
+                // The future was cancelled before the response arrived
+                r.close();
+            }
+        });
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private Request buildRequest(String path,
+                                 String method,
+                                 Map<String, List<String>> queryParameters,
+                                 Map<String, String> headers,
+                                 String contentType,
+                                 byte[] body) {
         Request.Builder requestBuilder = new Request.Builder();
         headers.forEach(requestBuilder::addHeader);
         HttpUrl.Builder urlBuilder = Objects.requireNonNull(urlBase.resolve(path)).newBuilder();
@@ -74,7 +144,7 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
         } else {
             requestBuilder.method(method, null);
         }
-        return new OkHttpResponse(getResponse(requestBuilder.build()));
+        return requestBuilder.build();
     }
 
     protected Response getResponse(Request request) throws IOException {
@@ -82,6 +152,244 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
         return call.execute();
     }
 
+    protected CompletableFuture<Response> getResponseAsync(Request request) {
+        Call call = httpClient.newCall(request);
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!future.complete(response)) {
+                    // The future was cancelled before the response arrived
+                    response.close();
+                }
+            }
+        });
+        future.whenComplete((r, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * A builder for an {@link AppStoreServerAPIClient}.
+     * <p>
+     * Unless a shared {@link OkHttpClient} is provided, the client uses a connection pool of 5 idle connections kept alive
+     * for 5 minutes, allows 64 concurrent requests, all of which may go to the App Store Server API, negotiates HTTP/2
+     * when available, and uses OkHttp's default timeouts. With a shared client, only the options set on this builder
+     * differ from it. Changing the connection pool or the concurrency creates a pool or dispatcher that is not shared.
+     */
+    public static final class Builder {
+        private BearerTokenAuthenticatorInterface bearerTokenAuthenticator;
+        private Environment environment;
+        private OkHttpClient httpClient;
+        private ConnectionPool connectionPool;
+        private Integer maxRequests;
+        private Integer maxRequestsPerHost;
+        private Boolean http2;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration callTimeout;
+        private MetricsRecorder metricsRecorder;
+        private RetryPolicy retryPolicy;
+        private AdaptiveRateLimiter rateLimiter;
+
+        private Builder() {
+        }
+
+        /**
+         * @param signingKey Your private key downloaded from App Store Connect
+         * @param keyId Your private key ID from App Store Connect
+         * @param issuerId Your issuer ID from the Keys page in App Store Connect
+         * @param bundleId Your app’s bundle ID
+         * @return This builder
+         */
+        public Builder credentials(String signingKey, String keyId, String issuerId, String bundleId) {
+            return bearerTokenAuthenticator(new BearerTokenAuthenticator(signingKey, keyId, issuerId, bundleId));
+        }
+
+        /**
+         * @param bearerTokenAuthenticator An implementation of {@link BearerTokenAuthenticatorInterface} that provides tokens
+         * @return This builder
+         */
+        public Builder bearerTokenAuthenticator(BearerTokenAuthenticatorInterface bearerTokenAuthenticator) {
+            this.bearerTokenAuthenticator = Objects.requireNonNull(bearerTokenAuthenticator);
+            return this;
+        }
+
+        /**
+         * @param environment The environment to target
+         * @return This builder
+         */
+        public Builder environment(Environment environment) {
+            this.environment = Objects.requireNonNull(environment);
+            return this;
+        }
+
+        /**
+         * @param httpClient An HTTP client whose connection pool, dispatcher and settings are shared with the built client
+         * @return This builder
+         */
+        public Builder httpClient(OkHttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient);
+            return this;
+        }
+
+        /**
+         * @param maxIdleConnections The maximum number of idle connections kept open
+         * @param keepAlive How long an idle connection is kept open
+         * @return This builder
+         */
+        public Builder connectionPool(int maxIdleConnections, Duration keepAlive) {
+            if (maxIdleConnections < 0 || keepAlive.isNegative() || keepAlive.isZero()) {
+                throw new IllegalArgumentException("maxIdleConnections must not be negative and keepAlive must be positive");
+            }
+            this.connectionPool = new ConnectionPool(maxIdleConnections, keepAlive.toNanos(), TimeUnit.NANOSECONDS);
+            return this;
+        }
+
+        /**
+         * @param maxRequests The maximum number of asynchronous requests in flight, further requests are queued
+         * @param maxRequestsPerHost The maximum number of asynchronous requests in flight to a single host
+         * @return This builder
+         */
+        public Builder maxRequests(int maxRequests, int maxRequestsPerHost) {
+            if (maxRequests < 1 || maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequests and maxRequestsPerHost must be positive");
+            }
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param http2 Whether HTTP/2 is negotiated when available, allowing requests to share a connection, or only HTTP/1.1 is used
+         * @return This builder
+         */
+        public Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * @param connectTimeout How long to wait to establish a connection, zero for no timeout
+         * @return This builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = validateTimeout(connectTimeout);
+            return this;
+        }
+
+        /**
+         * @param readTimeout How long to wait for data from an established connection, zero for no timeout
+         * @return This builder
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = validateTimeout(readTimeout);
+            return this;
+        }
+
+        /**
+         * @param callTimeout How long a whole request may take, from connecting until the response body is read, zero for no timeout
+         * @return This builder
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = validateTimeout(callTimeout);
+            return this;
+        }
+
+        /**
+         * @param metricsRecorder The recorder passed to {@link BaseAppStoreServerAPIClient#setMetricsRecorder(MetricsRecorder)}
+         * @return This builder
+         */
+        public Builder metricsRecorder(MetricsRecorder metricsRecorder) {
+            this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+            return this;
+        }
+
+        /**
+         * @param retryPolicy The policy passed to {@link BaseAppStoreServerAPIClient#setRetryPolicy(RetryPolicy)}
+         * @return This builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param rateLimiter The limiter passed to {@link BaseAppStoreServerAPIClient#setRateLimiter(AdaptiveRateLimiter)}
+         * @return This builder
+         */
+        public Builder rateLimiter(AdaptiveRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        private static Duration validateTimeout(Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Timeouts must not be negative");
+            }
+            return timeout;
+        }
+
+        /**
+         * @return The configured HTTP client, without building an App Store Server API client
+         */
+        OkHttpClient buildHttpClient() {
+            OkHttpClient.Builder builder;
+            if (httpClient != null) {
+                builder = httpClient.newBuilder();
+            } else {
+                builder = newHttpClientBuilder();
+                Dispatcher dispatcher = new Dispatcher();
+                // Every request goes to the same host, so the per host limit would otherwise cap concurrency at 5
+                dispatcher.setMaxRequestsPerHost(dispatcher.getMaxRequests());
+                builder.dispatcher(dispatcher);
+            }
+            if (connectionPool != null) {
+                builder.connectionPool(connectionPool);
+            }
+            if (maxRequests != null) {
+                Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(maxRequests);
+                dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+                builder.dispatcher(dispatcher);
+            }
+            if (http2 != null) {
+                builder.protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1));
+            }
+            if (connectTimeout != null) {
+                builder.connectTimeout(connectTimeout);
+            }
+            if (readTimeout != null) {
+                builder.readTimeout(readTimeout);
+            }
+            if (callTimeout != null) {
+                builder.callTimeout(callTimeout);
+            }
+            return builder.build();
+        }
+
+        public AppStoreServerAPIClient build() {
+            if (bearerTokenAuthenticator == null || environment == null) {
+                throw new IllegalStateException("Credentials or a bearer token authenticator, and an environment, must be set");
+            }
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(bearerTokenAuthenticator, environment, buildHttpClient());
+            if (metricsRecorder != null) {
+                client.setMetricsRecorder(metricsRecorder);
+            }
+            client.setRetryPolicy(retryPolicy);
+            client.setRateLimiter(rateLimiter);
+            return client;
+        }
+    }
+
     protected static class OkHttpResponse implements HttpResponseInterface {
         private final Response response;
 
@@ -100,6 +408,23 @@ public class AppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
             return responseBody != null ? responseBody.charStream() : null;
         }
 
+        @Override
+        public InputStream byteStream() {
+            ResponseBody responseBody = response.body();
+            if (responseBody == null) {
+                return null;
+            }
+            MediaType contentType = responseBody.contentType();
+            Charset charset = contentType != null ? contentType.charset() : null;
+            // JSON is UTF-8 unless stated otherwise
+            return charset == null || StandardCharsets.UTF_8.equals(charset) ? responseBody.byteStream() : null;
+        }
+
+        @Override
+        public String header(String name) {
+            return response.header(name);
+        }
+
         @Override
         public void close() {
             response.close();
@@ -0,0 +1,306 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.AppTransactionInfoResponse;
+import com.apple.itunes.storekit.model.CheckTestNotificationResponse;
+import com.apple.itunes.storekit.model.ConsumptionRequest;
+import com.apple.itunes.storekit.model.ConsumptionRequestV1;
+import com.apple.itunes.storekit.model.DefaultConfigurationRequest;
+import com.apple.itunes.storekit.model.DefaultConfigurationResponse;
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.ExtendRenewalDateRequest;
+import com.apple.itunes.storekit.model.ExtendRenewalDateResponse;
+import com.apple.itunes.storekit.model.GetImageListResponse;
+import com.apple.itunes.storekit.model.GetMessageListResponse;
+import com.apple.itunes.storekit.model.HistoryResponse;
+import com.apple.itunes.storekit.model.ImageSize;
+import com.apple.itunes.storekit.model.MassExtendRenewalDateRequest;
+import com.apple.itunes.storekit.model.MassExtendRenewalDateResponse;
+import com.apple.itunes.storekit.model.MassExtendRenewalDateStatusResponse;
+import com.apple.itunes.storekit.model.NotificationHistoryRequest;
+import com.apple.itunes.storekit.model.NotificationHistoryResponse;
+import com.apple.itunes.storekit.model.NotificationHistoryResponseItem;
+import com.apple.itunes.storekit.model.OrderLookupResponse;
+import com.apple.itunes.storekit.model.PerformanceTestRequest;
+import com.apple.itunes.storekit.model.PerformanceTestResponse;
+import com.apple.itunes.storekit.model.PerformanceTestResultResponse;
+import com.apple.itunes.storekit.model.RealtimeUrlRequest;
+import com.apple.itunes.storekit.model.RealtimeUrlResponse;
+import com.apple.itunes.storekit.model.RefundHistoryResponse;
+import com.apple.itunes.storekit.model.SendTestNotificationResponse;
+import com.apple.itunes.storekit.model.Status;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.model.TransactionInfoResponse;
+import com.apple.itunes.storekit.model.UpdateAppAccountTokenRequest;
+import com.apple.itunes.storekit.model.UploadMessageRequestBody;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static com.apple.itunes.storekit.client.BaseAppStoreServerAPIClient.JSON;
+import static com.apple.itunes.storekit.client.BaseAppStoreServerAPIClient.PNG;
+
+/**
+ * A non-blocking variant of the App Store Server API client, returning a {@link CompletableFuture} for every endpoint.
+ * <p>
+ * Requests are sent through {@link BaseAppStoreServerAPIClient#makeRequestAsync}, so an {@link AppStoreServerAPIClient} does not hold a thread while a request is in flight.
+ * Futures complete exceptionally with an {@link APIException} if a response was returned indicating the request could not be processed,
+ * or an {@link java.io.IOException} if an exception was thrown while making the request.
+ * Cancelling a future cancels the request in flight, and any retry not yet sent.
+ */
+public class AsyncAppStoreServerAPIClient {
+
+    private final BaseAppStoreServerAPIClient client;
+
+    /**
+     * Create an asynchronous App Store Server API client
+     * @param signingKey Your private key downloaded from App Store Connect
+     * @param keyId Your private key ID from App Store Connect
+     * @param issuerId Your issuer ID from the Keys page in App Store Connect
+     * @param bundleId Your app’s bundle ID
+     * @param environment The environment to target
+     */
+    public AsyncAppStoreServerAPIClient(String signingKey, String keyId, String issuerId, String bundleId, Environment environment) {
+        this(new AppStoreServerAPIClient(signingKey, keyId, issuerId, bundleId, environment));
+    }
+
+    /**
+     * Create an asynchronous App Store Server API client sending requests through an existing client
+     * @param client The client whose transport and configuration is used for requests
+     */
+    public AsyncAppStoreServerAPIClient(BaseAppStoreServerAPIClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#extendRenewalDateForAllActiveSubscribers(MassExtendRenewalDateRequest)
+     */
+    public CompletableFuture<MassExtendRenewalDateResponse> extendRenewalDateForAllActiveSubscribers(MassExtendRenewalDateRequest massExtendRenewalDateRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.MASS_EXTEND_RENEWAL_DATE_PATH, "POST", Map.of(), massExtendRenewalDateRequest, MassExtendRenewalDateResponse.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#extendSubscriptionRenewalDate(String, ExtendRenewalDateRequest)
+     */
+    public CompletableFuture<ExtendRenewalDateResponse> extendSubscriptionRenewalDate(String originalTransactionId, ExtendRenewalDateRequest extendRenewalDateRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.extendRenewalDatePath(originalTransactionId), "PUT", Map.of(), extendRenewalDateRequest, ExtendRenewalDateResponse.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getAllSubscriptionStatuses(String, Status[])
+     */
+    public CompletableFuture<StatusResponse> getAllSubscriptionStatuses(String anyTransactionId, Status[] status) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.subscriptionStatusesPath(anyTransactionId), "GET", BaseAppStoreServerAPIClient.createStatusQueryParameters(status), null, StatusResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getRefundHistory(String, String)
+     */
+    public CompletableFuture<RefundHistoryResponse> getRefundHistory(String anyTransactionId, String revision) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.refundHistoryPath(anyTransactionId), "GET", BaseAppStoreServerAPIClient.createOptionalQueryParameters("revision", revision), null, RefundHistoryResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getStatusOfSubscriptionRenewalDateExtensions(String, String)
+     */
+    public CompletableFuture<MassExtendRenewalDateStatusResponse> getStatusOfSubscriptionRenewalDateExtensions(String requestIdentifier, String productId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.massExtendRenewalDateStatusPath(productId, requestIdentifier), "GET", Map.of(), null, MassExtendRenewalDateStatusResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getTestNotificationStatus(String)
+     */
+    public CompletableFuture<CheckTestNotificationResponse> getTestNotificationStatus(String testNotificationToken) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.testNotificationStatusPath(testNotificationToken), "GET", Map.of(), null, CheckTestNotificationResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getNotificationHistory(String, NotificationHistoryRequest)
+     */
+    public CompletableFuture<NotificationHistoryResponse> getNotificationHistory(String paginationToken, NotificationHistoryRequest notificationHistoryRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.NOTIFICATION_HISTORY_PATH, "POST", BaseAppStoreServerAPIClient.createOptionalQueryParameters("paginationToken", paginationToken), notificationHistoryRequest, NotificationHistoryResponse.class, JSON);
+    }
+
+    /**
+     * The consumer is called on the thread completing the request, before the returned future completes.
+     * @see BaseAppStoreServerAPIClient#getNotificationHistory(String, NotificationHistoryRequest, Consumer)
+     */
+    public CompletableFuture<NotificationHistoryResponse> getNotificationHistory(String paginationToken, NotificationHistoryRequest notificationHistoryRequest, Consumer<? super NotificationHistoryResponseItem> notificationConsumer) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.NOTIFICATION_HISTORY_PATH, "POST", BaseAppStoreServerAPIClient.createOptionalQueryParameters("paginationToken", paginationToken), notificationHistoryRequest, client.notificationHistoryReader(notificationConsumer), JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getTransactionHistory(String, String, TransactionHistoryRequest, GetTransactionHistoryVersion)
+     */
+    public CompletableFuture<HistoryResponse> getTransactionHistory(String anyTransactionId, String revision, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.transactionHistoryPath(anyTransactionId, version), "GET", BaseAppStoreServerAPIClient.createTransactionHistoryQueryParameters(revision, transactionHistoryRequest), null, HistoryResponse.class, null);
+    }
+
+    /**
+     * The consumer is called on the thread completing the request, before the returned future completes.
+     * @see BaseAppStoreServerAPIClient#getTransactionHistory(String, String, TransactionHistoryRequest, GetTransactionHistoryVersion, Consumer)
+     */
+    public CompletableFuture<HistoryResponse> getTransactionHistory(String anyTransactionId, String revision, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version, Consumer<? super String> signedTransactionConsumer) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.transactionHistoryPath(anyTransactionId, version), "GET", BaseAppStoreServerAPIClient.createTransactionHistoryQueryParameters(revision, transactionHistoryRequest), null, client.transactionHistoryReader(signedTransactionConsumer), null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getTransactionInfo(String)
+     */
+    public CompletableFuture<TransactionInfoResponse> getTransactionInfo(String transactionId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.transactionInfoPath(transactionId), "GET", Map.of(), null, TransactionInfoResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#lookUpOrderId(String)
+     */
+    public CompletableFuture<OrderLookupResponse> lookUpOrderId(String orderId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.orderLookupPath(orderId), "GET", Map.of(), null, OrderLookupResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#requestTestNotification()
+     */
+    public CompletableFuture<SendTestNotificationResponse> requestTestNotification() {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.TEST_NOTIFICATION_PATH, "POST", Map.of(), null, SendTestNotificationResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#sendConsumptionData(String, ConsumptionRequestV1)
+     * @deprecated Use {@link #sendConsumptionInformation(String, ConsumptionRequest)} instead
+     */
+    @Deprecated
+    public CompletableFuture<Void> sendConsumptionData(String transactionId, ConsumptionRequestV1 consumptionRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.consumptionDataPath(transactionId), "PUT", Map.of(), consumptionRequest, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#sendConsumptionInformation(String, ConsumptionRequest)
+     */
+    public CompletableFuture<Void> sendConsumptionInformation(String transactionId, ConsumptionRequest consumptionRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.consumptionInformationPath(transactionId), "PUT", Map.of(), consumptionRequest, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#setAppAccountToken(String, UpdateAppAccountTokenRequest)
+     */
+    public CompletableFuture<Void> setAppAccountToken(String originalTransactionId, UpdateAppAccountTokenRequest updateAppAccountTokenRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.appAccountTokenPath(originalTransactionId), "PUT", Map.of(), updateAppAccountTokenRequest, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#uploadImage(UUID, byte[], ImageSize)
+     */
+    public CompletableFuture<Void> uploadImage(UUID imageIdentifier, byte[] image, ImageSize imageSize) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.imagePath(imageIdentifier), "PUT", BaseAppStoreServerAPIClient.createImageQueryParameters(imageSize), image, Void.class, PNG);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#deleteImage(UUID)
+     */
+    public CompletableFuture<Void> deleteImage(UUID imageIdentifier) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.imagePath(imageIdentifier), "DELETE", Map.of(), null, Void.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getImageList()
+     */
+    public CompletableFuture<GetImageListResponse> getImageList() {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.IMAGE_LIST_PATH, "GET", Map.of(), null, GetImageListResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#uploadMessage(UUID, UploadMessageRequestBody)
+     */
+    public CompletableFuture<Void> uploadMessage(UUID messageIdentifier, UploadMessageRequestBody uploadMessageRequestBody) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.messagePath(messageIdentifier), "PUT", Map.of(), uploadMessageRequestBody, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#deleteMessage(UUID)
+     */
+    public CompletableFuture<Void> deleteMessage(UUID messageIdentifier) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.messagePath(messageIdentifier), "DELETE", Map.of(), null, Void.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getMessageList()
+     */
+    public CompletableFuture<GetMessageListResponse> getMessageList() {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.MESSAGE_LIST_PATH, "GET", Map.of(), null, GetMessageListResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#configureDefaultMessage(String, String, DefaultConfigurationRequest)
+     */
+    public CompletableFuture<Void> configureDefaultMessage(String productId, String locale, DefaultConfigurationRequest defaultConfigurationRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.defaultMessagePath(productId, locale), "PUT", Map.of(), defaultConfigurationRequest, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#deleteDefaultMessage(String, String)
+     */
+    public CompletableFuture<Void> deleteDefaultMessage(String productId, String locale) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.defaultMessagePath(productId, locale), "DELETE", Map.of(), null, Void.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getDefaultMessage(String, String)
+     */
+    public CompletableFuture<DefaultConfigurationResponse> getDefaultMessage(String productId, String locale) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.defaultMessagePath(productId, locale), "GET", Map.of(), null, DefaultConfigurationResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#configureRealtimeURL(RealtimeUrlRequest)
+     */
+    public CompletableFuture<Void> configureRealtimeURL(RealtimeUrlRequest realtimeUrlRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.REALTIME_URL_PATH, "PUT", Map.of(), realtimeUrlRequest, Void.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#deleteRealtimeURL()
+     */
+    public CompletableFuture<Void> deleteRealtimeURL() {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.REALTIME_URL_PATH, "DELETE", Map.of(), null, Void.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getRealtimeURL()
+     */
+    public CompletableFuture<RealtimeUrlResponse> getRealtimeURL() {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.REALTIME_URL_PATH, "GET", Map.of(), null, RealtimeUrlResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#initiatePerformanceTest(PerformanceTestRequest)
+     */
+    public CompletableFuture<PerformanceTestResponse> initiatePerformanceTest(PerformanceTestRequest performanceTestRequest) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.PERFORMANCE_TEST_PATH, "POST", Map.of(), performanceTestRequest, PerformanceTestResponse.class, JSON);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getPerformanceTestResults(String)
+     */
+    public CompletableFuture<PerformanceTestResultResponse> getPerformanceTestResults(String requestId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.performanceTestResultPath(requestId), "GET", Map.of(), null, PerformanceTestResultResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#getAppTransactionInfo(String)
+     */
+    public CompletableFuture<AppTransactionInfoResponse> getAppTransactionInfo(String anyTransactionId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.appTransactionInfoPath(anyTransactionId), "GET", Map.of(), null, AppTransactionInfoResponse.class, null);
+    }
+
+    /**
+     * @see BaseAppStoreServerAPIClient#finishTransaction(String)
+     */
+    public CompletableFuture<Void> finishTransaction(String transactionId) {
+        return client.makeHttpCallAsync(BaseAppStoreServerAPIClient.finishTransactionPath(transactionId), "POST", Map.of(), null, Void.class, null);
+    }
+}
@@ -2,6 +2,8 @@
 
 package com.apple.itunes.storekit.client;
 
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
 import com.apple.itunes.storekit.model.AppTransactionInfoResponse;
 import com.apple.itunes.storekit.model.CheckTestNotificationResponse;
 import com.apple.itunes.storekit.model.ConsumptionRequest;
@@ -21,6 +23,7 @@ import com.apple.itunes.storekit.model.MassExtendRenewalDateResponse;
 import com.apple.itunes.storekit.model.MassExtendRenewalDateStatusResponse;
 import com.apple.itunes.storekit.model.NotificationHistoryRequest;
 import com.apple.itunes.storekit.model.NotificationHistoryResponse;
+import com.apple.itunes.storekit.model.NotificationHistoryResponseItem;
 import com.apple.itunes.storekit.model.OrderLookupResponse;
 import com.apple.itunes.storekit.model.PerformanceTestRequest;
 import com.apple.itunes.storekit.model.PerformanceTestResponse;
@@ -35,19 +38,35 @@ import com.apple.itunes.storekit.model.TransactionHistoryRequest;
 import com.apple.itunes.storekit.model.TransactionInfoResponse;
 import com.apple.itunes.storekit.model.UpdateAppAccountTokenRequest;
 import com.apple.itunes.storekit.model.UploadMessageRequestBody;
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -58,11 +77,22 @@ public abstract class BaseAppStoreServerAPIClient {
     private static final String SANDBOX_URL = "https://api.storekit-sandbox.apple.com";
     private static final String LOCAL_TESTING_URL = "https://local-testing-base-url";
     private static final String USER_AGENT = "app-store-server-library/java/5.2.0";
-    private static final String JSON = "application/json; charset=utf-8";
-    private static final String PNG = "image/png";
+    static final String JSON = "application/json; charset=utf-8";
+    static final String PNG = "image/png";
+    // Endpoint paths, shared by the synchronous and asynchronous clients
+    static final String MASS_EXTEND_RENEWAL_DATE_PATH = "/inApps/v1/subscriptions/extend/mass";
+    static final String NOTIFICATION_HISTORY_PATH = "/inApps/v1/notifications/history";
+    static final String TEST_NOTIFICATION_PATH = "/inApps/v1/notifications/test";
+    static final String IMAGE_LIST_PATH = "/inApps/v1/messaging/image/list";
+    static final String MESSAGE_LIST_PATH = "/inApps/v1/messaging/message/list";
+    static final String REALTIME_URL_PATH = "/inApps/v1/messaging/realtime/url";
+    static final String PERFORMANCE_TEST_PATH = "/inApps/v1/messaging/performanceTest";
 
     private final BearerTokenAuthenticatorInterface bearerTokenAuthenticator;
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+    private volatile RetryPolicy retryPolicy;
+    private volatile AdaptiveRateLimiter rateLimiter;
 
     protected final String url;
 
@@ -73,13 +103,7 @@ public abstract class BaseAppStoreServerAPIClient {
     public BaseAppStoreServerAPIClient(BearerTokenAuthenticatorInterface bearerTokenAuthenticator, Environment environment) {
         this.bearerTokenAuthenticator = bearerTokenAuthenticator;
         this.url = getUrlForEnvironment(environment);
-        this.objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        this.jsonCodec = JsonCodec.getInstance();
     }
 
     protected String getUrlForEnvironment(Environment environment) {
@@ -116,57 +140,523 @@ public abstract class BaseAppStoreServerAPIClient {
                                                          String contentType,
                                                          byte[] body) throws IOException;
 
+    /**
+     * Make an HTTP request without blocking the calling thread
+     * <p>
+     * The default implementation delegates to {@link #makeRequest(String, String, Map, Map, String, byte[])} on the calling thread,
+     * subclasses backed by an asynchronous HTTP client should override this method. Cancelling the returned future should
+     * cancel the request.
+     * @param path The path of the request
+     * @param method The HTTP method of the request
+     * @param queryParameters A map of query parameters for the request
+     * @param headers A map of headers for the request
+     * @param contentType The content type of the request, nullable
+     * @param body The Java object representing the body, nullable
+     * @return A future completed with an {@link HttpResponseInterface} representing the status code and optional response body, or exceptionally with an {@link IOException}
+     */
+    protected CompletableFuture<HttpResponseInterface> makeRequestAsync(String path,
+                                                                         String method,
+                                                                         Map<String, List<String>> queryParameters,
+                                                                         Map<String, String> headers,
+                                                                         String contentType,
+                                                                         byte[] body) {
+        try {
+            return CompletableFuture.completedFuture(makeRequest(path, method, queryParameters, headers, contentType, body));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Set the recorder that receives the latency, status code and request size of every call, and the time taken to obtain bearer tokens
+     * @param metricsRecorder The recorder, or {@link MetricsRecorder#NOOP} to stop recording
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+    }
+
+    /**
+     * Set the policy used to retry calls that failed with a retryable {@link APIError}
+     * @param retryPolicy The policy, or null to return every failure to the caller, which is the default
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Set the limiter that paces calls, and retries, to each endpoint
+     * <p>
+     * A limiter may be shared between clients, for example with a different {@link AdaptiveRateLimiter#withMaxWait(Duration)}
+     * for bulk jobs and interactive calls, so that together they stay within the rate limits of the App Store Server API.
+     * @param rateLimiter The limiter, or null to send every call immediately, which is the default
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     protected <T> T makeHttpCall(String path, String method, Map<String, List<String>> queryParameters, Object body, Class<T> clazz, String contentType) throws IOException, APIException {
-        Map<String, String> headers = Map.of("User-Agent", USER_AGENT,
-                                             "Authorization", "Bearer " + bearerTokenAuthenticator.generateToken(),
-                                             "Accept", "application/json");
+        return makeHttpCall(path, method, queryParameters, body, responseReaderFor(clazz), contentType);
+    }
+
+    private <T> T makeHttpCall(String path, String method, Map<String, List<String>> queryParameters, Object body, ResponseReader<T> responseReader, String contentType) throws IOException, APIException {
+        MetricsRecorder metrics = metricsRecorder;
+        RetryPolicy retry = retryPolicy;
+        AdaptiveRateLimiter limiter = rateLimiter;
+        String endpoint = EndpointTemplate.resolve(method, path);
+        byte[] encodedBody = encodeBody(method, body);
+        if (retry != null) {
+            retry.recordCall(endpoint);
+        }
+        APIException previousException = null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                awaitRateLimiter(limiter, metrics, endpoint, method);
+            } catch (RateLimitedException e) {
+                // The failure being retried is more useful to the caller than the rejection of its retry
+                if (previousException != null) {
+                    previousException.addSuppressed(e);
+                    throw previousException;
+                }
+                throw e;
+            }
+            try {
+                return executeHttpCall(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, limiter);
+            } catch (APIException e) {
+                long backoffNanos = retryBackoffNanos(retry, metrics, endpoint, method, attempt, e);
+                if (backoffNanos < 0) {
+                    throw e;
+                }
+                previousException = e;
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void awaitRateLimiter(AdaptiveRateLimiter limiter, MetricsRecorder metrics, String endpoint, String method) throws IOException {
+        long waitNanos = reserveRateLimiter(limiter, metrics, endpoint, method);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rate limit of endpoint=" + endpoint);
+            }
+        }
+    }
+
+    /**
+     * @return How long to wait before making the call in nanoseconds
+     * @throws RateLimitedException If the limiter did not allow the call within its maximum wait
+     */
+    private static long reserveRateLimiter(AdaptiveRateLimiter limiter, MetricsRecorder metrics, String endpoint, String method) throws RateLimitedException {
+        if (limiter == null) {
+            return 0;
+        }
+        long waitNanos = limiter.reserve(endpoint);
+        if (waitNanos < 0) {
+            metrics.recordRateLimiterRejection(endpoint, method);
+            throw new RateLimitedException(endpoint, Duration.ofNanos(limiter.nanosUntilAvailable(endpoint)));
+        }
+        if (waitNanos > 0) {
+            metrics.recordRateLimiterWait(endpoint, method, waitNanos);
+        }
+        return waitNanos;
+    }
+
+    private <T> T executeHttpCall(String endpoint, String path, String method, Map<String, List<String>> queryParameters, byte[] encodedBody, ResponseReader<T> responseReader, String contentType, MetricsRecorder metrics, AdaptiveRateLimiter limiter) throws IOException, APIException {
+        Map<String, String> headers = createHeaders(metrics);
+        long start = System.nanoTime();
+        HttpResponseInterface response;
+        try {
+            response = makeRequest(path, method, queryParameters, headers, contentType, encodedBody);
+        } catch (IOException | RuntimeException e) {
+            metrics.recordApiCallFailure(endpoint, method, e, System.nanoTime() - start);
+            throw e;
+        }
+        try (var r = response) {
+            return parseResponse(r, responseReader);
+        } finally {
+            metrics.recordApiCall(endpoint, method, response.statusCode(), encodedBody != null ? encodedBody.length : 0, System.nanoTime() - start);
+            if (limiter != null) {
+                limiter.onResponse(endpoint, response.statusCode());
+            }
+        }
+    }
+
+    protected <T> CompletableFuture<T> makeHttpCallAsync(String path, String method, Map<String, List<String>> queryParameters, Object body, Class<T> clazz, String contentType) {
+        return makeHttpCallAsync(path, method, queryParameters, body, responseReaderFor(clazz), contentType);
+    }
+
+    <T> CompletableFuture<T> makeHttpCallAsync(String path, String method, Map<String, List<String>> queryParameters, Object body, ResponseReader<T> responseReader, String contentType) {
+        MetricsRecorder metrics = metricsRecorder;
+        RetryPolicy retry = retryPolicy;
+        AdaptiveRateLimiter limiter = rateLimiter;
+        String endpoint = EndpointTemplate.resolve(method, path);
         byte[] encodedBody;
+        try {
+            encodedBody = encodeBody(method, body);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (retry != null) {
+            retry.recordCall(endpoint);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executeHttpCallAsyncWithRetries(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, retry, limiter, 1, null, result);
+        return result;
+    }
+
+    private <T> void executeHttpCallAsyncWithRetries(String endpoint, String path, String method, Map<String, List<String>> queryParameters, byte[] encodedBody, ResponseReader<T> responseReader, String contentType, MetricsRecorder metrics, RetryPolicy retry, AdaptiveRateLimiter limiter, int attempt, APIException previousException, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            // Cancelled while waiting for the rate limiter or the backoff of a retry
+            return;
+        }
+        long waitNanos;
+        try {
+            waitNanos = reserveRateLimiter(limiter, metrics, endpoint, method);
+        } catch (RateLimitedException e) {
+            if (previousException != null) {
+                previousException.addSuppressed(e);
+                result.completeExceptionally(previousException);
+            } else {
+                result.completeExceptionally(e);
+            }
+            return;
+        }
+        if (waitNanos > 0) {
+            // Wait for the rate limiter without blocking the calling thread
+            Executor delayedExecutor = CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS);
+            delayedExecutor.execute(() -> executeHttpCallAsyncAttempt(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, retry, limiter, attempt, result));
+        } else {
+            executeHttpCallAsyncAttempt(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, retry, limiter, attempt, result);
+        }
+    }
+
+    private <T> void executeHttpCallAsyncAttempt(String endpoint, String path, String method, Map<String, List<String>> queryParameters, byte[] encodedBody, ResponseReader<T> responseReader, String contentType, MetricsRecorder metrics, RetryPolicy retry, AdaptiveRateLimiter limiter, int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        executeHttpCallAsync(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, limiter, result).whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            long backoffNanos = cause instanceof APIException && !result.isDone() ? retryBackoffNanos(retry, metrics, endpoint, method, attempt, (APIException) cause) : -1;
+            if (backoffNanos < 0) {
+                result.completeExceptionally(e);
+                return;
+            }
+            Executor delayedExecutor = CompletableFuture.delayedExecutor(backoffNanos, TimeUnit.NANOSECONDS);
+            delayedExecutor.execute(() -> executeHttpCallAsyncWithRetries(endpoint, path, method, queryParameters, encodedBody, responseReader, contentType, metrics, retry, limiter, attempt + 1, (APIException) cause, result));
+        });
+    }
+
+    private <T> CompletableFuture<T> executeHttpCallAsync(String endpoint, String path, String method, Map<String, List<String>> queryParameters, byte[] encodedBody, ResponseReader<T> responseReader, String contentType, MetricsRecorder metrics, AdaptiveRateLimiter limiter, CompletableFuture<T> result) {
+        CompletableFuture<HttpResponseInterface> response;
+        long requestBytes = encodedBody != null ? encodedBody.length : 0;
+        long start;
+        try {
+            Map<String, String> headers = createHeaders(metrics);
+            start = System.nanoTime();
+            response = makeRequestAsync(path, method, queryParameters, headers, contentType, encodedBody);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // Cancelling the future returned to the caller cancels the request in flight
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return response.whenComplete((r, e) -> {
+            if (e != null) {
+                metrics.recordApiCallFailure(endpoint, method, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e, System.nanoTime() - start);
+            }
+        }).thenApply(r -> {
+            try (r) {
+                return parseResponse(r, responseReader);
+            } catch (APIException | IOException e) {
+                throw new CompletionException(e);
+            } finally {
+                metrics.recordApiCall(endpoint, method, r.statusCode(), requestBytes, System.nanoTime() - start);
+                if (limiter != null) {
+                    limiter.onResponse(endpoint, r.statusCode());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return How long to wait before retrying a failed attempt in nanoseconds, or a negative value if it must not be retried
+     */
+    private static long retryBackoffNanos(RetryPolicy retry, MetricsRecorder metrics, String endpoint, String method, int attempt, APIException exception) {
+        if (retry == null || !retry.isRetryable(attempt, exception)) {
+            return -1;
+        }
+        if (!retry.tryAcquireRetry(endpoint)) {
+            metrics.recordRetryBudgetExhausted(endpoint, method);
+            return -1;
+        }
+        long backoffNanos = retry.backoffNanos(attempt, exception);
+        metrics.recordRetry(endpoint, method, attempt, backoffNanos);
+        return backoffNanos;
+    }
+
+    private Map<String, String> createHeaders(MetricsRecorder metrics) {
+        long start = System.nanoTime();
+        String token = bearerTokenAuthenticator.generateToken();
+        metrics.recordTokenGeneration(System.nanoTime() - start);
+        return Map.of("User-Agent", USER_AGENT,
+                      "Authorization", "Bearer " + token,
+                      "Accept", "application/json");
+    }
+
+    private byte[] encodeBody(String method, Object body) throws JsonProcessingException {
         if (body instanceof byte[]) {
-            encodedBody = (byte[]) body;
+            return (byte[]) body;
         } else if (body != null) {
-            encodedBody = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            return jsonCodec.writeValueAsBytes(body);
         } else if (method.equals("POST")) {
-            encodedBody = new byte[] {};
+            return new byte[] {};
         } else {
-            encodedBody = null;
+            return null;
         }
-        try (var r = makeRequest(path, method, queryParameters, headers, contentType, encodedBody)) {
-            if (r.statusCode() >= 200 && r.statusCode() < 300) {
-                if (clazz.equals(Void.class)) {
-                    return null;
+    }
+
+    private <T> ResponseReader<T> responseReaderFor(Class<T> clazz) {
+        if (clazz.equals(Void.class)) {
+            return null;
+        }
+        ObjectReader reader = jsonCodec.readerFor(clazz);
+        return reader::readValue;
+    }
+
+    /**
+     * Read a JSON object, delivering the elements of one of its array fields to a consumer as they are parsed instead of
+     * collecting them into the returned value
+     */
+    private <T, E> ResponseReader<T> streamingResponseReader(Class<T> clazz, String arrayField, Class<E> elementClass, Consumer<? super E> elementConsumer) {
+        Objects.requireNonNull(elementConsumer);
+        ObjectReader reader = jsonCodec.readerFor(clazz);
+        ObjectReader elementReader = jsonCodec.readerFor(elementClass);
+        return parser -> {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            // The other fields are small, and are bound once the whole object has been read so unknown fields are preserved
+            ObjectNode otherFields = JsonNodeFactory.instance.objectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && name.equals(arrayField)) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        elementConsumer.accept(elementReader.readValue(parser));
+                    }
+                } else {
+                    otherFields.set(name, parser.readValueAsTree());
                 }
-                // Success
-                var responseBody = r.body();
-                if (responseBody == null) {
+            }
+            return reader.readValue(otherFields);
+        };
+    }
+
+    ResponseReader<HistoryResponse> transactionHistoryReader(Consumer<? super String> signedTransactionConsumer) {
+        return streamingResponseReader(HistoryResponse.class, "signedTransactions", String.class, signedTransactionConsumer);
+    }
+
+    ResponseReader<NotificationHistoryResponse> notificationHistoryReader(Consumer<? super NotificationHistoryResponseItem> notificationConsumer) {
+        return streamingResponseReader(NotificationHistoryResponse.class, "notificationHistory", NotificationHistoryResponseItem.class, notificationConsumer);
+    }
+
+    private <T> T parseResponse(HttpResponseInterface r, ResponseReader<T> responseReader) throws IOException, APIException {
+        if (r.statusCode() >= 200 && r.statusCode() < 300) {
+            if (responseReader == null) {
+                return null;
+            }
+            // Success
+            try (JsonParser parser = createParser(r)) {
+                if (parser == null) {
                     throw new RuntimeException("Response code was 2xx but no body returned");
                 }
+                return responseReader.read(parser);
+            } catch (JsonProcessingException e) {
+                throw new APIException(r.statusCode(), e);
+            }
+        } else {
+            APIException exception = createAPIException(r);
+            exception.setRetryAfter(parseRetryAfter(r.header("Retry-After")));
+            throw exception;
+        }
+    }
+
+    private APIException createAPIException(HttpResponseInterface r) {
+        // Best effort to decode the body
+        try (JsonParser parser = createParser(r)) {
+            if (parser != null) {
+                ErrorPayload errorPayload;
                 try {
-                    return objectMapper.readValue(responseBody, clazz);
-                } catch (JsonProcessingException e) {
-                    throw new APIException(r.statusCode(), e);
-                }
-            } else {
-                // Best effort to decode the body
-                try {
-                    var responseBody = r.body();
-                    if (responseBody != null) {
-                        ErrorPayload errorPayload;
-                        try {
-                            errorPayload = objectMapper.readValue(responseBody, ErrorPayload.class);
-                        } catch (JsonProcessingException ignored) {
-                            // If we cannot parse the body, then simply return the status code
-                            throw new APIException(r.statusCode());
-                        }
-                        throw new APIException(r.statusCode(), errorPayload.getErrorCode(), errorPayload.getErrorMessage());
-                    }
-                } catch (APIException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new APIException(r.statusCode(), e);
+                    errorPayload = jsonCodec.readerFor(ErrorPayload.class).readValue(parser);
+                } catch (JsonProcessingException ignored) {
+                    // If we cannot parse the body, then simply return the status code
+                    return new APIException(r.statusCode());
                 }
-                throw new APIException(r.statusCode());
+                return new APIException(r.statusCode(), errorPayload.getErrorCode(), errorPayload.getErrorMessage());
             }
+        } catch (Exception e) {
+            return new APIException(r.statusCode(), e);
+        }
+        return new APIException(r.statusCode());
+    }
+
+    /**
+     * @return A parser reading the response body as UTF-8 bytes when the transport provides them, or as characters otherwise, or null if there is no body
+     */
+    private JsonParser createParser(HttpResponseInterface r) throws IOException {
+        InputStream bytes = r.byteStream();
+        if (bytes != null) {
+            return jsonCodec.createParser(bytes);
+        }
+        Reader characters = r.body();
+        return characters != null ? jsonCodec.createParser(characters) : null;
+    }
+
+    static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            // Either a number of seconds or an HTTP date
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(Instant.now(), ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    static String massExtendRenewalDateStatusPath(String productId, String requestIdentifier) {
+        return "/inApps/v1/subscriptions/extend/mass/" + productId + "/" + requestIdentifier;
+    }
+
+    static String extendRenewalDatePath(String originalTransactionId) {
+        return "/inApps/v1/subscriptions/extend/" + originalTransactionId;
+    }
+
+    static String subscriptionStatusesPath(String anyTransactionId) {
+        return "/inApps/v1/subscriptions/" + anyTransactionId;
+    }
+
+    static String refundHistoryPath(String anyTransactionId) {
+        return "/inApps/v2/refund/lookup/" + anyTransactionId;
+    }
+
+    static String testNotificationStatusPath(String testNotificationToken) {
+        return "/inApps/v1/notifications/test/" + testNotificationToken;
+    }
+
+    static String transactionHistoryPath(String anyTransactionId, GetTransactionHistoryVersion version) {
+        return "/inApps/" + version.getUrlVersion() + "/history/" + anyTransactionId;
+    }
+
+    static String consumptionDataPath(String transactionId) {
+        return "/inApps/v1/transactions/consumption/" + transactionId;
+    }
+
+    static String consumptionInformationPath(String transactionId) {
+        return "/inApps/v2/transactions/consumption/" + transactionId;
+    }
+
+    static String appTransactionInfoPath(String anyTransactionId) {
+        return "/inApps/v1/transactions/appTransactions/" + anyTransactionId;
+    }
+
+    static String appAccountTokenPath(String originalTransactionId) {
+        return "/inApps/v1/transactions/" + originalTransactionId + "/appAccountToken";
+    }
+
+    static String finishTransactionPath(String transactionId) {
+        return "/inApps/v1/transactions/" + transactionId + "/finish";
+    }
+
+    static String transactionInfoPath(String transactionId) {
+        return "/inApps/v1/transactions/" + transactionId;
+    }
+
+    static String orderLookupPath(String orderId) {
+        return "/inApps/v1/lookup/" + orderId;
+    }
+
+    static String imagePath(UUID imageIdentifier) {
+        return "/inApps/v1/messaging/image/" + imageIdentifier;
+    }
+
+    static String messagePath(UUID messageIdentifier) {
+        return "/inApps/v1/messaging/message/" + messageIdentifier;
+    }
+
+    static String defaultMessagePath(String productId, String locale) {
+        return "/inApps/v1/messaging/default/" + productId + "/" + locale;
+    }
+
+    static String performanceTestResultPath(String requestId) {
+        return "/inApps/v1/messaging/performanceTest/result/" + requestId;
+    }
+
+    static Map<String, List<String>> createImageQueryParameters(ImageSize imageSize) {
+        return createOptionalQueryParameters("imageSize", imageSize != null ? imageSize.name() : null);
+    }
+
+    static Map<String, List<String>> createOptionalQueryParameters(String name, String value) {
+        Map<String, List<String>> queryParameters = new HashMap<>();
+        if (value != null) {
+            queryParameters.put(name, List.of(value));
+        }
+        return queryParameters;
+    }
+
+    static Map<String, List<String>> createStatusQueryParameters(Status[] status) {
+        Map<String, List<String>> queryParameters = new HashMap<>();
+        if (status != null) {
+            queryParameters.put("status", Arrays.stream(status).map(s -> s.getValue().toString()).collect(Collectors.toList()));
         }
+        return queryParameters;
+    }
+
+    static Map<String, List<String>> createTransactionHistoryQueryParameters(String revision, TransactionHistoryRequest transactionHistoryRequest) {
+        Map<String, List<String>> queryParameters = createOptionalQueryParameters("revision", revision);
+        if (transactionHistoryRequest.getStartDate() != null) {
+            queryParameters.put("startDate", List.of(transactionHistoryRequest.getStartDate().toString()));
+        }
+        if (transactionHistoryRequest.getEndDate() != null) {
+            queryParameters.put("endDate", List.of(transactionHistoryRequest.getEndDate().toString()));
+        }
+        if (transactionHistoryRequest.getProductIds() != null) {
+            queryParameters.put("productId", transactionHistoryRequest.getProductIds());
+        }
+        if (transactionHistoryRequest.getProductTypes() != null) {
+            queryParameters.put("productType", transactionHistoryRequest.getProductTypes().stream().map(Enum::name).collect(Collectors.toList()));
+        }
+        if (transactionHistoryRequest.getSort() != null) {
+            queryParameters.put("sort", List.of(transactionHistoryRequest.getSort().name()));
+        }
+        if (transactionHistoryRequest.getSubscriptionGroupIdentifiers() != null) {
+            queryParameters.put("subscriptionGroupIdentifier", transactionHistoryRequest.getSubscriptionGroupIdentifiers());
+        }
+        if (transactionHistoryRequest.getInAppOwnershipType() != null) {
+            queryParameters.put("inAppOwnershipType", List.of(transactionHistoryRequest.getInAppOwnershipType().name()));
+        }
+        if (transactionHistoryRequest.getRevoked() != null) {
+            queryParameters.put("revoked", List.of(transactionHistoryRequest.getRevoked().toString()));
+        }
+        return queryParameters;
     }
 
     /**
@@ -179,7 +669,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/extend_subscription_renewal_dates_for_all_active_subscribers">Extend Subscription Renewal Dates for All Active Subscribers</a>
      */
     public MassExtendRenewalDateResponse extendRenewalDateForAllActiveSubscribers(MassExtendRenewalDateRequest massExtendRenewalDateRequest) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/subscriptions/extend/mass", "POST", Map.of(), massExtendRenewalDateRequest, MassExtendRenewalDateResponse.class, JSON);
+        return makeHttpCall(MASS_EXTEND_RENEWAL_DATE_PATH, "POST", Map.of(), massExtendRenewalDateRequest, MassExtendRenewalDateResponse.class, JSON);
     }
 
     /**
@@ -193,7 +683,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/extend_a_subscription_renewal_date">Extend a Subscription Renewal Date</a>
      */
     public ExtendRenewalDateResponse extendSubscriptionRenewalDate(String originalTransactionId, ExtendRenewalDateRequest extendRenewalDateRequest) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/subscriptions/extend/" + originalTransactionId, "PUT", Map.of(), extendRenewalDateRequest, ExtendRenewalDateResponse.class, JSON);
+        return makeHttpCall(extendRenewalDatePath(originalTransactionId), "PUT", Map.of(), extendRenewalDateRequest, ExtendRenewalDateResponse.class, JSON);
     }
 
     /**
@@ -207,11 +697,8 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_all_subscription_statuses">Get All Subscription Statuses</a>
      */
     public StatusResponse getAllSubscriptionStatuses(String anyTransactionId, Status[] status) throws APIException, IOException {
-        Map<String, List<String>> queryParameters = new HashMap<>();
-        if (status != null) {
-            queryParameters.put("status", Arrays.stream(status).map(s -> s.getValue().toString()).collect(Collectors.toList()));
-        }
-        return makeHttpCall("/inApps/v1/subscriptions/" + anyTransactionId, "GET", queryParameters, null, StatusResponse.class, null);
+        Map<String, List<String>> queryParameters = createStatusQueryParameters(status);
+        return makeHttpCall(subscriptionStatusesPath(anyTransactionId), "GET", queryParameters, null, StatusResponse.class, null);
     }
 
     /**
@@ -225,11 +712,8 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_refund_history">Get Refund History</a>
      */
     public RefundHistoryResponse getRefundHistory(String anyTransactionId, String revision) throws APIException, IOException {
-        Map<String, List<String>> queryParameters = new HashMap<>();
-        if (revision != null) {
-            queryParameters.put("revision", List.of(revision));
-        }
-        return makeHttpCall("/inApps/v2/refund/lookup/" + anyTransactionId, "GET", queryParameters, null, RefundHistoryResponse.class, null);
+        Map<String, List<String>> queryParameters = createOptionalQueryParameters("revision", revision);
+        return makeHttpCall(refundHistoryPath(anyTransactionId), "GET", queryParameters, null, RefundHistoryResponse.class, null);
     }
 
     /**
@@ -243,7 +727,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_status_of_subscription_renewal_date_extensions">Get Status of Subscription Renewal Date Extensions</a>
      */
     public MassExtendRenewalDateStatusResponse getStatusOfSubscriptionRenewalDateExtensions(String requestIdentifier, String productId) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/subscriptions/extend/mass/" + productId + "/" + requestIdentifier, "GET", Map.of(), null, MassExtendRenewalDateStatusResponse.class, null);
+        return makeHttpCall(massExtendRenewalDateStatusPath(productId, requestIdentifier), "GET", Map.of(), null, MassExtendRenewalDateStatusResponse.class, null);
     }
 
     /**
@@ -256,7 +740,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_test_notification_status">Get Test Notification Status</a>
      */
     public CheckTestNotificationResponse getTestNotificationStatus(String testNotificationToken) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/notifications/test/" + testNotificationToken, "GET", Map.of(), null, CheckTestNotificationResponse.class, null);
+        return makeHttpCall(testNotificationStatusPath(testNotificationToken), "GET", Map.of(), null, CheckTestNotificationResponse.class, null);
     }
 
     /**
@@ -270,11 +754,26 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_notification_history">Get Notification History</a>
      */
     public NotificationHistoryResponse getNotificationHistory(String paginationToken, NotificationHistoryRequest notificationHistoryRequest) throws APIException, IOException {
-        Map<String, List<String>> queryParameters = new HashMap<>();
-        if (paginationToken != null) {
-            queryParameters.put("paginationToken", List.of(paginationToken));
-        }
-        return makeHttpCall("/inApps/v1/notifications/history", "POST", queryParameters, notificationHistoryRequest, NotificationHistoryResponse.class, JSON);
+        Map<String, List<String>> queryParameters = createOptionalQueryParameters("paginationToken", paginationToken);
+        return makeHttpCall(NOTIFICATION_HISTORY_PATH, "POST", queryParameters, notificationHistoryRequest, NotificationHistoryResponse.class, JSON);
+    }
+
+    /**
+     * Get a list of notifications that the App Store server attempted to send to your server, delivering each notification to a consumer as it is read.
+     * <p>
+     * The notifications of the page are not collected into the returned response, so the memory used to read a page does not grow with its size.
+     *
+     * @param paginationToken An optional token you use to get the next set of up to 20 notification history records. All responses that have more records available include a paginationToken. Omit this parameter the first time you call this endpoint.
+     * @param notificationHistoryRequest The request body that includes the start and end dates, and optional query constraints.
+     * @param notificationConsumer Receives each notification of the page in order, on the thread reading the response
+     * @return A response that contains the pagination details of the page, without its notification history
+     * @throws APIException If a response was returned indicating the request could not be processed
+     * @throws IOException  If an exception was thrown while making the request
+     * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_notification_history">Get Notification History</a>
+     */
+    public NotificationHistoryResponse getNotificationHistory(String paginationToken, NotificationHistoryRequest notificationHistoryRequest, Consumer<? super NotificationHistoryResponseItem> notificationConsumer) throws APIException, IOException {
+        Map<String, List<String>> queryParameters = createOptionalQueryParameters("paginationToken", paginationToken);
+        return makeHttpCall(NOTIFICATION_HISTORY_PATH, "POST", queryParameters, notificationHistoryRequest, notificationHistoryReader(notificationConsumer), JSON);
     }
 
     /**
@@ -297,35 +796,27 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_transaction_history">Get Transaction History</a>
      */
     public HistoryResponse getTransactionHistory(String anyTransactionId, String revision, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version) throws APIException, IOException {
-        Map<String, List<String>> queryParameters = new HashMap<>();
-        if (revision != null) {
-            queryParameters.put("revision", List.of(revision));
-        }
-        if (transactionHistoryRequest.getStartDate() != null) {
-            queryParameters.put("startDate", List.of(transactionHistoryRequest.getStartDate().toString()));
-        }
-        if (transactionHistoryRequest.getEndDate() != null) {
-            queryParameters.put("endDate", List.of(transactionHistoryRequest.getEndDate().toString()));
-        }
-        if (transactionHistoryRequest.getProductIds() != null) {
-            queryParameters.put("productId", transactionHistoryRequest.getProductIds());
-        }
-        if (transactionHistoryRequest.getProductTypes() != null) {
-            queryParameters.put("productType", transactionHistoryRequest.getProductTypes().stream().map(Enum::name).collect(Collectors.toList()));
-        }
-        if (transactionHistoryRequest.getSort() != null) {
-            queryParameters.put("sort", List.of(transactionHistoryRequest.getSort().name()));
-        }
-        if (transactionHistoryRequest.getSubscriptionGroupIdentifiers() != null) {
-            queryParameters.put("subscriptionGroupIdentifier", transactionHistoryRequest.getSubscriptionGroupIdentifiers());
-        }
-        if (transactionHistoryRequest.getInAppOwnershipType() != null) {
-            queryParameters.put("inAppOwnershipType", List.of(transactionHistoryRequest.getInAppOwnershipType().name()));
-        }
-        if (transactionHistoryRequest.getRevoked() != null) {
-            queryParameters.put("revoked", List.of(transactionHistoryRequest.getRevoked().toString()));
-        }
-        return makeHttpCall("/inApps/" + version.getUrlVersion() + "/history/" + anyTransactionId, "GET", queryParameters, null, HistoryResponse.class, null);
+        Map<String, List<String>> queryParameters = createTransactionHistoryQueryParameters(revision, transactionHistoryRequest);
+        return makeHttpCall(transactionHistoryPath(anyTransactionId, version), "GET", queryParameters, null, HistoryResponse.class, null);
+    }
+
+    /**
+     * Get a customer’s in-app purchase transaction history for your app, delivering each signed transaction to a consumer as it is read.
+     * <p>
+     * The signed transactions of the page are not collected into the returned response, so the memory used to read a page does not grow with its size.
+     *
+     * @param anyTransactionId Any transactionId, originalTransactionId, or appTransactionId that belongs to the customer for your app.
+     * @param revision A token you provide to get the next set of up to 20 transactions. All responses include a revision token. Note: For requests that use the revision token, include the same query parameters from the initial request. Use the revision token from the previous HistoryResponse.
+     * @param version The version of the Get Transaction History endpoint to use. V2 is recommended.
+     * @param signedTransactionConsumer Receives each signed transaction of the page in order, on the thread reading the response
+     * @return A response that contains the pagination details of the page, without its signed transactions
+     * @throws APIException If a response was returned indicating the request could not be processed
+     * @throws IOException  If an exception was thrown while making the request
+     * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_transaction_history">Get Transaction History</a>
+     */
+    public HistoryResponse getTransactionHistory(String anyTransactionId, String revision, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version, Consumer<? super String> signedTransactionConsumer) throws APIException, IOException {
+        Map<String, List<String>> queryParameters = createTransactionHistoryQueryParameters(revision, transactionHistoryRequest);
+        return makeHttpCall(transactionHistoryPath(anyTransactionId, version), "GET", queryParameters, null, transactionHistoryReader(signedTransactionConsumer), null);
     }
 
     /**
@@ -338,7 +829,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_transaction_info">Get Transaction Info</a>
      */
     public TransactionInfoResponse getTransactionInfo(String transactionId) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/transactions/" + transactionId, "GET", Map.of(), null, TransactionInfoResponse.class, null);
+        return makeHttpCall(transactionInfoPath(transactionId), "GET", Map.of(), null, TransactionInfoResponse.class, null);
     }
 
     /**
@@ -351,7 +842,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/look_up_order_id">Look Up Order ID</a>
      */
     public OrderLookupResponse lookUpOrderId(String orderId) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/lookup/" + orderId, "GET", Map.of(), null, OrderLookupResponse.class, null);
+        return makeHttpCall(orderLookupPath(orderId), "GET", Map.of(), null, OrderLookupResponse.class, null);
     }
 
     /**
@@ -363,7 +854,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/request_a_test_notification">Request a Test Notification</a>
      */
     public SendTestNotificationResponse requestTestNotification() throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/notifications/test", "POST", Map.of(), null, SendTestNotificationResponse.class, null);
+        return makeHttpCall(TEST_NOTIFICATION_PATH, "POST", Map.of(), null, SendTestNotificationResponse.class, null);
     }
 
     /**
@@ -378,7 +869,7 @@ public abstract class BaseAppStoreServerAPIClient {
      */
     @Deprecated
     public void sendConsumptionData(String transactionId, ConsumptionRequestV1 consumptionRequest) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/transactions/consumption/" + transactionId, "PUT", Map.of(), consumptionRequest, Void.class, JSON);
+        makeHttpCall(consumptionDataPath(transactionId), "PUT", Map.of(), consumptionRequest, Void.class, JSON);
     }
 
     /**
@@ -391,7 +882,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/send-consumption-information">Send Consumption Information</a>
      */
     public void sendConsumptionInformation(String transactionId, ConsumptionRequest consumptionRequest) throws APIException, IOException {
-        makeHttpCall("/inApps/v2/transactions/consumption/" + transactionId, "PUT", Map.of(), consumptionRequest, Void.class, JSON);
+        makeHttpCall(consumptionInformationPath(transactionId), "PUT", Map.of(), consumptionRequest, Void.class, JSON);
     }
 
 
@@ -405,7 +896,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/set-app-account-token">Set App Account Token</a>
      */
     public void setAppAccountToken(String originalTransactionId, UpdateAppAccountTokenRequest updateAppAccountTokenRequest) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/transactions/" + originalTransactionId + "/appAccountToken", "PUT", Map.of(), updateAppAccountTokenRequest, Void.class, JSON);
+        makeHttpCall(appAccountTokenPath(originalTransactionId), "PUT", Map.of(), updateAppAccountTokenRequest, Void.class, JSON);
     }
 
     /**
@@ -427,11 +918,8 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/upload-image">Upload Image</a>
      */
     public void uploadImage(UUID imageIdentifier, byte[] image, ImageSize imageSize) throws APIException, IOException {
-        HashMap<String, List<String>> queryParameters = new HashMap<>();
-        if (imageSize != null) {
-            queryParameters.put("imageSize", List.of(imageSize.name()));
-        }
-        makeHttpCall("/inApps/v1/messaging/image/" + imageIdentifier, "PUT", queryParameters, image, Void.class, PNG);
+        Map<String, List<String>> queryParameters = createImageQueryParameters(imageSize);
+        makeHttpCall(imagePath(imageIdentifier), "PUT", queryParameters, image, Void.class, PNG);
     }
 
     /**
@@ -443,7 +931,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/delete-image">Delete Image</a>
      */
     public void deleteImage(UUID imageIdentifier) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/image/" + imageIdentifier, "DELETE", Map.of(), null, Void.class, null);
+        makeHttpCall(imagePath(imageIdentifier), "DELETE", Map.of(), null, Void.class, null);
     }
 
     /**
@@ -455,7 +943,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/get-image-list">Get Image List</a>
      */
     public GetImageListResponse getImageList() throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/image/list", "GET", Map.of(), null, GetImageListResponse.class, null);
+        return makeHttpCall(IMAGE_LIST_PATH, "GET", Map.of(), null, GetImageListResponse.class, null);
     }
 
     /**
@@ -468,7 +956,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/upload-message">Upload Message</a>
      */
     public void uploadMessage(UUID messageIdentifier, UploadMessageRequestBody uploadMessageRequestBody) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/message/" + messageIdentifier, "PUT", Map.of(), uploadMessageRequestBody, Void.class, JSON);
+        makeHttpCall(messagePath(messageIdentifier), "PUT", Map.of(), uploadMessageRequestBody, Void.class, JSON);
     }
 
     /**
@@ -480,7 +968,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/delete-message">Delete Message</a>
      */
     public void deleteMessage(UUID messageIdentifier) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/message/" + messageIdentifier, "DELETE", Map.of(), null, Void.class, null);
+        makeHttpCall(messagePath(messageIdentifier), "DELETE", Map.of(), null, Void.class, null);
     }
 
     /**
@@ -492,7 +980,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/get-message-list">Get Message List</a>
      */
     public GetMessageListResponse getMessageList() throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/message/list", "GET", Map.of(), null, GetMessageListResponse.class, null);
+        return makeHttpCall(MESSAGE_LIST_PATH, "GET", Map.of(), null, GetMessageListResponse.class, null);
     }
 
     /**
@@ -506,7 +994,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/configure-default-message">Configure Default Message</a>
      */
     public void configureDefaultMessage(String productId, String locale, DefaultConfigurationRequest defaultConfigurationRequest) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/default/" + productId + "/" + locale, "PUT", Map.of(), defaultConfigurationRequest, Void.class, JSON);
+        makeHttpCall(defaultMessagePath(productId, locale), "PUT", Map.of(), defaultConfigurationRequest, Void.class, JSON);
     }
 
     /**
@@ -519,7 +1007,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/delete-default-message">Delete Default Message</a>
      */
     public void deleteDefaultMessage(String productId, String locale) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/default/" + productId + "/" + locale, "DELETE", Map.of(), null, Void.class, null);
+        makeHttpCall(defaultMessagePath(productId, locale), "DELETE", Map.of(), null, Void.class, null);
     }
 
     /**
@@ -533,7 +1021,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/get-default-message">Get Default Message</a>
      */
     public DefaultConfigurationResponse getDefaultMessage(String productId, String locale) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/default/" + productId + "/" + locale, "GET", Map.of(), null, DefaultConfigurationResponse.class, null);
+        return makeHttpCall(defaultMessagePath(productId, locale), "GET", Map.of(), null, DefaultConfigurationResponse.class, null);
     }
 
     /**
@@ -545,7 +1033,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/configure-realtime-url">Configure Realtime URL</a>
      */
     public void configureRealtimeURL(RealtimeUrlRequest realtimeUrlRequest) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/realtime/url", "PUT", Map.of(), realtimeUrlRequest, Void.class, JSON);
+        makeHttpCall(REALTIME_URL_PATH, "PUT", Map.of(), realtimeUrlRequest, Void.class, JSON);
     }
 
     /**
@@ -556,7 +1044,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/delete-realtime-url">Delete Realtime URL</a>
      */
     public void deleteRealtimeURL() throws APIException, IOException {
-        makeHttpCall("/inApps/v1/messaging/realtime/url", "DELETE", Map.of(), null, Void.class, null);
+        makeHttpCall(REALTIME_URL_PATH, "DELETE", Map.of(), null, Void.class, null);
     }
 
     /**
@@ -568,7 +1056,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/get-realtime-url">Get Realtime URL</a>
      */
     public RealtimeUrlResponse getRealtimeURL() throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/realtime/url", "GET", Map.of(), null, RealtimeUrlResponse.class, null);
+        return makeHttpCall(REALTIME_URL_PATH, "GET", Map.of(), null, RealtimeUrlResponse.class, null);
     }
 
     /**
@@ -581,7 +1069,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/initiate-performance-test">Initiate Performance Test</a>
      */
     public PerformanceTestResponse initiatePerformanceTest(PerformanceTestRequest performanceTestRequest) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/performanceTest", "POST", Map.of(), performanceTestRequest, PerformanceTestResponse.class, JSON);
+        return makeHttpCall(PERFORMANCE_TEST_PATH, "POST", Map.of(), performanceTestRequest, PerformanceTestResponse.class, JSON);
     }
 
     /**
@@ -594,7 +1082,7 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/retentionmessaging/get-performance-test-results">Get Performance Test Results</a>
      */
     public PerformanceTestResultResponse getPerformanceTestResults(String requestId) throws APIException, IOException {
-        return makeHttpCall("/inApps/v1/messaging/performanceTest/result/" + requestId, "GET", Map.of(), null, PerformanceTestResultResponse.class, null);
+        return makeHttpCall(performanceTestResultPath(requestId), "GET", Map.of(), null, PerformanceTestResultResponse.class, null);
     }
 
     /**
@@ -607,7 +1095,7 @@ public abstract class BaseAppStoreServerAPIClient {
       * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get-app-transaction-info">Get App Transaction Info</a>
       */
      public AppTransactionInfoResponse getAppTransactionInfo(String anyTransactionId) throws APIException, IOException {
-         return makeHttpCall("/inApps/v1/transactions/appTransactions/" + anyTransactionId, "GET", Map.of(), null, AppTransactionInfoResponse.class, null);
+         return makeHttpCall(appTransactionInfoPath(anyTransactionId), "GET", Map.of(), null, AppTransactionInfoResponse.class, null);
      }
 
     /**
@@ -619,7 +1107,15 @@ public abstract class BaseAppStoreServerAPIClient {
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/finish-transaction">Finish Transaction</a>
      */
     public void finishTransaction(String transactionId) throws APIException, IOException {
-        makeHttpCall("/inApps/v1/transactions/" + transactionId + "/finish", "POST", Map.of(), null, Void.class, null);
+        makeHttpCall(finishTransactionPath(transactionId), "POST", Map.of(), null, Void.class, null);
+    }
+
+    /**
+     * Reads a successful response body into a value
+     */
+    @FunctionalInterface
+    interface ResponseReader<T> {
+        T read(JsonParser parser) throws IOException;
     }
 
     protected interface HttpResponseInterface extends Closeable {
@@ -632,5 +1128,22 @@ public abstract class BaseAppStoreServerAPIClient {
          * @return The response body, if it exists
          */
         Reader body();
+
+        /**
+         * A nullable {@link InputStream} containing the response body encoded as UTF-8, which is parsed without first
+         * decoding it to characters
+         * @return The response body, or null if it does not exist or is not encoded as UTF-8, in which case {@link #body()} is read instead
+         */
+        default InputStream byteStream() {
+            return null;
+        }
+
+        /**
+         * @param name The name of a response header
+         * @return The value of the header, or null if it is not present or not supported by the HTTP client
+         */
+        default String header(String name) {
+            return null;
+        }
     }
 }
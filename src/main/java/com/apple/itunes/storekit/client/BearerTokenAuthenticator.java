@@ -10,14 +10,15 @@ import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.ECPrivateKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Map;
 
 public class BearerTokenAuthenticator implements BearerTokenAuthenticatorInterface {
     private static final String APP_STORE_CONNECT_AUDIENCE = "appstoreconnect-v1";
     private static final String BUNDLE_ID_KEY = "bid";
+    static final Duration TOKEN_LIFETIME = Duration.ofMinutes(5);
 
     private final ECPrivateKey signingKey;
     private final String keyId;
@@ -47,7 +48,7 @@ public class BearerTokenAuthenticator implements BearerTokenAuthenticatorInterfa
     public String generateToken() {
         return JWT.create()
                 .withAudience(APP_STORE_CONNECT_AUDIENCE)
-                .withExpiresAt(Instant.now().plus(ChronoUnit.MINUTES.getDuration().multipliedBy(5)))
+                .withExpiresAt(Instant.now().plus(TOKEN_LIFETIME))
                 .withIssuer(issuerId)
                 .withKeyId(keyId)
                 .withPayload(Map.of(BUNDLE_ID_KEY, bundleId))
@@ -0,0 +1,195 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link BearerTokenAuthenticatorInterface} that reuses a generated token until shortly before it expires.
+ * <p>
+ * Once a token enters its refresh window, a single replacement is generated in the background while callers continue
+ * to receive the current token. Callers only block when no usable token is cached.
+ */
+public class CachingBearerTokenAuthenticator implements BearerTokenAuthenticatorInterface {
+    private static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(1);
+    private static final Duration MINIMUM_REMAINING_VALIDITY = Duration.ofSeconds(10);
+
+    private final BearerTokenAuthenticatorInterface delegate;
+    private final Duration tokenLifetime;
+    private final Duration refreshMargin;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    // A lock rather than a monitor, so that virtual threads waiting for a token do not pin their carrier threads
+    private final ReentrantLock generationLock = new ReentrantLock();
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean(false);
+    private volatile CachedToken cachedToken;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+    private final LongAdder totalRefreshTimeNanos = new LongAdder();
+
+    /**
+     * Create a caching authenticator for a {@link BearerTokenAuthenticator}
+     * @param signingKey Your private key downloaded from App Store Connect
+     * @param keyId Your private key ID from App Store Connect
+     * @param issuerId Your issuer ID from the Keys page in App Store Connect
+     * @param bundleId Your app’s bundle ID
+     */
+    public CachingBearerTokenAuthenticator(String signingKey, String keyId, String issuerId, String bundleId) {
+        this(new BearerTokenAuthenticator(signingKey, keyId, issuerId, bundleId));
+    }
+
+    /**
+     * Create a caching authenticator wrapping a token provider whose tokens are valid for five minutes
+     * @param delegate The provider used to generate new tokens
+     */
+    public CachingBearerTokenAuthenticator(BearerTokenAuthenticatorInterface delegate) {
+        this(delegate, BearerTokenAuthenticator.TOKEN_LIFETIME, DEFAULT_REFRESH_MARGIN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a caching authenticator wrapping a custom token provider
+     * @param delegate The provider used to generate new tokens
+     * @param tokenLifetime How long a token generated by the delegate remains valid
+     * @param refreshMargin How long before expiration a background refresh is started
+     * @param refreshExecutor The executor on which background refreshes run
+     */
+    public CachingBearerTokenAuthenticator(BearerTokenAuthenticatorInterface delegate, Duration tokenLifetime, Duration refreshMargin, Executor refreshExecutor) {
+        this(delegate, tokenLifetime, refreshMargin, refreshExecutor, Clock.systemUTC());
+    }
+
+    CachingBearerTokenAuthenticator(BearerTokenAuthenticatorInterface delegate, Duration tokenLifetime, Duration refreshMargin, Executor refreshExecutor, Clock clock) {
+        if (refreshMargin.plus(MINIMUM_REMAINING_VALIDITY).compareTo(tokenLifetime) >= 0) {
+            throw new IllegalArgumentException("refreshMargin must be shorter than the token lifetime");
+        }
+        this.delegate = delegate;
+        this.tokenLifetime = tokenLifetime;
+        this.refreshMargin = refreshMargin;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String generateToken() {
+        CachedToken token = cachedToken;
+        Instant now = clock.instant();
+        if (token != null && now.isBefore(token.refreshAt)) {
+            hitCount.increment();
+            return token.token;
+        }
+        if (token != null && now.isBefore(token.usableUntil)) {
+            // The token is still valid, serve it while a replacement is generated
+            hitCount.increment();
+            scheduleRefresh();
+            return token.token;
+        }
+        missCount.increment();
+        generationLock.lock();
+        try {
+            token = cachedToken;
+            if (token != null && clock.instant().isBefore(token.usableUntil)) {
+                return token.token;
+            }
+            return refresh().token;
+        } finally {
+            generationLock.unlock();
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    generationLock.lock();
+                    try {
+                        CachedToken token = cachedToken;
+                        if (token == null || !clock.instant().isBefore(token.refreshAt)) {
+                            refresh();
+                        }
+                    } finally {
+                        generationLock.unlock();
+                    }
+                } catch (RuntimeException e) {
+                    // The current token remains in use, the next caller will retry the refresh
+                    refreshFailureCount.increment();
+                } finally {
+                    refreshInProgress.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshInProgress.set(false);
+            refreshFailureCount.increment();
+        }
+    }
+
+    private CachedToken refresh() {
+        Instant issuedAt = clock.instant();
+        long start = System.nanoTime();
+        String token = delegate.generateToken();
+        totalRefreshTimeNanos.add(System.nanoTime() - start);
+        refreshCount.increment();
+        Instant expiresAt = issuedAt.plus(tokenLifetime);
+        CachedToken cached = new CachedToken(token, expiresAt.minus(refreshMargin), expiresAt.minus(MINIMUM_REMAINING_VALIDITY));
+        cachedToken = cached;
+        return cached;
+    }
+
+    /**
+     * @return The number of calls served with a cached token
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of calls that had to wait for a token to be generated
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return The number of tokens generated, whether in the background or on demand
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * @return The number of background refreshes that failed
+     */
+    public long getRefreshFailureCount() {
+        return refreshFailureCount.sum();
+    }
+
+    /**
+     * @return The total time spent generating tokens, in nanoseconds
+     */
+    public long getTotalRefreshTimeNanos() {
+        return totalRefreshTimeNanos.sum();
+    }
+
+    private static class CachedToken {
+        private final String token;
+        private final Instant refreshAt;
+        private final Instant usableUntil;
+
+        public CachedToken(String token, Instant refreshAt, Instant usableUntil) {
+            this.token = token;
+            this.refreshAt = refreshAt;
+            this.usableUntil = usableUntil;
+        }
+    }
+}
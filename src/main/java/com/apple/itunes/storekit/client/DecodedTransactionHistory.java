@@ -0,0 +1,275 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.HistoryResponse;
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.verification.SignedDataVerifier;
+import com.apple.itunes.storekit.verification.VerificationException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazily paginated view of a customer’s verified and decoded transaction history.
+ * <p>
+ * Pages are requested through an {@link AsyncAppStoreServerAPIClient} while earlier pages are being verified, with at most
+ * a fixed number of pages requested ahead of the page being consumed. Each call to {@link #iterator()}, {@link #stream()}
+ * or {@link #subscribe(Flow.Subscriber)} starts a new pagination from the first page. Closing a stream, or cancelling a
+ * subscription, cancels the requests in flight for pages that will not be consumed.
+ * <p>
+ * Failures are reported as a {@link TransactionHistoryException} by the iterator and stream, and through
+ * {@link Flow.Subscriber#onError(Throwable)} to subscribers.
+ *
+ * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/get_transaction_history">Get Transaction History</a>
+ */
+public class DecodedTransactionHistory implements Iterable<JWSTransactionDecodedPayload>, Flow.Publisher<JWSTransactionDecodedPayload> {
+    private static final int DEFAULT_MAX_PREFETCHED_PAGES = 1;
+
+    private final AsyncAppStoreServerAPIClient client;
+    private final SignedDataVerifier signedDataVerifier;
+    private final String anyTransactionId;
+    private final TransactionHistoryRequest transactionHistoryRequest;
+    private final GetTransactionHistoryVersion version;
+    private final int maxPrefetchedPages;
+    private final Executor executor;
+
+    /**
+     * @param client The client used to request pages of transaction history
+     * @param signedDataVerifier The verifier used to verify and decode each signed transaction
+     * @param anyTransactionId Any transactionId, originalTransactionId, or appTransactionId that belongs to the customer for your app.
+     * @param transactionHistoryRequest The query parameters applied to every page
+     * @param version The version of the Get Transaction History endpoint to use. V2 is recommended.
+     */
+    public DecodedTransactionHistory(AsyncAppStoreServerAPIClient client, SignedDataVerifier signedDataVerifier, String anyTransactionId, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version) {
+        this(client, signedDataVerifier, anyTransactionId, transactionHistoryRequest, version, DEFAULT_MAX_PREFETCHED_PAGES, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param client The client used to request pages of transaction history
+     * @param signedDataVerifier The verifier used to verify and decode each signed transaction
+     * @param anyTransactionId Any transactionId, originalTransactionId, or appTransactionId that belongs to the customer for your app.
+     * @param transactionHistoryRequest The query parameters applied to every page
+     * @param version The version of the Get Transaction History endpoint to use. V2 is recommended.
+     * @param maxPrefetchedPages The maximum number of pages requested ahead of the page currently being consumed, at least 1
+     * @param executor The executor on which subscribers are signalled
+     */
+    public DecodedTransactionHistory(AsyncAppStoreServerAPIClient client, SignedDataVerifier signedDataVerifier, String anyTransactionId, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version, int maxPrefetchedPages, Executor executor) {
+        if (maxPrefetchedPages < 1) {
+            throw new IllegalArgumentException("maxPrefetchedPages must be at least 1");
+        }
+        this.client = client;
+        this.signedDataVerifier = signedDataVerifier;
+        this.anyTransactionId = anyTransactionId;
+        this.transactionHistoryRequest = transactionHistoryRequest;
+        this.version = version;
+        this.maxPrefetchedPages = maxPrefetchedPages;
+        this.executor = executor;
+    }
+
+    @Override
+    public Iterator<JWSTransactionDecodedPayload> iterator() {
+        return new TransactionIterator();
+    }
+
+    /**
+     * @return A sequential stream of the decoded transactions, requesting pages as the stream is consumed. Close it when
+     * it is not consumed entirely, to cancel the requests in flight.
+     */
+    public Stream<JWSTransactionDecodedPayload> stream() {
+        TransactionIterator iterator = new TransactionIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::cancel);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super JWSTransactionDecodedPayload> subscriber) {
+        Objects.requireNonNull(subscriber);
+        TransactionSubscription subscription = new TransactionSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private TransactionHistoryPageFetcher createFetcher() {
+        return new TransactionHistoryPageFetcher(client, anyTransactionId, transactionHistoryRequest, version, maxPrefetchedPages);
+    }
+
+    private JWSTransactionDecodedPayload decode(String signedTransaction) {
+        try {
+            return signedDataVerifier.verifyAndDecodeTransaction(signedTransaction);
+        } catch (VerificationException e) {
+            throw new TransactionHistoryException(e);
+        }
+    }
+
+    private static Iterator<String> signedTransactions(CompletableFuture<HistoryResponse> page) {
+        HistoryResponse response;
+        try {
+            response = page.join();
+        } catch (CompletionException e) {
+            throw new TransactionHistoryException(e.getCause() != null ? e.getCause() : e);
+        }
+        List<String> signedTransactions = response.getSignedTransactions();
+        return signedTransactions != null ? signedTransactions.iterator() : Collections.emptyIterator();
+    }
+
+    private class TransactionIterator implements Iterator<JWSTransactionDecodedPayload> {
+        private TransactionHistoryPageFetcher fetcher;
+        private Iterator<String> currentPage = Collections.emptyIterator();
+        private boolean cancelled;
+
+        @Override
+        public boolean hasNext() {
+            if (cancelled) {
+                return false;
+            }
+            if (fetcher == null) {
+                fetcher = createFetcher();
+            }
+            while (!currentPage.hasNext()) {
+                CompletableFuture<HistoryResponse> page = fetcher.poll();
+                if (page == null) {
+                    return false;
+                }
+                currentPage = signedTransactions(page);
+            }
+            return true;
+        }
+
+        @Override
+        public JWSTransactionDecodedPayload next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return decode(currentPage.next());
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (fetcher != null) {
+                fetcher.cancel();
+            }
+        }
+    }
+
+    private class TransactionSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super JWSTransactionDecodedPayload> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private TransactionHistoryPageFetcher fetcher;
+        private Iterator<String> currentPage = Collections.emptyIterator();
+        private CompletableFuture<HistoryResponse> pendingPage;
+        private boolean awaitingPage;
+        private volatile Throwable invalidRequest;
+        private volatile boolean done;
+
+        private TransactionSubscription(Flow.Subscriber<? super JWSTransactionDecodedPayload> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested a non-positive number of items: " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            // The fetcher is only accessed when draining
+            signal();
+        }
+
+        private void signal() {
+            if (pendingSignals.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingSignals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                if (fetcher != null) {
+                    fetcher.cancel();
+                    fetcher = null;
+                }
+                return;
+            }
+            if (invalidRequest != null) {
+                fail(invalidRequest);
+                return;
+            }
+            try {
+                if (fetcher == null) {
+                    fetcher = createFetcher();
+                }
+                while (!done && demand.get() > 0) {
+                    if (currentPage.hasNext()) {
+                        JWSTransactionDecodedPayload transaction = decode(currentPage.next());
+                        demand.decrementAndGet();
+                        subscriber.onNext(transaction);
+                        continue;
+                    }
+                    if (pendingPage == null) {
+                        pendingPage = fetcher.poll();
+                        if (pendingPage == null) {
+                            done = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                    }
+                    if (!pendingPage.isDone()) {
+                        if (!awaitingPage) {
+                            awaitingPage = true;
+                            pendingPage.whenComplete((response, throwable) -> signal());
+                        }
+                        return;
+                    }
+                    awaitingPage = false;
+                    CompletableFuture<HistoryResponse> page = pendingPage;
+                    pendingPage = null;
+                    currentPage = signedTransactions(page);
+                }
+            } catch (TransactionHistoryException e) {
+                fail(e.getCause());
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            done = true;
+            if (fetcher != null) {
+                fetcher.cancel();
+                fetcher = null;
+            }
+            subscriber.onError(throwable);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.util.List;
+
+/**
+ * Maps the path of a request to the path template of its App Store Server API endpoint, so that measurements and
+ * limits can be grouped per endpoint rather than per identifier
+ */
+final class EndpointTemplate {
+    static final String UNKNOWN = "unknown";
+
+    private static final List<EndpointTemplate> TEMPLATES = List.of(
+            new EndpointTemplate("POST", "/inApps/v1/subscriptions/extend/mass"),
+            new EndpointTemplate("GET", "/inApps/v1/subscriptions/extend/mass/{productId}/{requestIdentifier}"),
+            new EndpointTemplate("PUT", "/inApps/v1/subscriptions/extend/{originalTransactionId}"),
+            new EndpointTemplate("GET", "/inApps/v1/subscriptions/{transactionId}"),
+            new EndpointTemplate("GET", "/inApps/v2/refund/lookup/{transactionId}"),
+            new EndpointTemplate("POST", "/inApps/v1/notifications/test"),
+            new EndpointTemplate("GET", "/inApps/v1/notifications/test/{testNotificationToken}"),
+            new EndpointTemplate("POST", "/inApps/v1/notifications/history"),
+            new EndpointTemplate("GET", "/inApps/v1/history/{transactionId}"),
+            new EndpointTemplate("GET", "/inApps/v2/history/{transactionId}"),
+            new EndpointTemplate("GET", "/inApps/v1/transactions/appTransactions/{transactionId}"),
+            new EndpointTemplate("PUT", "/inApps/v1/transactions/consumption/{transactionId}"),
+            new EndpointTemplate("PUT", "/inApps/v2/transactions/consumption/{transactionId}"),
+            new EndpointTemplate("PUT", "/inApps/v1/transactions/{originalTransactionId}/appAccountToken"),
+            new EndpointTemplate("POST", "/inApps/v1/transactions/{transactionId}/finish"),
+            new EndpointTemplate("GET", "/inApps/v1/transactions/{transactionId}"),
+            new EndpointTemplate("GET", "/inApps/v1/lookup/{orderId}"),
+            new EndpointTemplate("GET", "/inApps/v1/messaging/image/list"),
+            new EndpointTemplate("PUT", "/inApps/v1/messaging/image/{imageIdentifier}"),
+            new EndpointTemplate("DELETE", "/inApps/v1/messaging/image/{imageIdentifier}"),
+            new EndpointTemplate("GET", "/inApps/v1/messaging/message/list"),
+            new EndpointTemplate("PUT", "/inApps/v1/messaging/message/{messageIdentifier}"),
+            new EndpointTemplate("DELETE", "/inApps/v1/messaging/message/{messageIdentifier}"),
+            new EndpointTemplate("PUT", "/inApps/v1/messaging/default/{productId}/{locale}"),
+            new EndpointTemplate("GET", "/inApps/v1/messaging/default/{productId}/{locale}"),
+            new EndpointTemplate("DELETE", "/inApps/v1/messaging/default/{productId}/{locale}"),
+            new EndpointTemplate("PUT", "/inApps/v1/messaging/realtime/url"),
+            new EndpointTemplate("GET", "/inApps/v1/messaging/realtime/url"),
+            new EndpointTemplate("DELETE", "/inApps/v1/messaging/realtime/url"),
+            new EndpointTemplate("POST", "/inApps/v1/messaging/performanceTest"),
+            new EndpointTemplate("GET", "/inApps/v1/messaging/performanceTest/result/{requestId}")
+    );
+
+    private final String method;
+    private final String template;
+    private final String[] segments;
+
+    private EndpointTemplate(String method, String template) {
+        this.method = method;
+        this.template = template;
+        this.segments = template.split("/");
+    }
+
+    /**
+     * @param method The HTTP method of the request
+     * @param path The path of the request
+     * @return The path template of the matching endpoint, or {@link #UNKNOWN} if the path is not a known endpoint
+     */
+    static String resolve(String method, String path) {
+        String[] pathSegments = path.split("/");
+        for (EndpointTemplate endpointTemplate : TEMPLATES) {
+            if (endpointTemplate.matches(method, pathSegments)) {
+                return endpointTemplate.template;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private boolean matches(String method, String[] pathSegments) {
+        if (!this.method.equals(method) || segments.length != pathSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].startsWith("{") && !segments[i].equals(pathSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,330 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An App Store Server API client sending requests through the JDK's {@link HttpClient}.
+ * <p>
+ * HTTP/2 is negotiated when available, asynchronous calls use {@link HttpClient#sendAsync}, and response bodies are
+ * streamed from the connection into the JSON parser. This client does not use OkHttp, so applications using only this
+ * client may exclude OkHttp and its dependencies from their classpath.
+ * <p>
+ * This client is suited to making blocking calls from virtual threads on Java 21 and later, as neither it nor the JDK's
+ * {@link HttpClient} waits while holding a monitor. The JDK's {@link HttpClient} opens as many connections as there are
+ * concurrent HTTP/1.1 requests, so with many virtual threads, bound the requests in flight with
+ * {@link #setMaxConcurrentRequests(int)}.
+ */
+public class JdkHttpAppStoreServerAPIClient extends BaseAppStoreServerAPIClient {
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private volatile RequestPermits requestPermits;
+
+    /**
+     * Create an App Store Server API client
+     * @param signingKey Your private key downloaded from App Store Connect
+     * @param keyId Your private key ID from App Store Connect
+     * @param issuerId Your issuer ID from the Keys page in App Store Connect
+     * @param bundleId Your app’s bundle ID
+     * @param environment The environment to target
+     */
+    public JdkHttpAppStoreServerAPIClient(String signingKey, String keyId, String issuerId, String bundleId, Environment environment) {
+        this(new BearerTokenAuthenticator(signingKey, keyId, issuerId, bundleId), environment);
+    }
+
+    /**
+     * Create an App Store Server API client using a custom Bearer token provider
+     * @param bearerTokenAuthenticator An implementation of {@link BearerTokenAuthenticatorInterface} that provides tokens
+     * @param environment The environment to target
+     */
+    public JdkHttpAppStoreServerAPIClient(BearerTokenAuthenticatorInterface bearerTokenAuthenticator, Environment environment) {
+        this(bearerTokenAuthenticator, environment, newHttpClientBuilder().build(), null);
+    }
+
+    /**
+     * Create an App Store Server API client sending requests through an existing {@link HttpClient}
+     * @param bearerTokenAuthenticator An implementation of {@link BearerTokenAuthenticatorInterface} that provides tokens
+     * @param environment The environment to target
+     * @param httpClient The HTTP client used for requests, which may be shared between clients
+     * @param requestTimeout How long to wait for the response headers of a request, or null for no timeout
+     */
+    public JdkHttpAppStoreServerAPIClient(BearerTokenAuthenticatorInterface bearerTokenAuthenticator, Environment environment, HttpClient httpClient, Duration requestTimeout) {
+        super(bearerTokenAuthenticator, environment);
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return A builder for an {@link HttpClient} preferring HTTP/2 and using the default {@link ProxySelector}, as used by default
+     */
+    public static HttpClient.Builder newHttpClientBuilder() {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2);
+        ProxySelector proxySelector = ProxySelector.getDefault();
+        if (proxySelector != null) {
+            builder.proxy(proxySelector);
+        }
+        return builder;
+    }
+
+    /**
+     * Bound the number of requests in flight, from sending a request until its response body has been read
+     * <p>
+     * Blocking calls beyond the bound wait without pinning the carrier thread of a virtual thread, and asynchronous calls
+     * beyond the bound are queued without blocking the calling thread.
+     * @param maxConcurrentRequests The maximum number of requests in flight, or zero for no bound, which is the default
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests must not be negative");
+        }
+        this.requestPermits = maxConcurrentRequests > 0 ? new RequestPermits(maxConcurrentRequests) : null;
+    }
+
+    @Override
+    protected HttpResponseInterface makeRequest(String path,
+                                                String method,
+                                                Map<String, List<String>> queryParameters,
+                                                Map<String, String> headers,
+                                                String contentType,
+                                                byte[] body) throws IOException {
+        HttpRequest request = buildRequest(path, method, queryParameters, headers, contentType, body);
+        RequestPermits permits = requestPermits;
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send " + method + " " + path);
+            }
+        }
+        try {
+            return new JdkHttpResponse(httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream()), permits);
+        } catch (InterruptedException e) {
+            releasePermit(permits);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response to " + method + " " + path);
+        } catch (IOException | RuntimeException e) {
+            releasePermit(permits);
+            throw e;
+        }
+    }
+
+    @Override
+    protected CompletableFuture<HttpResponseInterface> makeRequestAsync(String path,
+                                                                         String method,
+                                                                         Map<String, List<String>> queryParameters,
+                                                                         Map<String, String> headers,
+                                                                         String contentType,
+                                                                         byte[] body) {
+        HttpRequest request;
+        try {
+            request = buildRequest(path, method, queryParameters, headers, contentType, body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        RequestPermits permits = requestPermits;
+        CompletableFuture<HttpResponseInterface> result = new CompletableFuture<>();
+        if (permits == null) {
+            CompletableFuture<HttpResponse<InputStream>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+            response.whenComplete((r, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                JdkHttpResponse jdkHttpResponse = new JdkHttpResponse(r);
+                if (!result.complete(jdkHttpResponse)) {
+                    // The future was cancelled before the response arrived
+                    jdkHttpResponse.close();
+                }
+            });
+            cancelWith(result, response);
+            return result;
+        }
+        permits.acquireAsync(() -> {
+            if (result.isDone()) {
+                // Cancelled while waiting for a permit
+                permits.release();
+                return;
+            }
+            CompletableFuture<HttpResponse<InputStream>> response;
+            try {
+                response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (RuntimeException e) {
+                permits.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            cancelWith(result, response);
+            response.whenComplete((r, e) -> {
+                if (e != null) {
+                    permits.release();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                JdkHttpResponse jdkHttpResponse = new JdkHttpResponse(r, permits);
+                if (!result.complete(jdkHttpResponse)) {
+                    // The future was cancelled before the response arrived
+                    jdkHttpResponse.close();
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Cancel the exchange when the future returned to the caller is cancelled, which aborts it from Java 16 onwards
+     */
+    private static void cancelWith(CompletableFuture<?> result, CompletableFuture<?> response) {
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+    }
+
+    private static void releasePermit(RequestPermits permits) {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    private HttpRequest buildRequest(String path,
+                                     String method,
+                                     Map<String, List<String>> queryParameters,
+                                     Map<String, String> headers,
+                                     String contentType,
+                                     byte[] body) throws IOException {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(buildUri(path, queryParameters));
+        headers.forEach(requestBuilder::header);
+        if (body != null) {
+            if (contentType != null) {
+                requestBuilder.header("Content-Type", contentType);
+            }
+            requestBuilder.method(method, HttpRequest.BodyPublishers.ofByteArray(body));
+        } else {
+            requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        if (requestTimeout != null) {
+            requestBuilder.timeout(requestTimeout);
+        }
+        return requestBuilder.build();
+    }
+
+    private URI buildUri(String path, Map<String, List<String>> queryParameters) throws IOException {
+        StringBuilder uri = new StringBuilder(url);
+        try {
+            // Quote any characters of identifiers that are not allowed in a path
+            uri.append(new URI(null, null, path, null).getRawPath());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid request path " + path, e);
+        }
+        char separator = '?';
+        for (Map.Entry<String, List<String>> entry : queryParameters.entrySet()) {
+            for (String queryValue : entry.getValue()) {
+                uri.append(separator).append(encodeQueryComponent(entry.getKey())).append('=').append(encodeQueryComponent(queryValue));
+                separator = '&';
+            }
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static String encodeQueryComponent(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    protected static class JdkHttpResponse implements HttpResponseInterface {
+        private final HttpResponse<InputStream> response;
+        private final RequestPermits permits;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        JdkHttpResponse(HttpResponse<InputStream> response, RequestPermits permits) {
+            this.response = response;
+            this.permits = permits;
+        }
+
+        public JdkHttpResponse(HttpResponse<InputStream> response) {
+            this(response, null);
+        }
+
+        @Override
+        public int statusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public Reader body() {
+            InputStream body = response.body();
+            return body != null ? new InputStreamReader(body, charset()) : null;
+        }
+
+        @Override
+        public InputStream byteStream() {
+            return StandardCharsets.UTF_8.equals(charset()) ? response.body() : null;
+        }
+
+        @Override
+        public String header(String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                InputStream body = response.body();
+                if (body != null) {
+                    body.close();
+                }
+            } catch (IOException ignored) {
+                // The response has been read, or is being discarded
+            } finally {
+                releasePermit(permits);
+            }
+        }
+
+        private Charset charset() {
+            String contentType = header("Content-Type");
+            if (contentType != null) {
+                for (String parameter : contentType.split(";")) {
+                    String trimmed = parameter.trim();
+                    if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                        try {
+                            return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                        } catch (IllegalCharsetNameException | UnsupportedCharsetException ignored) {
+                            break;
+                        }
+                    }
+                }
+            }
+            // JSON is UTF-8 unless stated otherwise
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
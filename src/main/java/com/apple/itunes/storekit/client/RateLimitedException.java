@@ -0,0 +1,37 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Thrown when an {@link AdaptiveRateLimiter} did not allow a call to start within its maximum wait.
+ * <p>
+ * The call was not sent to the App Store Server API. When a retry is not allowed, the failure being retried is thrown
+ * instead, with this exception suppressed.
+ */
+public class RateLimitedException extends IOException {
+    private final String endpoint;
+    private final Duration retryAfter;
+
+    public RateLimitedException(String endpoint, Duration retryAfter) {
+        super("Client-side rate limit exceeded for endpoint=" + endpoint + ", retryAfter=" + retryAfter);
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return The path template of the endpoint that was rate limited
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return How long until the endpoint was expected to allow a call when this exception was thrown
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
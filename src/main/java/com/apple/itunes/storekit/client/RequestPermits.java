@@ -0,0 +1,67 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of requests in flight.
+ * <p>
+ * Blocking callers wait on a {@link Semaphore}, which unlike a monitor does not pin the carrier thread of a virtual
+ * thread. Asynchronous callers never wait, their requests are queued and started when a permit is released.
+ */
+final class RequestPermits {
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    RequestPermits(int maxConcurrentRequests) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    /**
+     * Wait for a permit
+     * @throws InterruptedException If the calling thread was interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    /**
+     * Run a task holding a permit, immediately if one is available, or else once one is released
+     * @param task The task, which must eventually cause {@link #release()} to be called
+     */
+    void acquireAsync(Runnable task) {
+        if (waiting.isEmpty() && permits.tryAcquire()) {
+            task.run();
+            return;
+        }
+        waiting.add(task);
+        drain();
+    }
+
+    /**
+     * Release a permit, handing it to a queued task if there is one
+     */
+    void release() {
+        Runnable next = waiting.poll();
+        if (next != null) {
+            next.run();
+            return;
+        }
+        permits.release();
+        // A task may have been queued after the poll, while no permit was available
+        drain();
+    }
+
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries App Store Server API calls that failed with a retryable {@link APIError}, using jittered exponential backoff.
+ * <p>
+ * When a response includes a {@code Retry-After} header, the next attempt waits at least that long. A response asking
+ * to wait longer than the maximum backoff is not retried.
+ * <p>
+ * Retries are limited by budgets, so that they cannot multiply the load on the App Store Server API during an outage.
+ * Every call deposits a fraction of a retry into the budget of its endpoint and into a global budget, and every retry
+ * withdraws a whole retry from both. When either budget is empty, the failure is returned to the caller immediately.
+ * A policy may be shared between clients to share its budgets.
+ */
+public final class RetryPolicy {
+    private static final Set<APIError> DEFAULT_RETRYABLE_ERRORS = EnumSet.of(
+            APIError.RATE_LIMIT_EXCEEDED,
+            APIError.GENERAL_INTERNAL_RETRYABLE,
+            APIError.ACCOUNT_NOT_FOUND_RETRYABLE,
+            APIError.APP_NOT_FOUND_RETRYABLE,
+            APIError.ORIGINAL_TRANSACTION_ID_NOT_FOUND_RETRYABLE
+    );
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Set<APIError> retryableErrors;
+    private final double endpointBudgetRatio;
+    private final int endpointBudgetCapacity;
+    private final RetryBudget globalBudget;
+    private final ConcurrentHashMap<String, RetryBudget> endpointBudgets = new ConcurrentHashMap<>();
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.retryableErrors = EnumSet.copyOf(builder.retryableErrors);
+        this.endpointBudgetRatio = builder.endpointBudgetRatio;
+        this.endpointBudgetCapacity = builder.endpointBudgetCapacity;
+        this.globalBudget = new RetryBudget(builder.globalBudgetRatio, builder.globalBudgetCapacity);
+    }
+
+    /**
+     * @return A builder for a policy of up to 3 attempts, backing off from 500 milliseconds up to 10 seconds, where retries
+     * may add at most 20% to the calls of an endpoint and 10% to all calls
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The maximum number of attempts of a single call, including the first
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Whether a failed attempt may be retried, before taking the retry budgets into account
+     * @param attempt The number of the attempt that failed, starting at 1
+     * @param exception The failure of the attempt
+     * @return Whether the failure is retryable and attempts remain
+     */
+    boolean isRetryable(int attempt, APIException exception) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        if (exception.getRetryAfter() != null && exception.getRetryAfter().compareTo(maxBackoff) > 0) {
+            return false;
+        }
+        APIError apiError = exception.getApiError();
+        if (apiError != null) {
+            return retryableErrors.contains(apiError);
+        }
+        return exception.getRawApiError() == null && exception.getHttpStatusCode() == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Record a call to an endpoint, depositing into the retry budgets
+     * @param endpoint The path template of the endpoint
+     */
+    void recordCall(String endpoint) {
+        endpointBudget(endpoint).deposit();
+        globalBudget.deposit();
+    }
+
+    /**
+     * Withdraw a retry from the budget of an endpoint and the global budget
+     * @param endpoint The path template of the endpoint
+     * @return Whether both budgets allowed the retry
+     */
+    boolean tryAcquireRetry(String endpoint) {
+        RetryBudget budget = endpointBudget(endpoint);
+        if (!budget.tryWithdraw()) {
+            return false;
+        }
+        if (!globalBudget.tryWithdraw()) {
+            budget.refund();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param attempt The number of the attempt that failed, starting at 1
+     * @param exception The failure of the attempt
+     * @return How long to wait before the next attempt, in nanoseconds
+     */
+    long backoffNanos(int attempt, APIException exception) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long initialNanos = initialBackoff.toNanos();
+        if (exception.getRetryAfter() != null) {
+            // Spread the retries of callers that were given the same Retry-After
+            return exception.getRetryAfter().toNanos() + random.nextLong(initialNanos + 1);
+        }
+        long ceiling = initialNanos << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoff.toNanos()) {
+            ceiling = maxBackoff.toNanos();
+        }
+        // Full jitter, so that callers that failed together do not retry together
+        return random.nextLong(ceiling + 1);
+    }
+
+    private RetryBudget endpointBudget(String endpoint) {
+        return endpointBudgets.computeIfAbsent(endpoint, e -> new RetryBudget(endpointBudgetRatio, endpointBudgetCapacity));
+    }
+
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private Set<APIError> retryableErrors = DEFAULT_RETRYABLE_ERRORS;
+        private double endpointBudgetRatio = 0.2;
+        private int endpointBudgetCapacity = 10;
+        private double globalBudgetRatio = 0.1;
+        private int globalBudgetCapacity = 50;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts The maximum number of attempts of a single call, including the first
+         * @return This builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoff The upper bound of the wait before the first retry, doubled for each further retry
+         * @param maxBackoff The upper bound of any wait, and the longest {@code Retry-After} that is honored
+         * @return This builder
+         */
+        public Builder backoff(Duration initialBackoff, Duration maxBackoff) {
+            if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalArgumentException("initialBackoff must not be negative or greater than maxBackoff");
+            }
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * @param retryableErrors The errors that are retried, by default the errors documented as retryable and {@link APIError#RATE_LIMIT_EXCEEDED}
+         * @return This builder
+         */
+        public Builder retryableErrors(Set<APIError> retryableErrors) {
+            if (retryableErrors.isEmpty()) {
+                throw new IllegalArgumentException("retryableErrors must not be empty");
+            }
+            this.retryableErrors = retryableErrors;
+            return this;
+        }
+
+        /**
+         * @param ratio The number of retries each call to an endpoint adds to the budget of that endpoint
+         * @param capacity The maximum number of retries the budget of an endpoint holds, and the number it starts with
+         * @return This builder
+         */
+        public Builder endpointBudget(double ratio, int capacity) {
+            validateBudget(ratio, capacity);
+            this.endpointBudgetRatio = ratio;
+            this.endpointBudgetCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param ratio The number of retries each call adds to the budget shared by all endpoints
+         * @param capacity The maximum number of retries the global budget holds, and the number it starts with
+         * @return This builder
+         */
+        public Builder globalBudget(double ratio, int capacity) {
+            validateBudget(ratio, capacity);
+            this.globalBudgetRatio = ratio;
+            this.globalBudgetCapacity = capacity;
+            return this;
+        }
+
+        private static void validateBudget(double ratio, int capacity) {
+            if (ratio < 0 || ratio > 1 || capacity < 0) {
+                throw new IllegalArgumentException("ratio must be between 0 and 1, and capacity must not be negative");
+            }
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+
+    private static class RetryBudget {
+        // Balances are kept in thousandths of a retry
+        private static final long SCALE = 1000;
+
+        private final long deposit;
+        private final long capacity;
+        private final AtomicLong balance;
+
+        public RetryBudget(double ratio, int capacity) {
+            this.deposit = Math.round(ratio * SCALE);
+            this.capacity = capacity * SCALE;
+            this.balance = new AtomicLong(this.capacity);
+        }
+
+        public void deposit() {
+            balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+        }
+
+        public boolean tryWithdraw() {
+            long current;
+            do {
+                current = balance.get();
+                if (current < SCALE) {
+                    return false;
+                }
+            } while (!balance.compareAndSet(current, current - SCALE));
+            return true;
+        }
+
+        public void refund() {
+            balance.accumulateAndGet(SCALE, (current, amount) -> Math.min(capacity, current + amount));
+        }
+    }
+}
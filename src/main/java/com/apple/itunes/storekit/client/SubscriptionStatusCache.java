@@ -0,0 +1,380 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.LastTransactionsItem;
+import com.apple.itunes.storekit.model.Status;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.model.SubscriptionGroupIdentifierItem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A short-lived cache of {@link BaseAppStoreServerAPIClient#getAllSubscriptionStatuses(String, Status[])} responses.
+ * <p>
+ * Concurrent identical lookups share a single call to the App Store Server API, and successful responses are reused
+ * for the configured time to live. The cache holds at most the configured number of responses, evicting the least
+ * recently used once full. Failures are never cached.
+ * <p>
+ * Call {@link #invalidate(String)} with the originalTransactionId of every transaction received in an App Store Server
+ * Notification, so that the next lookup for the customer reflects the change. A response is invalidated whether it was
+ * requested with that originalTransactionId or contains it, and a lookup in flight when it is invalidated is not cached.
+ * <p>
+ * Responses are shared between callers and must not be modified.
+ */
+public class SubscriptionStatusCache {
+    private final BaseAppStoreServerAPIClient client;
+    private final Duration timeToLive;
+    private final int maximumSize;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    // All of the following are guarded by lock
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByTransactionId = new HashMap<>();
+    private final Map<Key, Load> loads = new HashMap<>();
+    // The invalidation sequence number of each transactionId invalidated while lookups are in flight
+    private final Map<String, Long> invalidations = new HashMap<>();
+    private long invalidationSequence;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * @param client The client used for lookups that cannot be served from the cache
+     * @param timeToLive How long a response is reused
+     * @param maximumSize The maximum number of responses held
+     */
+    public SubscriptionStatusCache(BaseAppStoreServerAPIClient client, Duration timeToLive, int maximumSize) {
+        this(client, timeToLive, maximumSize, Clock.systemUTC());
+    }
+
+    SubscriptionStatusCache(BaseAppStoreServerAPIClient client, Duration timeToLive, int maximumSize, Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero() || maximumSize < 1) {
+            throw new IllegalArgumentException("timeToLive and maximumSize must be positive");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.timeToLive = timeToLive;
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get the statuses for all of a customer’s auto-renewable subscriptions in your app, from the cache if possible.
+     *
+     * @param anyTransactionId Any transactionId, originalTransactionId, or appTransactionId that belongs to the customer for your app.
+     * @param status An optional filter that indicates the status of subscriptions to include in the response.
+     * @return A response that contains status information for all of a customer’s auto-renewable subscriptions in your app.
+     * @throws APIException If a response was returned indicating the request could not be processed
+     * @throws IOException  If an exception was thrown while making the request
+     * @see BaseAppStoreServerAPIClient#getAllSubscriptionStatuses(String, Status[])
+     */
+    public StatusResponse getAllSubscriptionStatuses(String anyTransactionId, Status[] status) throws APIException, IOException {
+        Key key = new Key(anyTransactionId, status);
+        Load load;
+        boolean owner = false;
+        synchronized (lock) {
+            StatusResponse cached = getCached(key);
+            if (cached != null) {
+                return cached;
+            }
+            load = loads.get(key);
+            if (load == null) {
+                load = startLoad(key);
+                owner = true;
+            } else {
+                coalescedCount.increment();
+            }
+        }
+        if (owner) {
+            StatusResponse response;
+            try {
+                response = client.getAllSubscriptionStatuses(anyTransactionId, status);
+            } catch (APIException | IOException | RuntimeException e) {
+                completeLoad(key, load, null, e);
+                throw e;
+            }
+            completeLoad(key, load, response, null);
+            return response;
+        }
+        return await(load.future);
+    }
+
+    /**
+     * Get the statuses for all of a customer’s auto-renewable subscriptions in your app, from the cache if possible,
+     * without blocking the calling thread.
+     *
+     * @param anyTransactionId Any transactionId, originalTransactionId, or appTransactionId that belongs to the customer for your app.
+     * @param status An optional filter that indicates the status of subscriptions to include in the response.
+     * @return A future completed with the response, or exceptionally as described by {@link AsyncAppStoreServerAPIClient}
+     * @see AsyncAppStoreServerAPIClient#getAllSubscriptionStatuses(String, Status[])
+     */
+    public CompletableFuture<StatusResponse> getAllSubscriptionStatusesAsync(String anyTransactionId, Status[] status) {
+        Key key = new Key(anyTransactionId, status);
+        Load load;
+        synchronized (lock) {
+            StatusResponse cached = getCached(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            load = loads.get(key);
+            if (load == null) {
+                load = startLoad(key);
+            } else {
+                coalescedCount.increment();
+                // A copy, so that a caller cancelling its future does not affect the others
+                return load.future.copy();
+            }
+        }
+        Load ownedLoad = load;
+        CompletableFuture<StatusResponse> response;
+        try {
+            response = client.makeHttpCallAsync(BaseAppStoreServerAPIClient.subscriptionStatusesPath(anyTransactionId), "GET", BaseAppStoreServerAPIClient.createStatusQueryParameters(status), null, StatusResponse.class, null);
+        } catch (RuntimeException e) {
+            completeLoad(key, ownedLoad, null, e);
+            return ownedLoad.future.copy();
+        }
+        response.whenComplete((value, e) -> completeLoad(key, ownedLoad, value, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+        return ownedLoad.future.copy();
+    }
+
+    /**
+     * Drop every cached response requested with or containing a transaction, and prevent lookups in flight from caching such a response
+     * @param transactionId The originalTransactionId of a transaction received in an App Store Server Notification, or any identifier lookups may have been requested with
+     */
+    public void invalidate(String transactionId) {
+        synchronized (lock) {
+            Set<Key> keys = keysByTransactionId.get(transactionId);
+            if (keys != null) {
+                for (Key key : keys.toArray(new Key[0])) {
+                    removeEntry(key);
+                }
+            }
+            if (!loads.isEmpty()) {
+                invalidations.put(transactionId, ++invalidationSequence);
+            }
+        }
+    }
+
+    /**
+     * Drop every cached response, and prevent lookups in flight from being cached
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            entries.clear();
+            keysByTransactionId.clear();
+            for (Load load : loads.values()) {
+                load.invalidated = true;
+            }
+        }
+    }
+
+    /**
+     * @return The number of responses currently held, including any that have expired but not yet been removed
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of lookups that called the App Store Server API
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return The number of lookups that waited for an identical lookup already in flight
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private StatusResponse getCached(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt.isAfter(clock.instant())) {
+                hitCount.increment();
+                return entry.response;
+            }
+            removeEntry(key);
+        }
+        return null;
+    }
+
+    private Load startLoad(Key key) {
+        missCount.increment();
+        Load load = new Load(invalidationSequence);
+        loads.put(key, load);
+        return load;
+    }
+
+    private void completeLoad(Key key, Load load, StatusResponse response, Throwable failure) {
+        synchronized (lock) {
+            loads.remove(key, load);
+            if (response != null && !load.invalidated) {
+                Set<String> transactionIds = transactionIds(key, response);
+                if (!wasInvalidatedSince(transactionIds, load.startSequence)) {
+                    putEntry(key, new Entry(response, clock.instant().plus(timeToLive), transactionIds));
+                }
+            }
+            if (loads.isEmpty()) {
+                // Invalidations only matter to lookups that were in flight when they happened
+                invalidations.clear();
+            }
+        }
+        if (failure != null) {
+            load.future.completeExceptionally(failure);
+        } else {
+            load.future.complete(response);
+        }
+    }
+
+    private boolean wasInvalidatedSince(Set<String> transactionIds, long sequence) {
+        for (String transactionId : transactionIds) {
+            Long invalidatedAt = invalidations.get(transactionId);
+            if (invalidatedAt != null && invalidatedAt > sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void putEntry(Key key, Entry entry) {
+        removeEntry(key);
+        entries.put(key, entry);
+        for (String transactionId : entry.transactionIds) {
+            keysByTransactionId.computeIfAbsent(transactionId, t -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > maximumSize) {
+            removeEntry(entries.keySet().iterator().next());
+        }
+    }
+
+    private void removeEntry(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        for (String transactionId : entry.transactionIds) {
+            Set<Key> keys = keysByTransactionId.get(transactionId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTransactionId.remove(transactionId);
+                }
+            }
+        }
+    }
+
+    private static Set<String> transactionIds(Key key, StatusResponse response) {
+        Set<String> transactionIds = new HashSet<>();
+        transactionIds.add(key.transactionId);
+        if (response.getData() != null) {
+            for (SubscriptionGroupIdentifierItem item : response.getData()) {
+                if (item.getLastTransactions() == null) {
+                    continue;
+                }
+                for (LastTransactionsItem lastTransaction : item.getLastTransactions()) {
+                    if (lastTransaction.getOriginalTransactionId() != null) {
+                        transactionIds.add(lastTransaction.getOriginalTransactionId());
+                    }
+                }
+            }
+        }
+        return transactionIds;
+    }
+
+    private static StatusResponse await(CompletableFuture<StatusResponse> future) throws APIException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a subscription status lookup in flight");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof APIException) {
+                throw (APIException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static class Key {
+        private final String transactionId;
+        private final Set<Status> statuses;
+
+        public Key(String transactionId, Status[] status) {
+            this.transactionId = transactionId;
+            this.statuses = status != null ? Set.copyOf(Arrays.asList(status)) : Set.of();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(transactionId, key.transactionId) && statuses.equals(key.statuses);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(transactionId, statuses);
+        }
+    }
+
+    private static class Entry {
+        private final StatusResponse response;
+        private final Instant expiresAt;
+        private final Set<String> transactionIds;
+
+        public Entry(StatusResponse response, Instant expiresAt, Set<String> transactionIds) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+            this.transactionIds = transactionIds;
+        }
+    }
+
+    private static class Load {
+        private final long startSequence;
+        private final CompletableFuture<StatusResponse> future = new CompletableFuture<>();
+        // Guarded by the lock of the cache
+        private boolean invalidated;
+
+        public Load(long startSequence) {
+            this.startSequence = startSequence;
+        }
+    }
+}
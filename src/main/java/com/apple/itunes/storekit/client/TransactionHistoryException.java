@@ -0,0 +1,14 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+/**
+ * Thrown while iterating a {@link DecodedTransactionHistory} when a page could not be retrieved or a transaction could not be verified.
+ * <p>
+ * The cause is the {@link APIException}, {@link java.io.IOException} or {@link com.apple.itunes.storekit.verification.VerificationException} that stopped the iteration.
+ */
+public class TransactionHistoryException extends RuntimeException {
+    public TransactionHistoryException(Throwable cause) {
+        super("Failed to retrieve transaction history", cause);
+    }
+}
@@ -0,0 +1,101 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.HistoryResponse;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Requests consecutive pages of a customer's transaction history, keeping up to a fixed number of pages in flight or
+ * buffered ahead of the page currently being consumed.
+ */
+class TransactionHistoryPageFetcher {
+    private final AsyncAppStoreServerAPIClient client;
+    private final String anyTransactionId;
+    private final TransactionHistoryRequest transactionHistoryRequest;
+    private final GetTransactionHistoryVersion version;
+    private final int maxPrefetchedPages;
+    private final Deque<CompletableFuture<HistoryResponse>> pages = new ArrayDeque<>();
+    private final List<CompletableFuture<HistoryResponse>> requests = new ArrayList<>();
+    private String nextRevision;
+    private boolean fetchSuspended;
+    private boolean cancelled;
+
+    TransactionHistoryPageFetcher(AsyncAppStoreServerAPIClient client, String anyTransactionId, TransactionHistoryRequest transactionHistoryRequest, GetTransactionHistoryVersion version, int maxPrefetchedPages) {
+        this.client = client;
+        this.anyTransactionId = anyTransactionId;
+        this.transactionHistoryRequest = transactionHistoryRequest;
+        this.version = version;
+        this.maxPrefetchedPages = maxPrefetchedPages;
+        synchronized (this) {
+            fetch(null);
+        }
+    }
+
+    /**
+     * Take the next page, resuming requests if they were suspended because the look-ahead limit was reached
+     * @return A future for the next page, or null if the final page has already been taken
+     */
+    synchronized CompletableFuture<HistoryResponse> poll() {
+        if (cancelled) {
+            return null;
+        }
+        CompletableFuture<HistoryResponse> page = pages.pollFirst();
+        if (fetchSuspended && pages.size() < maxPrefetchedPages) {
+            fetchSuspended = false;
+            fetch(nextRevision);
+        }
+        return page;
+    }
+
+    private void fetch(String revision) {
+        // The page is registered before the request is made, and only completes after it has been accounted for,
+        // so the look-ahead limit holds even when the transport completes synchronously
+        CompletableFuture<HistoryResponse> page = new CompletableFuture<>();
+        pages.addLast(page);
+        CompletableFuture<HistoryResponse> request = client.getTransactionHistory(anyTransactionId, revision, transactionHistoryRequest, version);
+        request.whenComplete((response, throwable) -> {
+            onPageCompleted(request, response, throwable);
+            if (throwable != null) {
+                page.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            } else {
+                page.complete(response);
+            }
+        });
+        if (!request.isDone()) {
+            requests.add(request);
+        }
+    }
+
+    /**
+     * Cancel the requests in flight and stop requesting pages, once the remaining pages will not be consumed
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        for (CompletableFuture<HistoryResponse> request : new ArrayList<>(requests)) {
+            request.cancel(true);
+        }
+        requests.clear();
+        pages.clear();
+    }
+
+    private synchronized void onPageCompleted(CompletableFuture<HistoryResponse> request, HistoryResponse response, Throwable throwable) {
+        requests.remove(request);
+        if (cancelled || throwable != null || response == null || !Boolean.TRUE.equals(response.getHasMore())) {
+            return;
+        }
+        nextRevision = response.getRevision();
+        if (pages.size() < maxPrefetchedPages) {
+            fetch(nextRevision);
+        } else {
+            fetchSuspended = true;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.internal;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * The JSON configuration shared by the library, serializing model fields directly rather than through accessors.
+ * <p>
+ * A single instance is shared by all clients, verifiers and signature creators, so Jackson's serializer and
+ * deserializer caches are only populated once. Readers are created once per type and resolve their root deserializer
+ * when created, avoiding a lookup on every call. All methods are thread-safe.
+ * <p>
+ * This class is internal to the library and not part of its API. It may change or be removed in any release, and its
+ * methods use Jackson types, which consumers of the library only have at runtime.
+ */
+public final class JsonCodec {
+    private static final JsonCodec INSTANCE = new JsonCodec();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final ClassValue<ObjectReader> readers;
+
+    private JsonCodec() {
+        this.objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        this.writer = objectMapper.writer();
+        this.readers = new ClassValue<>() {
+            @Override
+            protected ObjectReader computeValue(Class<?> type) {
+                return objectMapper.readerFor(type);
+            }
+        };
+    }
+
+    /**
+     * @return The shared codec
+     */
+    public static JsonCodec getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param clazz The type to deserialize
+     * @return The reader for the type, shared by all callers
+     */
+    public ObjectReader readerFor(Class<?> clazz) {
+        return readers.get(clazz);
+    }
+
+    /**
+     * @param content The UTF-8 encoded JSON
+     * @param offset The offset of the JSON in the content
+     * @param length The length of the JSON
+     * @param clazz The type to deserialize
+     * @return The deserialized value
+     * @throws IOException If the content could not be read or deserialized
+     */
+    public <T> T readValue(byte[] content, int offset, int length, Class<T> clazz) throws IOException {
+        return readerFor(clazz).readValue(content, offset, length);
+    }
+
+    /**
+     * @param content The JSON
+     * @param clazz The type to deserialize
+     * @return The deserialized value
+     * @throws IOException If the content could not be read or deserialized
+     */
+    public <T> T readValue(Reader content, Class<T> clazz) throws IOException {
+        return readerFor(clazz).readValue(content);
+    }
+
+    /**
+     * Create a parser reading JSON encoded as UTF-8, UTF-16 or UTF-32 directly from bytes, without decoding it to characters first
+     * @param content The JSON, which is closed when the parser is closed
+     * @return A parser able to read values and trees
+     * @throws IOException If the content could not be read
+     */
+    public JsonParser createParser(InputStream content) throws IOException {
+        return objectMapper.createParser(content);
+    }
+
+    /**
+     * @param content The UTF-8 encoded JSON
+     * @param offset The offset of the JSON in the content
+     * @param length The length of the JSON
+     * @return A parser able to read values and trees
+     * @throws IOException If the content could not be read
+     */
+    public JsonParser createParser(byte[] content, int offset, int length) throws IOException {
+        return objectMapper.createParser(content, offset, length);
+    }
+
+    /**
+     * @param content The JSON, which is closed when the parser is closed
+     * @return A parser able to read values and trees
+     * @throws IOException If the content could not be read
+     */
+    public JsonParser createParser(Reader content) throws IOException {
+        return objectMapper.createParser(content);
+    }
+
+    /**
+     * @param value The value to serialize
+     * @return The UTF-8 encoded JSON
+     * @throws JsonProcessingException If the value could not be serialized
+     */
+    public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        return writer.writeValueAsBytes(value);
+    }
+}
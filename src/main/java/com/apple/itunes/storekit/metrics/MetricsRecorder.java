@@ -0,0 +1,118 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.metrics;
+
+import com.apple.itunes.storekit.notification.NotificationOutcome;
+import com.apple.itunes.storekit.verification.VerificationStatus;
+
+/**
+ * Receives measurements from the API client and the signed data verifiers.
+ * <p>
+ * Every method has an empty default implementation, so an implementation only overrides the events it is interested in.
+ * Methods are called synchronously on the thread performing the work, and should return quickly without throwing.
+ * Durations are measured with {@link System#nanoTime()}.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * A recorder that discards every measurement, used when no recorder is configured
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {};
+
+    /**
+     * Called when an App Store Server API request returned a response, whether or not it indicated success
+     * @param endpoint The path template of the endpoint, for example {@code /inApps/v1/subscriptions/{transactionId}}
+     * @param method The HTTP method of the request
+     * @param statusCode The HTTP status code of the response
+     * @param requestBytes The size of the request body in bytes, or zero if the request had no body
+     * @param durationNanos The time from sending the request until the response was parsed
+     */
+    default void recordApiCall(String endpoint, String method, int statusCode, long requestBytes, long durationNanos) {
+    }
+
+    /**
+     * Called when an App Store Server API request failed without returning a response
+     * @param endpoint The path template of the endpoint
+     * @param method The HTTP method of the request
+     * @param cause The exception thrown while making the request
+     * @param durationNanos The time from sending the request until it failed
+     */
+    default void recordApiCallFailure(String endpoint, String method, Throwable cause, long durationNanos) {
+    }
+
+    /**
+     * Called when a failed App Store Server API request is about to be retried
+     * @param endpoint The path template of the endpoint
+     * @param method The HTTP method of the request
+     * @param attempt The number of the attempt that failed, starting at 1
+     * @param backoffNanos How long the client waits before the next attempt
+     */
+    default void recordRetry(String endpoint, String method, int attempt, long backoffNanos) {
+    }
+
+    /**
+     * Called when a retryable App Store Server API request failure was returned to the caller because a retry budget was exhausted
+     * @param endpoint The path template of the endpoint
+     * @param method The HTTP method of the request
+     */
+    default void recordRetryBudgetExhausted(String endpoint, String method) {
+    }
+
+    /**
+     * Called when a call waits for the client-side rate limiter of its endpoint before being sent
+     * @param endpoint The path template of the endpoint
+     * @param method The HTTP method of the request
+     * @param waitNanos How long the call waits
+     */
+    default void recordRateLimiterWait(String endpoint, String method, long waitNanos) {
+    }
+
+    /**
+     * Called when a call was failed without being sent because the client-side rate limiter of its endpoint did not allow it within its maximum wait
+     * @param endpoint The path template of the endpoint
+     * @param method The HTTP method of the request
+     */
+    default void recordRateLimiterRejection(String endpoint, String method) {
+    }
+
+    /**
+     * Called after a bearer token was obtained for an App Store Server API request
+     * @param durationNanos The time taken to obtain the token, which may have been served from a cache
+     */
+    default void recordTokenGeneration(long durationNanos) {
+    }
+
+    /**
+     * Called when a signed object has been verified and decoded, or failed to
+     * @param payloadType The type the signed object was decoded into
+     * @param status {@link VerificationStatus#OK} if the object was verified, otherwise the status of the failure
+     * @param durationNanos The time taken to verify, decode and validate the object
+     */
+    default void recordVerification(Class<?> payloadType, VerificationStatus status, long durationNanos) {
+    }
+
+    /**
+     * Called when the {@link com.apple.itunes.storekit.verification.ChainVerifier} looks up a previously validated certificate chain
+     * @param revocationChecking Whether the lookup was for a chain validated with revocation checking
+     * @param hit Whether a cached result could be used
+     */
+    default void recordChainCacheLookup(boolean revocationChecking, boolean hit) {
+    }
+
+    /**
+     * Called when a {@link com.apple.itunes.storekit.notification.NotificationReceiver} receives a request body
+     * @param accepted Whether the request body was queued, rather than rejected because the queue was full
+     * @param queueDepth The number of request bodies waiting to be processed after this one was received
+     */
+    default void recordNotificationReceived(boolean accepted, int queueDepth) {
+    }
+
+    /**
+     * Called when a {@link com.apple.itunes.storekit.notification.NotificationReceiver} has processed a request body
+     * @param outcome The outcome of processing the request body
+     * @param queueNanos The time the request body waited in the queue
+     * @param processingNanos The time taken to verify and handle the notification
+     */
+    default void recordNotificationProcessed(NotificationOutcome outcome, long queueNanos, long processingNanos) {
+    }
+}
@@ -0,0 +1,221 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A {@link NotificationDeduplicationStore} remembering the notificationUUIDs claimed within a time window, in memory.
+ * <p>
+ * notificationUUIDs are stored as two longs in open-addressing hash tables, using 32 to 64 bytes each rather than
+ * strings. Each table holds the notificationUUIDs claimed during a quarter of the window, and is dropped as a whole
+ * once all of them are older than the window, so that a notificationUUID is remembered for at least the window and at
+ * most a quarter longer. When the maximum number of notificationUUIDs is reached, the oldest table is dropped early.
+ * Lookups are exact: a notificationUUID that was not claimed is never reported as claimed.
+ */
+public class InMemoryNotificationDeduplicationStore implements NotificationDeduplicationStore {
+    private static final int GENERATIONS = 4;
+
+    private final long windowMillis;
+    private final long generationMillis;
+    private final int maximumSize;
+    private final Clock clock;
+    private final ArrayDeque<Generation> generations = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * @param window The minimum time for which a claimed notificationUUID is remembered
+     * @param maximumSize The maximum number of notificationUUIDs remembered, bounding the memory used
+     */
+    public InMemoryNotificationDeduplicationStore(Duration window, int maximumSize) {
+        this(window, maximumSize, Clock.systemUTC());
+    }
+
+    InMemoryNotificationDeduplicationStore(Duration window, int maximumSize, Clock clock) {
+        if (window.isNegative() || window.isZero() || maximumSize < 1) {
+            throw new IllegalArgumentException("window and maximumSize must be positive");
+        }
+        this.windowMillis = window.toMillis();
+        this.generationMillis = Math.max(1, windowMillis / GENERATIONS);
+        this.maximumSize = maximumSize;
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    @Override
+    public synchronized boolean claim(String notificationUUID) {
+        UUID uuid = toUUID(notificationUUID);
+        long mostSignificantBits = uuid.getMostSignificantBits();
+        long leastSignificantBits = uuid.getLeastSignificantBits();
+        Generation current = rotate(clock.instant().toEpochMilli());
+        for (Generation generation : generations) {
+            if (generation.contains(mostSignificantBits, leastSignificantBits)) {
+                return false;
+            }
+        }
+        while (size >= maximumSize) {
+            size -= generations.removeFirst().size;
+            if (generations.isEmpty()) {
+                generations.addLast(current = new Generation(current.start));
+            }
+        }
+        current.add(mostSignificantBits, leastSignificantBits);
+        size++;
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String notificationUUID) {
+        UUID uuid = toUUID(notificationUUID);
+        for (Generation generation : generations) {
+            if (generation.remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())) {
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The number of notificationUUIDs currently remembered
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    private Generation rotate(long now) {
+        // Every notificationUUID in a generation was claimed before start + generationMillis
+        while (!generations.isEmpty() && generations.peekFirst().start + generationMillis + windowMillis <= now) {
+            size -= generations.removeFirst().size;
+        }
+        Generation current = generations.peekLast();
+        if (current == null || now - current.start >= generationMillis) {
+            current = new Generation(now);
+            generations.addLast(current);
+        }
+        return current;
+    }
+
+    private static UUID toUUID(String notificationUUID) {
+        try {
+            return UUID.fromString(notificationUUID);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(notificationUUID.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A linear probing hash set of UUIDs, with both longs of a UUID stored next to each other
+     */
+    private static final class Generation {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final long start;
+        private long[] table = new long[INITIAL_CAPACITY * 2];
+        private int size;
+        // The nil UUID marks empty slots, so it is tracked separately
+        private boolean containsNil;
+
+        private Generation(long start) {
+            this.start = start;
+        }
+
+        private boolean contains(long mostSignificantBits, long leastSignificantBits) {
+            if (mostSignificantBits == 0 && leastSignificantBits == 0) {
+                return containsNil;
+            }
+            return indexOf(mostSignificantBits, leastSignificantBits) >= 0;
+        }
+
+        private void add(long mostSignificantBits, long leastSignificantBits) {
+            size++;
+            if (mostSignificantBits == 0 && leastSignificantBits == 0) {
+                containsNil = true;
+                return;
+            }
+            if (size * 2 > table.length / 2) {
+                resize();
+            }
+            insert(table, mostSignificantBits, leastSignificantBits);
+        }
+
+        private boolean remove(long mostSignificantBits, long leastSignificantBits) {
+            if (mostSignificantBits == 0 && leastSignificantBits == 0) {
+                if (containsNil) {
+                    containsNil = false;
+                    size--;
+                    return true;
+                }
+                return false;
+            }
+            int slot = indexOf(mostSignificantBits, leastSignificantBits);
+            if (slot < 0) {
+                return false;
+            }
+            // Shift the following entries of the probe sequence back, instead of leaving a tombstone
+            int mask = table.length / 2 - 1;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (isEmpty(table, next)) {
+                    break;
+                }
+                int home = home(table[next * 2], table[next * 2 + 1], mask);
+                boolean reachable = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+                if (!reachable) {
+                    table[slot * 2] = table[next * 2];
+                    table[slot * 2 + 1] = table[next * 2 + 1];
+                    slot = next;
+                }
+            }
+            table[slot * 2] = 0;
+            table[slot * 2 + 1] = 0;
+            size--;
+            return true;
+        }
+
+        private int indexOf(long mostSignificantBits, long leastSignificantBits) {
+            int mask = table.length / 2 - 1;
+            for (int slot = home(mostSignificantBits, leastSignificantBits, mask); !isEmpty(table, slot); slot = (slot + 1) & mask) {
+                if (table[slot * 2] == mostSignificantBits && table[slot * 2 + 1] == leastSignificantBits) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void resize() {
+            long[] resized = new long[table.length * 2];
+            for (int slot = 0; slot < table.length / 2; slot++) {
+                if (!isEmpty(table, slot)) {
+                    insert(resized, table[slot * 2], table[slot * 2 + 1]);
+                }
+            }
+            table = resized;
+        }
+
+        private static void insert(long[] table, long mostSignificantBits, long leastSignificantBits) {
+            int mask = table.length / 2 - 1;
+            int slot = home(mostSignificantBits, leastSignificantBits, mask);
+            while (!isEmpty(table, slot)) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot * 2] = mostSignificantBits;
+            table[slot * 2 + 1] = leastSignificantBits;
+        }
+
+        private static boolean isEmpty(long[] table, int slot) {
+            return table[slot * 2] == 0 && table[slot * 2 + 1] == 0;
+        }
+
+        private static int home(long mostSignificantBits, long leastSignificantBits, int mask) {
+            // Mixed, since name-based and sequential UUIDs are not uniformly distributed
+            long hash = mostSignificantBits * 0x9E3779B97F4A7C15L ^ leastSignificantBits;
+            hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+            return (int) (hash ^ (hash >>> 33)) & mask;
+        }
+    }
+}
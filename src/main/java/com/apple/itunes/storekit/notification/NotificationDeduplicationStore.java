@@ -0,0 +1,29 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+/**
+ * Records the notificationUUIDs of processed notifications, so that each notification is processed once across App
+ * Store retries and replays of the notification history.
+ * <p>
+ * A store may be shared between a {@link NotificationReceiver} and other code processing notifications, such as code
+ * replaying {@link com.apple.itunes.storekit.model.NotificationHistoryResponse} pages. Implementations must be
+ * thread-safe.
+ *
+ * @see InMemoryNotificationDeduplicationStore
+ */
+public interface NotificationDeduplicationStore {
+
+    /**
+     * Claim a notificationUUID before processing its notification
+     * @param notificationUUID The notificationUUID of the notification
+     * @return true if the notification should be processed, false if it has already been claimed
+     */
+    boolean claim(String notificationUUID);
+
+    /**
+     * Allow a claimed notificationUUID to be claimed again, after its notification failed to be processed
+     * @param notificationUUID The notificationUUID of the notification
+     */
+    void release(String notificationUUID);
+}
@@ -0,0 +1,35 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import com.apple.itunes.storekit.verification.DecodedNotification;
+
+/**
+ * Processes the notifications received by a {@link NotificationReceiver}.
+ * <p>
+ * Methods are called on the receiver's worker threads, concurrently for different notifications.
+ */
+public interface NotificationHandler {
+
+    /**
+     * Process a verified notification that has not been processed before
+     * <p>
+     * The signed data of the notification is verified when it is first requested from the notification.
+     * @param notification The verified notification
+     * @throws Exception If the notification could not be processed, in which case it is passed to
+     * {@link #handleFailure(byte[], Exception)}, and processed again if it is replayed from the notification history
+     */
+    void handle(DecodedNotification notification) throws Exception;
+
+    /**
+     * Called when a request body could not be processed, either because it was not a verifiable notification or because
+     * {@link #handle(DecodedNotification)} threw
+     * <p>
+     * The request has already been acknowledged, so the App Store does not send the notification again. Implementations
+     * should persist the request body, for example to a dead letter queue, so that the notification can be recovered.
+     * @param requestBody The request body as received
+     * @param cause The reason the request body could not be processed
+     */
+    default void handleFailure(byte[] requestBody, Exception cause) {
+    }
+}
@@ -0,0 +1,25 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+/**
+ * The outcome of processing a request body received by a {@link NotificationReceiver}.
+ */
+public enum NotificationOutcome {
+    /**
+     * The notification was verified and handled
+     */
+    PROCESSED,
+    /**
+     * The notification was verified, and had already been handled
+     */
+    DUPLICATE,
+    /**
+     * The request body was not a notification that could be verified
+     */
+    INVALID,
+    /**
+     * The notification was verified, and the handler failed to process it
+     */
+    FAILED
+}
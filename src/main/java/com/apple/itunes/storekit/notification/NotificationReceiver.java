@@ -0,0 +1,228 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.model.ResponseBodyV2;
+import com.apple.itunes.storekit.verification.DecodedNotification;
+import com.apple.itunes.storekit.verification.SignedDataVerifier;
+import com.apple.itunes.storekit.verification.VerificationException;
+import com.apple.itunes.storekit.verification.VerificationStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receives App Store Server Notifications V2, independently of the HTTP server or framework delivering them.
+ * <p>
+ * {@link #receive(byte[])} only queues the request body, so that the HTTP request can be answered immediately. A fixed
+ * pool of worker threads then verifies each notification with a {@link SignedDataVerifier}, skips notifications whose
+ * notificationUUID has been claimed in a {@link NotificationDeduplicationStore}, and passes the others to a
+ * {@link NotificationHandler}. The store is consulted once the signedPayload of the notification is verified, so that
+ * only genuine notifications claim notificationUUIDs, but before the signed data within the notification is verified,
+ * which only happens when the handler requests it.
+ * <p>
+ * The queue is bounded. When it is full, {@link #receive(byte[])} returns false without queueing the request body,
+ * and the request should be answered with an HTTP error status such as 503, so that the App Store sends the
+ * notification again later.
+ * <p>
+ * Once a request body is queued, the request is answered with HTTP 200 and the App Store does not send the
+ * notification again, even if it then fails to be processed. The notificationUUID of a notification whose handler
+ * failed is released, so that the notification is processed if it is replayed from the notification history, but
+ * only {@link NotificationHandler#handleFailure(byte[], Exception)} sees the request body: it must persist the body, or
+ * record the failure, for the notification to be recovered.
+ */
+public class NotificationReceiver {
+    private static final Duration DEFAULT_DEDUPLICATION_WINDOW = Duration.ofDays(4); // Longer than the App Store retries for
+    private static final int MAXIMUM_DEDUPLICATION_SIZE = 100_000;
+
+    private final SignedDataVerifier signedDataVerifier;
+    private final NotificationHandler handler;
+    private final JsonCodec jsonCodec;
+    private final NotificationDeduplicationStore deduplicationStore;
+    private final ArrayBlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor workers;
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder[] outcomeCounts = new LongAdder[NotificationOutcome.values().length];
+
+    /**
+     * @param signedDataVerifier The verifier of the signedPayload of each notification
+     * @param handler The handler of verified notifications
+     * @param queueCapacity The maximum number of request bodies waiting to be processed
+     * @param workerThreads The number of threads processing notifications
+     */
+    public NotificationReceiver(SignedDataVerifier signedDataVerifier, NotificationHandler handler, int queueCapacity, int workerThreads) {
+        this(signedDataVerifier, handler, queueCapacity, workerThreads, new InMemoryNotificationDeduplicationStore(DEFAULT_DEDUPLICATION_WINDOW, MAXIMUM_DEDUPLICATION_SIZE));
+    }
+
+    /**
+     * @param signedDataVerifier The verifier of the signedPayload of each notification
+     * @param handler The handler of verified notifications
+     * @param queueCapacity The maximum number of request bodies waiting to be processed
+     * @param workerThreads The number of threads processing notifications
+     * @param deduplicationStore The store of the notificationUUIDs already processed
+     */
+    public NotificationReceiver(SignedDataVerifier signedDataVerifier, NotificationHandler handler, int queueCapacity, int workerThreads, NotificationDeduplicationStore deduplicationStore) {
+        if (queueCapacity < 1 || workerThreads < 1) {
+            throw new IllegalArgumentException("queueCapacity and workerThreads must be positive");
+        }
+        this.signedDataVerifier = Objects.requireNonNull(signedDataVerifier);
+        this.handler = Objects.requireNonNull(handler);
+        this.jsonCodec = JsonCodec.getInstance();
+        this.deduplicationStore = Objects.requireNonNull(deduplicationStore);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, queue, new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        for (int i = 0; i < NotificationOutcome.values().length; i++) {
+            outcomeCounts[i] = new LongAdder();
+        }
+        // Started now rather than by the first requests received
+        workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * Set the recorder that receives the queue depth and the processing latency of notifications
+     * @param metricsRecorder The recorder, or {@link MetricsRecorder#NOOP} to stop recording
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+    }
+
+    /**
+     * Queue the body of a notification request for processing
+     * @param requestBody The request body, a JSON {@link ResponseBodyV2}, which must not be modified afterwards
+     * @return true if the request body was queued, and the request should be answered with HTTP 200, or false if the
+     * queue is full or the receiver has been shut down, and the request should be answered with an error status
+     */
+    public boolean receive(byte[] requestBody) {
+        Objects.requireNonNull(requestBody);
+        MetricsRecorder metrics = metricsRecorder;
+        boolean accepted;
+        try {
+            workers.execute(new Delivery(requestBody, System.nanoTime()));
+            accepted = true;
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            accepted = false;
+        }
+        metrics.recordNotificationReceived(accepted, queue.size());
+        return accepted;
+    }
+
+    /**
+     * @return The number of request bodies waiting to be processed
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The number of request bodies that were not queued, because the queue was full or the receiver was shut down
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * @param outcome An outcome of processing
+     * @return The number of request bodies processed with the outcome
+     */
+    public long getProcessedCount(NotificationOutcome outcome) {
+        return outcomeCounts[outcome.ordinal()].sum();
+    }
+
+    /**
+     * Stop receiving notifications, while the queued request bodies continue to be processed
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Wait for the queued request bodies to be processed after {@link #shutdown()}
+     * @param timeout The maximum time to wait
+     * @return true if all request bodies were processed, false if the timeout elapsed first
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return workers.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private NotificationOutcome process(byte[] requestBody) {
+        DecodedNotification notification;
+        try {
+            ResponseBodyV2 responseBody = jsonCodec.readValue(requestBody, 0, requestBody.length, ResponseBodyV2.class);
+            if (responseBody == null || responseBody.getSignedPayload() == null) {
+                throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "The request body had no signedPayload");
+            }
+            notification = signedDataVerifier.verifyAndDecodeNotificationContents(responseBody.getSignedPayload());
+        } catch (IOException | VerificationException | RuntimeException e) {
+            handleFailure(requestBody, e);
+            return NotificationOutcome.INVALID;
+        }
+        String notificationUUID = notification.getPayload().getNotificationUUID();
+        if (notificationUUID != null && !deduplicationStore.claim(notificationUUID)) {
+            return NotificationOutcome.DUPLICATE;
+        }
+        try {
+            handler.handle(notification);
+            return NotificationOutcome.PROCESSED;
+        } catch (Exception e) {
+            if (notificationUUID != null) {
+                deduplicationStore.release(notificationUUID);
+            }
+            handleFailure(requestBody, e);
+            return NotificationOutcome.FAILED;
+        }
+    }
+
+    private void handleFailure(byte[] requestBody, Exception cause) {
+        try {
+            handler.handleFailure(requestBody, cause);
+        } catch (RuntimeException ignored) {
+            // A failing failure handler must not stop the worker
+        }
+    }
+
+    private class Delivery implements Runnable {
+        private final byte[] requestBody;
+        private final long receivedAt;
+
+        private Delivery(byte[] requestBody, long receivedAt) {
+            this.requestBody = requestBody;
+            this.receivedAt = receivedAt;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            NotificationOutcome outcome = process(requestBody);
+            outcomeCounts[outcome.ordinal()].increment();
+            metricsRecorder.recordNotificationProcessed(outcome, start - receivedAt, System.nanoTime() - start);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger RECEIVER_NUMBER = new AtomicInteger();
+
+        private final String namePrefix = "app-store-notification-receiver-" + RECEIVER_NUMBER.incrementAndGet() + "-worker-";
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * A public key extracted from a certificate chain that passed validation, as stored in a {@link PublicKeyCache}.
+ * <p>
+ * Entries are only created by {@link ChainVerifier}, so that a cache cannot be populated with keys that were not validated.
+ */
+public final class CachedPublicKey {
+    private final PublicKey publicKey;
+    private final Instant verifiedAt;
+    private final Instant expiresAt;
+    private volatile SignatureVerifier signatureVerifier;
+
+    /**
+     * @param publicKey The public key of the leaf certificate
+     * @param verifiedAt When the chain was validated
+     * @param expiresAt When the entry must no longer be used
+     */
+    CachedPublicKey(PublicKey publicKey, Instant verifiedAt, Instant expiresAt) {
+        this.publicKey = publicKey;
+        this.verifiedAt = verifiedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    CachedPublicKey(SignatureVerifier signatureVerifier, Instant verifiedAt, Instant expiresAt) {
+        this(signatureVerifier.getPublicKey(), verifiedAt, expiresAt);
+        this.signatureVerifier = signatureVerifier;
+    }
+
+    /**
+     * @return The public key of the leaf certificate
+     */
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * @return When the chain was validated
+     */
+    public Instant getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    /**
+     * @return When the entry must no longer be used
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return The verifier for signatures made with the key, created on first use for entries from other sources
+     */
+    SignatureVerifier getSignatureVerifier() {
+        SignatureVerifier verifier = signatureVerifier;
+        if (verifier == null) {
+            // Concurrent callers may each create one, any of them is equivalent
+            verifier = new SignatureVerifier(publicKey);
+            signatureVerifier = verifier;
+        }
+        return verifier;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPublicKey{" +
+                "verifiedAt=" + verifiedAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
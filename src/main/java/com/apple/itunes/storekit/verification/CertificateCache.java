@@ -0,0 +1,88 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of parsed certificates, keyed by the SHA-256 fingerprint of their DER encoding.
+ * <p>
+ * The same leaf and intermediate certificates appear in the x5c header of many signed payloads, so each distinct
+ * certificate is only parsed once. Parsed certificates are immutable and may be shared between threads.
+ */
+class CertificateCache {
+    private static final ThreadLocal<CertificateFactory> CERTIFICATE_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return CertificateFactory.getInstance("X.509");
+        } catch (CertificateException e) {
+            throw new RuntimeException(e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<ByteBuffer, X509Certificate> certificates;
+
+    /**
+     * @param maximumSize The maximum number of certificates held before the cache is cleared
+     */
+    CertificateCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.certificates = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return A certificate factory for the calling thread, as factories are not guaranteed to be thread-safe
+     */
+    static CertificateFactory getCertificateFactory() {
+        return CERTIFICATE_FACTORY.get();
+    }
+
+    /**
+     * Parse a Base64 encoded DER certificate, reusing a previously parsed instance when available
+     * @param base64EncodedCertificate The Base64 encoded DER certificate, as found in an x5c header
+     * @return The parsed certificate
+     * @throws CertificateException If the certificate could not be parsed or is not an X.509 certificate
+     * @throws IllegalArgumentException If the certificate is not valid Base64
+     */
+    X509Certificate getCertificate(String base64EncodedCertificate) throws CertificateException {
+        byte[] derEncodedCertificate = Base64.getDecoder().decode(base64EncodedCertificate);
+        ByteBuffer fingerprint = ByteBuffer.wrap(MESSAGE_DIGEST.get().digest(derEncodedCertificate));
+        X509Certificate cachedCertificate = certificates.get(fingerprint);
+        if (cachedCertificate != null) {
+            return cachedCertificate;
+        }
+        Certificate certificate = getCertificateFactory().generateCertificate(new ByteArrayInputStream(derEncodedCertificate));
+        if (!(certificate instanceof X509Certificate)) {
+            throw new CertificateException("Certificate not of the expected X509 format");
+        }
+        if (certificates.size() >= maximumSize) {
+            // In the very unlikely event that the map has become too large, start over
+            certificates.clear();
+        }
+        certificates.put(fingerprint, (X509Certificate) certificate);
+        return (X509Certificate) certificate;
+    }
+
+    /**
+     * @return The number of certificates currently cached
+     */
+    int size() {
+        return certificates.size();
+    }
+}
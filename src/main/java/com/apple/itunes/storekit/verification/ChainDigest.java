@@ -0,0 +1,107 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A compact identifier for a certificate chain, the SHA-256 digest of its Base64 encoded certificates.
+ * <p>
+ * {@link ChainVerifier} also includes its trust anchors in the digests it uses as cache keys, so that a chain validated
+ * against one set of root certificates is never looked up by a verifier trusting another set.
+ */
+public final class ChainDigest {
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] digest;
+    private final int hashCode;
+
+    private ChainDigest(byte[] digest) {
+        this.digest = digest;
+        this.hashCode = Arrays.hashCode(digest);
+    }
+
+    /**
+     * @param certificates The Base64 encoded certificates of the chain, as found in an x5c header
+     * @return The digest identifying the chain
+     */
+    public static ChainDigest of(String[] certificates) {
+        return of(null, certificates);
+    }
+
+    /**
+     * @param trustAnchors The digest of the trust anchors the chain is validated against, or null
+     * @param certificates The Base64 encoded certificates of the chain, as found in an x5c header
+     * @return The digest identifying the chain when validated against the trust anchors
+     */
+    static ChainDigest of(ChainDigest trustAnchors, String[] certificates) {
+        MessageDigest messageDigest = MESSAGE_DIGEST.get();
+        if (trustAnchors != null) {
+            messageDigest.update(trustAnchors.digest);
+        }
+        for (String certificate : certificates) {
+            byte[] encodedCertificate = certificate.getBytes(StandardCharsets.US_ASCII);
+            // Prefix each certificate with its length so that different chains cannot produce the same input
+            int length = encodedCertificate.length;
+            messageDigest.update(new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+            messageDigest.update(encodedCertificate);
+        }
+        return new ChainDigest(messageDigest.digest());
+    }
+
+    /**
+     * @param trustAnchors The root certificates trusted by a verifier
+     * @return The digest identifying the set of root certificates, independently of their order
+     */
+    static ChainDigest ofTrustAnchors(Collection<X509Certificate> trustAnchors) throws CertificateEncodingException {
+        MessageDigest messageDigest = MESSAGE_DIGEST.get();
+        byte[][] certificateDigests = new byte[trustAnchors.size()][];
+        int i = 0;
+        for (X509Certificate trustAnchor : trustAnchors) {
+            certificateDigests[i++] = messageDigest.digest(trustAnchor.getEncoded());
+        }
+        Arrays.sort(certificateDigests, Arrays::compare);
+        for (byte[] certificateDigest : certificateDigests) {
+            messageDigest.update(certificateDigest);
+        }
+        return new ChainDigest(messageDigest.digest());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(digest, ((ChainDigest) o).digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            builder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+        return builder.toString();
+    }
+}
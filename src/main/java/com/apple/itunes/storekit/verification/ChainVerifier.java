@@ -2,7 +2,8 @@
 
 package com.apple.itunes.storekit.verification;
 
-import java.io.ByteArrayInputStream;
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+
 import java.io.InputStream;
 import java.security.PublicKey;
 import java.security.cert.CertPath;
@@ -16,80 +17,222 @@ import java.security.cert.PKIXRevocationChecker;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public class ChainVerifier {
     private static final int EXPECTED_CHAIN_LENGTH = 3;
     private static final int MAXIMUM_CACHE_SIZE = 32; // There are unlikely to be more than a couple keys at once
-    private static final int CACHE_TIME_LIMIT = 15; // 15 minutes
+    private static final Duration CACHE_TIME_LIMIT = Duration.ofMinutes(15);
+    private static final int DEFAULT_CACHE_STRIPES = 4;
+    private static final int MAXIMUM_CERTIFICATE_CACHE_SIZE = 64;
+    private static final ThreadLocal<CertPathValidator> CERT_PATH_VALIDATOR = ThreadLocal.withInitial(() -> {
+        try {
+            return CertPathValidator.getInstance("PKIX");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    });
 
     private final Set<TrustAnchor> trustAnchors;
-    private final ConcurrentHashMap<List<String>, CachedEntry> verifiedPublicKeyCache;
+    private final ChainDigest trustAnchorsDigest;
+    private final PublicKeyCache verifiedPublicKeyCache;
+    private final ConcurrentHashMap<ChainDigest, ValidatedChain> offlineVerifiedPublicKeyCache;
+    private final CertificateCache certificateCache;
+    private final ConcurrentHashMap<ChainDigest, CompletableFuture<SignatureVerifier>> inFlightValidations;
+    private final Set<ChainDigest> refreshesInProgress;
+    private volatile RefreshAheadSettings refreshAheadSettings;
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
     private final Clock clock;
 
     public ChainVerifier(Set<InputStream> rootCertificates) {
         this(rootCertificates, Clock.systemUTC());
     }
 
+    /**
+     * @param rootCertificates The set of Apple Root certificate authority certificates
+     * @param publicKeyCache The cache of keys from chains that passed online validation, which may be shared between verifiers,
+     *                       including verifiers trusting different root certificates
+     */
+    public ChainVerifier(Set<InputStream> rootCertificates, PublicKeyCache publicKeyCache) {
+        this(rootCertificates, publicKeyCache, Clock.systemUTC());
+    }
+
     ChainVerifier(Set<InputStream> rootCertificates, Clock clock) {
+        this(rootCertificates, new StripedLruPublicKeyCache(MAXIMUM_CACHE_SIZE, DEFAULT_CACHE_STRIPES, clock), clock);
+    }
+
+    ChainVerifier(Set<InputStream> rootCertificates, PublicKeyCache publicKeyCache, Clock clock) {
         try {
             CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
             this.trustAnchors = new HashSet<>();
+            List<X509Certificate> trustedCertificates = new ArrayList<>();
             for (InputStream inputStream : rootCertificates) {
                 Certificate certificate = certificateFactory.generateCertificate(inputStream);
                 if (!(certificate instanceof X509Certificate)) {
                     throw new RuntimeException("Root certificate not of the expected X509 format");
                 }
                 trustAnchors.add(new TrustAnchor((X509Certificate) certificate, null));
+                trustedCertificates.add((X509Certificate) certificate);
             }
+            // Part of every cache key, so that a shared cache never returns chains validated against other roots
+            this.trustAnchorsDigest = ChainDigest.ofTrustAnchors(trustedCertificates);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
         if (trustAnchors.size() == 0) {
             throw new RuntimeException("At least one root certificate is required");
         }
-        this.verifiedPublicKeyCache = new ConcurrentHashMap<>();
+        this.verifiedPublicKeyCache = publicKeyCache;
+        this.offlineVerifiedPublicKeyCache = new ConcurrentHashMap<>();
+        this.certificateCache = new CertificateCache(MAXIMUM_CERTIFICATE_CACHE_SIZE);
+        this.inFlightValidations = new ConcurrentHashMap<>();
+        this.refreshesInProgress = ConcurrentHashMap.newKeySet();
         this.clock = clock;
     }
 
+    /**
+     * Revalidate chains that passed online validation in the background as their cached result nears expiration.
+     * <p>
+     * While a chain is being revalidated, the last successfully validated key continues to be used. If revalidation
+     * fails with {@link VerificationStatus#RETRYABLE_VERIFICATION_FAILURE}, for example because the OCSP responder is
+     * unreachable, the key continues to be used until the grace period after expiration has elapsed. Any other failure
+     * removes the cached key immediately.
+     *
+     * @param refreshWindow How long before a cached result expires revalidation is started, less than 15 minutes
+     * @param gracePeriod How long after expiration the last successfully validated key may still be used
+     * @param refreshExecutor The executor on which revalidations run
+     */
+    public void enableRefreshAhead(Duration refreshWindow, Duration gracePeriod, Executor refreshExecutor) {
+        if (refreshWindow.isNegative() || refreshWindow.compareTo(CACHE_TIME_LIMIT) >= 0) {
+            throw new IllegalArgumentException("refreshWindow must be between zero and the cache time limit");
+        }
+        if (gracePeriod.isNegative()) {
+            throw new IllegalArgumentException("gracePeriod must not be negative");
+        }
+        this.refreshAheadSettings = new RefreshAheadSettings(refreshWindow, gracePeriod, refreshExecutor);
+    }
+
+    /**
+     * Set the recorder that receives the hits and misses of the validated chain caches
+     * @param metricsRecorder The recorder, or {@link MetricsRecorder#NOOP} to stop recording
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+    }
+
     public PublicKey verifyChain(String[] certificates, boolean performRevocationChecking, Date effectiveDate) throws VerificationException {
-        if (performRevocationChecking && certificates.length > 0) {
+        return verifyChainForSignatures(certificates, performRevocationChecking, effectiveDate).getPublicKey();
+    }
+
+    /**
+     * Validate a chain as {@link #verifyChain(String[], boolean, Date)} does
+     * @return The verifier for signatures made with the key of the leaf certificate, cached alongside the key
+     */
+    SignatureVerifier verifyChainForSignatures(String[] certificates, boolean performRevocationChecking, Date effectiveDate) throws VerificationException {
+        if (certificates.length == 0) {
+            return new SignatureVerifier(verifyChainWithoutCaching(certificates, performRevocationChecking, effectiveDate));
+        }
+        ChainDigest chainDigest = ChainDigest.of(trustAnchorsDigest, certificates);
+        SignatureVerifier cachedVerifier;
+        if (performRevocationChecking) {
             // If revocation checking is enabled (which also implies effectiveDate is now), check the cache
-            PublicKey cachedKey = getCachedPrivateKey(Arrays.asList(certificates));
-            if (cachedKey != null) {
-                return cachedKey;
-            }
+            cachedVerifier = getCachedPrivateKey(chainDigest, certificates);
+        } else {
+            // Without revocation checking, a validated chain remains valid for any date within the validity of its certificates
+            cachedVerifier = getCachedOfflinePublicKey(chainDigest, effectiveDate);
+        }
+        metricsRecorder.recordChainCacheLookup(performRevocationChecking, cachedVerifier != null);
+        if (cachedVerifier != null) {
+            return cachedVerifier;
         }
-        PublicKey publicKey = verifyChainWithoutCaching(certificates, performRevocationChecking, effectiveDate);
         if (performRevocationChecking) {
-            putVerifiedPublicKey(Arrays.asList(certificates), publicKey);
+            return verifyChainOnce(chainDigest, certificates, effectiveDate);
         }
-        return publicKey;
+        SignatureVerifier signatureVerifier = new SignatureVerifier(verifyChainWithoutCaching(certificates, false, effectiveDate));
+        putOfflineVerifiedPublicKey(chainDigest, certificates, signatureVerifier);
+        return signatureVerifier;
     }
 
-    PublicKey verifyChainWithoutCaching(String[] certificates, boolean performRevocationChecking, Date effectiveDate) throws VerificationException {
-        CertificateFactory certificateFactory;
-        CertPathValidator certPathValidator;
+    /**
+     * Validate a chain without revocation checking, for every date within the validity of its certificates at once
+     * @return The validated chain, which callers must check is valid at their effective date
+     */
+    ValidatedChain verifyChainForValidityPeriod(String[] certificates) throws VerificationException {
+        ChainDigest chainDigest = ChainDigest.of(trustAnchorsDigest, certificates);
+        ValidatedChain cachedChain = offlineVerifiedPublicKeyCache.get(chainDigest);
+        metricsRecorder.recordChainCacheLookup(false, cachedChain != null);
+        if (cachedChain != null) {
+            return cachedChain;
+        }
+        Date[] validityPeriod = getValidityPeriod(certificates);
+        if (validityPeriod == null) {
+            // The chain could not be parsed, validating it reports why
+            verifyChainWithoutCaching(certificates, false, new Date());
+            throw new VerificationException(VerificationStatus.INVALID_CHAIN);
+        }
+        // Only the validity of the certificates depends on the date, any date within it validates the chain for all of them
+        SignatureVerifier signatureVerifier = new SignatureVerifier(verifyChainWithoutCaching(certificates, false, validityPeriod[0]));
+        ValidatedChain validatedChain = new ValidatedChain(validityPeriod[0], validityPeriod[1], signatureVerifier);
+        putOfflineVerifiedPublicKey(chainDigest, validatedChain);
+        return validatedChain;
+    }
+
+    /**
+     * Validate a chain with revocation checking, sharing a single validation between all threads requesting the same chain
+     */
+    private SignatureVerifier verifyChainOnce(ChainDigest chainDigest, String[] certificates, Date effectiveDate) throws VerificationException {
+        CompletableFuture<SignatureVerifier> validation = new CompletableFuture<>();
+        CompletableFuture<SignatureVerifier> inFlightValidation = inFlightValidations.putIfAbsent(chainDigest, validation);
+        if (inFlightValidation != null) {
+            return awaitValidation(inFlightValidation);
+        }
         try {
-            certificateFactory = CertificateFactory.getInstance("X.509");
-            certPathValidator = CertPathValidator.getInstance("PKIX");
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            // A validation completing between the cache lookup and this one being registered only costs a redundant validation,
+            // looking the chain up again would count a second miss against a shared cache
+            SignatureVerifier signatureVerifier = new SignatureVerifier(verifyChainWithoutCaching(certificates, true, effectiveDate));
+            putVerifiedPublicKey(chainDigest, signatureVerifier);
+            validation.complete(signatureVerifier);
+            return signatureVerifier;
+        } catch (Throwable t) {
+            validation.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlightValidations.remove(chainDigest, validation);
         }
-        List<Certificate> parsedCertificates = new LinkedList<>();
+    }
+
+    private static SignatureVerifier awaitValidation(CompletableFuture<SignatureVerifier> validation) throws VerificationException {
+        try {
+            return validation.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof VerificationException) {
+                // Each waiter receives its own exception, with the shared failure as the cause
+                VerificationException verificationException = (VerificationException) cause;
+                throw new VerificationException(verificationException.getStatus(), verificationException);
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    PublicKey verifyChainWithoutCaching(String[] certificates, boolean performRevocationChecking, Date effectiveDate) throws VerificationException {
+        CertificateFactory certificateFactory = CertificateCache.getCertificateFactory();
+        CertPathValidator certPathValidator = CERT_PATH_VALIDATOR.get();
+        List<Certificate> parsedCertificates = new ArrayList<>(certificates.length);
         try {
             for (String c : certificates) {
-                InputStream derEncodedCert = new ByteArrayInputStream(Base64.getDecoder().decode(c));
-                parsedCertificates.add(certificateFactory.generateCertificate(derEncodedCert));
+                parsedCertificates.add(certificateCache.getCertificate(c));
             }
         } catch (Exception e) {
             throw new VerificationException(VerificationStatus.INVALID_CERTIFICATE, e);
@@ -122,29 +265,141 @@ public class ChainVerifier {
         }
     }
 
-    private PublicKey getCachedPrivateKey(List<String> certificateChain) {
-        if (verifiedPublicKeyCache.containsKey(certificateChain) && verifiedPublicKeyCache.get(certificateChain).cachedExpirationDate.isAfter(clock.instant())) {
-            return verifiedPublicKeyCache.get(certificateChain).publicKey;
+    private SignatureVerifier getCachedPrivateKey(ChainDigest certificateChain, String[] certificates) {
+        CachedPublicKey cachedPublicKey = verifiedPublicKeyCache.get(certificateChain);
+        Instant now = clock.instant();
+        if (cachedPublicKey == null || !cachedPublicKey.getExpiresAt().isAfter(now)) {
+            return null;
+        }
+        RefreshAheadSettings settings = refreshAheadSettings;
+        if (settings != null && !now.isBefore(cachedPublicKey.getVerifiedAt().plus(CACHE_TIME_LIMIT).minus(settings.refreshWindow))) {
+            // The entry is close to or past its expiration, keep serving it while it is revalidated
+            scheduleRefresh(certificateChain, certificates, settings);
+        }
+        return cachedPublicKey.getSignatureVerifier();
+    }
+
+    private void putVerifiedPublicKey(ChainDigest certificateChain, SignatureVerifier signatureVerifier) {
+        Instant now = clock.instant();
+        Instant cacheExpiration = now.plus(CACHE_TIME_LIMIT);
+        RefreshAheadSettings settings = refreshAheadSettings;
+        if (settings != null) {
+            cacheExpiration = cacheExpiration.plus(settings.gracePeriod);
+        }
+        verifiedPublicKeyCache.put(certificateChain, new CachedPublicKey(signatureVerifier, now, cacheExpiration));
+    }
+
+    private void scheduleRefresh(ChainDigest certificateChain, String[] certificates, RefreshAheadSettings settings) {
+        if (!refreshesInProgress.add(certificateChain)) {
+            return;
+        }
+        try {
+            settings.refreshExecutor.execute(() -> {
+                try {
+                    PublicKey publicKey = verifyChainWithoutCaching(certificates, true, Date.from(clock.instant()));
+                    // Keep the verifier of an unchanged key, along with the signatures it has initialized
+                    CachedPublicKey previous = verifiedPublicKeyCache.get(certificateChain);
+                    putVerifiedPublicKey(certificateChain, previous != null && previous.getPublicKey().equals(publicKey) ? previous.getSignatureVerifier() : new SignatureVerifier(publicKey));
+                } catch (VerificationException e) {
+                    if (e.getStatus() != VerificationStatus.RETRYABLE_VERIFICATION_FAILURE) {
+                        // The chain is no longer valid, for example because a certificate has been revoked
+                        verifiedPublicKeyCache.remove(certificateChain);
+                    }
+                    // Otherwise the last successfully validated key remains in use until the grace period ends
+                } catch (RuntimeException e) {
+                    // The next lookup will retry the refresh
+                } finally {
+                    refreshesInProgress.remove(certificateChain);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshesInProgress.remove(certificateChain);
+        }
+    }
+
+    private SignatureVerifier getCachedOfflinePublicKey(ChainDigest certificateChain, Date effectiveDate) {
+        ValidatedChain entry = offlineVerifiedPublicKeyCache.get(certificateChain);
+        if (entry != null && entry.isValidAt(effectiveDate)) {
+            return entry.signatureVerifier;
         }
         return null;
     }
 
-    private void putVerifiedPublicKey(List<String> certificateChain, PublicKey publicKey) {
-        Instant cacheExpiration = clock.instant().plus(CACHE_TIME_LIMIT, ChronoUnit.MINUTES);
-        verifiedPublicKeyCache.put(certificateChain, new CachedEntry(cacheExpiration, publicKey));
-        if (verifiedPublicKeyCache.size() > MAXIMUM_CACHE_SIZE) {
-            // In the very unlikely event that the map has become too large, clear out old entries
-            verifiedPublicKeyCache.entrySet().removeIf(e -> e.getValue().cachedExpirationDate.isBefore(clock.instant()));
+    private void putOfflineVerifiedPublicKey(ChainDigest certificateChain, String[] certificates, SignatureVerifier signatureVerifier) {
+        Date[] validityPeriod = getValidityPeriod(certificates);
+        if (validityPeriod == null) {
+            // The chain has already been validated, if the validity window cannot be determined it is simply not cached
+            return;
+        }
+        putOfflineVerifiedPublicKey(certificateChain, new ValidatedChain(validityPeriod[0], validityPeriod[1], signatureVerifier));
+    }
+
+    private void putOfflineVerifiedPublicKey(ChainDigest certificateChain, ValidatedChain validatedChain) {
+        if (offlineVerifiedPublicKeyCache.size() >= MAXIMUM_CACHE_SIZE) {
+            // In the very unlikely event that the map has become too large, start over
+            offlineVerifiedPublicKeyCache.clear();
+        }
+        offlineVerifiedPublicKeyCache.put(certificateChain, validatedChain);
+    }
+
+    /**
+     * @return The latest notBefore and earliest notAfter of the certificates, or null if they could not be determined
+     */
+    private Date[] getValidityPeriod(String[] certificates) {
+        Date notBefore = null;
+        Date notAfter = null;
+        try {
+            // The root is not part of the validated path, only the leaf and intermediate validity applies
+            for (int i = 0; i < EXPECTED_CHAIN_LENGTH - 1; i++) {
+                X509Certificate certificate = certificateCache.getCertificate(certificates[i]);
+                if (notBefore == null || certificate.getNotBefore().after(notBefore)) {
+                    notBefore = certificate.getNotBefore();
+                }
+                if (notAfter == null || certificate.getNotAfter().before(notAfter)) {
+                    notAfter = certificate.getNotAfter();
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return new Date[] {notBefore, notAfter};
+    }
+
+    /**
+     * A chain validated without revocation checking, along with the period in which its certificates are valid
+     */
+    static final class ValidatedChain {
+        private final Date notBefore;
+        private final Date notAfter;
+        private final SignatureVerifier signatureVerifier;
+
+        ValidatedChain(Date notBefore, Date notAfter, SignatureVerifier signatureVerifier) {
+            this.notBefore = notBefore;
+            this.notAfter = notAfter;
+            this.signatureVerifier = signatureVerifier;
+        }
+
+        /**
+         * @return Whether all of the certificates of the chain are valid at the date
+         */
+        boolean isValidAt(Date date) {
+            return !date.before(notBefore) && !date.after(notAfter);
+        }
+
+        SignatureVerifier getSignatureVerifier() {
+            return signatureVerifier;
         }
     }
 
-    private static class CachedEntry {
-        private final Instant cachedExpirationDate;
-        private final PublicKey publicKey;
+    private static class RefreshAheadSettings {
+        private final Duration refreshWindow;
+        private final Duration gracePeriod;
+        private final Executor refreshExecutor;
 
-        public CachedEntry(Instant cachedExpirationDate, PublicKey publicKey) {
-            this.cachedExpirationDate = cachedExpirationDate;
-            this.publicKey = publicKey;
+        public RefreshAheadSettings(Duration refreshWindow, Duration gracePeriod, Executor refreshExecutor) {
+            this.refreshWindow = refreshWindow;
+            this.gracePeriod = gracePeriod;
+            this.refreshExecutor = refreshExecutor;
         }
     }
 }
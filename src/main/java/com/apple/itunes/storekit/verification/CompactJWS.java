@@ -0,0 +1,251 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A JWS in compact serialization, split once into its header, payload and signature.
+ * <p>
+ * Only the {@code alg} and {@code x5c} header parameters are read. The payload is Base64URL-decoded into a per-thread
+ * buffer and bound directly to its model, and ES256 signatures are verified over the original bytes of the token
+ * without re-encoding them.
+ */
+final class CompactJWS {
+    private static final String ES256 = "ES256";
+    private static final int ES256_SIGNATURE_LENGTH = 64;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAXIMUM_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+    private static final byte[] BASE64URL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final byte[] token;
+    private final int headerEnd;
+    private final int payloadEnd;
+    private final String algorithm;
+    private final String[] x5cChain;
+
+    private CompactJWS(byte[] token, int headerEnd, int payloadEnd, String algorithm, String[] x5cChain) {
+        this.token = token;
+        this.headerEnd = headerEnd;
+        this.payloadEnd = payloadEnd;
+        this.algorithm = algorithm;
+        this.x5cChain = x5cChain;
+    }
+
+    /**
+     * @param signedObject A JWS in compact serialization
+     * @param jsonCodec The codec used to read the header
+     * @return The split JWS, with its header parameters read
+     * @throws VerificationException If the JWS does not have three parts, or its header is not a JSON object
+     */
+    static CompactJWS parse(String signedObject, JsonCodec jsonCodec) throws VerificationException {
+        // Characters outside of ASCII become '?', which is rejected when the part containing them is decoded
+        byte[] token = signedObject.getBytes(StandardCharsets.US_ASCII);
+        int headerEnd = indexOf(token, 0);
+        int payloadEnd = headerEnd < 0 ? -1 : indexOf(token, headerEnd + 1);
+        if (payloadEnd < 0 || indexOf(token, payloadEnd + 1) >= 0) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "The token was expected to have 3 parts");
+        }
+        byte[] buffer = buffer(decodedLength(headerEnd));
+        int headerLength = decode(token, 0, headerEnd, buffer);
+        String algorithm = null;
+        String[] x5cChain = null;
+        try (JsonParser parser = jsonCodec.createParser(buffer, 0, headerLength)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "The token header was not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("alg".equals(name) && value == JsonToken.VALUE_STRING) {
+                    algorithm = parser.getText();
+                } else if ("x5c".equals(name) && value == JsonToken.START_ARRAY) {
+                    x5cChain = readStringArray(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, e);
+        }
+        return new CompactJWS(token, headerEnd, payloadEnd, algorithm, x5cChain);
+    }
+
+    /**
+     * @return The alg header parameter, or null if it is absent
+     */
+    String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return The x5c header parameter, or null if it is absent
+     */
+    String[] getX5cChain() {
+        return x5cChain;
+    }
+
+    /**
+     * @param clazz The type to bind the payload to
+     * @param jsonCodec The codec used to read the payload
+     * @return The payload, which has not been verified
+     * @throws VerificationException If the payload could not be decoded
+     */
+    <T> T readPayload(Class<T> clazz, JsonCodec jsonCodec) throws VerificationException {
+        return readJson(token, headerEnd + 1, payloadEnd, clazz, jsonCodec);
+    }
+
+    /**
+     * @param publicKey The key of the leaf certificate of the x5c chain
+     * @return Whether the signature is valid for the header and payload
+     * @throws VerificationException If the algorithm is not ES256, or the signature could not be decoded
+     */
+    boolean verifySignature(PublicKey publicKey) throws VerificationException {
+        return verifySignature(new SignatureVerifier(publicKey, 1));
+    }
+
+    /**
+     * @param signatureVerifier The verifier for the key of the leaf certificate of the x5c chain
+     * @return Whether the signature is valid for the header and payload
+     * @throws VerificationException If the algorithm is not ES256, or the signature could not be decoded
+     */
+    boolean verifySignature(SignatureVerifier signatureVerifier) throws VerificationException {
+        if (!ES256.equals(algorithm)) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "Unrecognized JWT algorithm " + algorithm);
+        }
+        int signatureOffset = payloadEnd + 1;
+        byte[] buffer = buffer(decodedLength(token.length - signatureOffset));
+        if (decode(token, signatureOffset, token.length, buffer) != ES256_SIGNATURE_LENGTH) {
+            return false;
+        }
+        // Copied to an array of the exact length, which the provider then uses without copying it again
+        byte[] signatureBytes = Arrays.copyOf(buffer, ES256_SIGNATURE_LENGTH);
+        try {
+            return signatureVerifier.verify(token, payloadEnd, signatureBytes);
+        } catch (GeneralSecurityException e) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, e);
+        }
+    }
+
+    /**
+     * Decode a Base64URL-encoded JSON value, such as the payload of a JWS, through a per-thread buffer
+     */
+    static <T> T readJson(byte[] encoded, int from, int to, Class<T> clazz, JsonCodec jsonCodec) throws VerificationException {
+        byte[] buffer = buffer(decodedLength(to - from));
+        int length = decode(encoded, from, to, buffer);
+        try {
+            return jsonCodec.readValue(buffer, 0, length, clazz);
+        } catch (IOException e) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, e);
+        }
+    }
+
+    private static String[] readStringArray(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>(3);
+        JsonToken element;
+        while ((element = parser.nextToken()) == JsonToken.VALUE_STRING) {
+            values.add(parser.getText());
+        }
+        if (element != JsonToken.END_ARRAY) {
+            throw new IOException("The x5c header parameter must only contain strings");
+        }
+        return values.toArray(new String[0]);
+    }
+
+    private static int indexOf(byte[] token, int from) {
+        for (int i = from; i < token.length; i++) {
+            if (token[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] buffer(int size) {
+        byte[] buffer = BUFFER.get();
+        if (buffer.length < size) {
+            buffer = new byte[size];
+            if (size <= MAXIMUM_RETAINED_BUFFER_SIZE) {
+                BUFFER.set(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * @return The maximum length of the bytes encoded by a number of Base64URL characters
+     */
+    private static int decodedLength(int encodedLength) {
+        return encodedLength / 4 * 3 + 2;
+    }
+
+    /**
+     * Decode Base64URL, with or without padding
+     * @return The number of decoded bytes written to the destination
+     * @throws VerificationException If the range contains characters outside of the Base64URL alphabet, or has an invalid length
+     */
+    static int decode(byte[] source, int from, int to, byte[] destination) throws VerificationException {
+        int end = to;
+        for (int padding = 0; padding < 2 && end > from && source[end - 1] == '='; padding++) {
+            end--;
+        }
+        int remainder = (end - from) % 4;
+        if (remainder == 1 || (end < to && (to - from) % 4 != 0)) {
+            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "Invalid Base64URL length");
+        }
+        int position = from;
+        int written = 0;
+        int fullEnd = end - remainder;
+        while (position < fullEnd) {
+            int bits = value(source[position]) << 18 | value(source[position + 1]) << 12 | value(source[position + 2]) << 6 | value(source[position + 3]);
+            if (bits < 0) {
+                throw invalidCharacter();
+            }
+            destination[written++] = (byte) (bits >> 16);
+            destination[written++] = (byte) (bits >> 8);
+            destination[written++] = (byte) bits;
+            position += 4;
+        }
+        if (remainder > 0) {
+            int bits = value(source[position]) << 18 | value(source[position + 1]) << 12 | (remainder == 3 ? value(source[position + 2]) << 6 : 0);
+            if (bits < 0) {
+                throw invalidCharacter();
+            }
+            destination[written++] = (byte) (bits >> 16);
+            if (remainder == 3) {
+                destination[written++] = (byte) (bits >> 8);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return The 6-bit value of a Base64URL character, or a negative value with all high bits set if it is invalid
+     */
+    private static int value(byte character) {
+        return character >= 0 ? BASE64URL_VALUES[character] : -1;
+    }
+
+    private static VerificationException invalidCharacter() {
+        return new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "Invalid Base64URL character");
+    }
+}
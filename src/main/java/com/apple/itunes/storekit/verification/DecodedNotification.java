@@ -0,0 +1,152 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.model.AppTransaction;
+import com.apple.itunes.storekit.model.JWSRenewalInfoDecodedPayload;
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.model.ResponseBodyV2DecodedPayload;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A verified App Store Server Notification, along with the signed data it contains.
+ * <p>
+ * The signed transaction, renewal info and app transaction of the notification are each verified and decoded once, the
+ * first time they are requested or in the background, sharing the validation of the certificate chain with the
+ * notification. Instances are thread-safe.
+ *
+ * @see SignedDataVerifier#verifyAndDecodeNotificationContents(String)
+ */
+public final class DecodedNotification {
+    private final ResponseBodyV2DecodedPayload payload;
+    private final LazyVerification<JWSTransactionDecodedPayload> transactionInfo;
+    private final LazyVerification<JWSRenewalInfoDecodedPayload> renewalInfo;
+    private final LazyVerification<AppTransaction> appTransaction;
+
+    DecodedNotification(ResponseBodyV2DecodedPayload payload,
+                        LazyVerification<JWSTransactionDecodedPayload> transactionInfo,
+                        LazyVerification<JWSRenewalInfoDecodedPayload> renewalInfo,
+                        LazyVerification<AppTransaction> appTransaction) {
+        this.payload = payload;
+        this.transactionInfo = transactionInfo;
+        this.renewalInfo = renewalInfo;
+        this.appTransaction = appTransaction;
+    }
+
+    /**
+     * @return The decoded notification
+     */
+    public ResponseBodyV2DecodedPayload getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return The decoded signedTransactionInfo of the notification's data, or null if the notification has none
+     * @throws VerificationException Thrown if the signedTransactionInfo could not be verified
+     */
+    public JWSTransactionDecodedPayload getTransactionInfo() throws VerificationException {
+        return transactionInfo.get();
+    }
+
+    /**
+     * @return The decoded signedRenewalInfo of the notification's data, or null if the notification has none
+     * @throws VerificationException Thrown if the signedRenewalInfo could not be verified
+     */
+    public JWSRenewalInfoDecodedPayload getRenewalInfo() throws VerificationException {
+        return renewalInfo.get();
+    }
+
+    /**
+     * @return The decoded signedAppTransactionInfo of the notification's appData, or null if the notification has none
+     * @throws VerificationException Thrown if the signedAppTransactionInfo could not be verified
+     */
+    public AppTransaction getAppTransaction() throws VerificationException {
+        return appTransaction.get();
+    }
+
+    /**
+     * Start verifying all of the signed data of the notification in parallel
+     */
+    void startVerification(Executor executor) {
+        transactionInfo.start(executor);
+        renewalInfo.start(executor);
+        appTransaction.start(executor);
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedNotification{" +
+                "payload=" + payload +
+                '}';
+    }
+
+    @FunctionalInterface
+    interface Verification<T> {
+        T verify() throws VerificationException;
+    }
+
+    /**
+     * The result of verifying a signed value, computed at most once
+     */
+    static final class LazyVerification<T> {
+        private final Verification<T> verification;
+        private final AtomicReference<CompletableFuture<T>> result = new AtomicReference<>();
+
+        /**
+         * @param verification The verification of the signed value, or null if there is no value
+         */
+        LazyVerification(Verification<T> verification) {
+            this.verification = verification;
+        }
+
+        void start(Executor executor) {
+            if (verification == null) {
+                return;
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            if (result.compareAndSet(null, future)) {
+                try {
+                    executor.execute(() -> complete(future));
+                } catch (RuntimeException e) {
+                    // The executor is unable to accept the verification, run it here instead
+                    complete(future);
+                }
+            }
+        }
+
+        T get() throws VerificationException {
+            if (verification == null) {
+                return null;
+            }
+            CompletableFuture<T> future = result.get();
+            if (future == null) {
+                CompletableFuture<T> created = new CompletableFuture<>();
+                future = result.compareAndExchange(null, created);
+                if (future == null) {
+                    complete(created);
+                    future = created;
+                }
+            }
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof VerificationException) {
+                    throw (VerificationException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        private void complete(CompletableFuture<T> future) {
+            try {
+                future.complete(verification.verify());
+            } catch (VerificationException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+/**
+ * A cache of public keys from certificate chains that passed online validation, used by {@link ChainVerifier}.
+ * <p>
+ * Implementations must be thread-safe. A single cache may be shared by several verifiers: the chain digests used as
+ * keys include the root certificates trusted by the verifier, so a chain validated by one verifier is only found by
+ * verifiers trusting the same roots.
+ *
+ * @see StripedLruPublicKeyCache
+ */
+public interface PublicKeyCache {
+
+    /**
+     * @param chain The digest of the certificate chain
+     * @return The cached entry, or null if there is no entry or it has expired
+     */
+    CachedPublicKey get(ChainDigest chain);
+
+    /**
+     * @param chain The digest of the certificate chain
+     * @param cachedPublicKey The entry to store, replacing any existing entry for the chain
+     */
+    void put(ChainDigest chain, CachedPublicKey cachedPublicKey);
+
+    /**
+     * @param chain The digest of the certificate chain whose entry, if any, must no longer be returned
+     */
+    void remove(ChainDigest chain);
+}
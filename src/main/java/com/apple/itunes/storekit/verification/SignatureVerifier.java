@@ -0,0 +1,122 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Verifies ES256 signatures made by the key of a validated certificate chain.
+ * <p>
+ * Instances are cached alongside the key by {@link ChainVerifier}, and keep a small pool of {@link Signature} instances
+ * already initialized with the key, so that verifying a signature does not look up a provider or initialize a
+ * {@link Signature} each time. Instances are thread-safe.
+ */
+final class SignatureVerifier {
+    // The JWS signature is the concatenation of R and S, which is the IEEE P1363 format rather than DER
+    private static final String ALGORITHM = "SHA256withECDSAinP1363Format";
+    private static final int MAXIMUM_POOL_SIZE = 16;
+    private static final int COMPONENT_LENGTH = 32;
+    // The order n of the P-256 curve, R and S must both be within [1, n - 1]
+    private static final byte[] CURVE_ORDER = {
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x00, 0x00, 0x00, 0x00,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xBC, (byte) 0xE6, (byte) 0xFA, (byte) 0xAD, (byte) 0xA7, 0x17, (byte) 0x9E, (byte) 0x84,
+            (byte) 0xF3, (byte) 0xB9, (byte) 0xCA, (byte) 0xC2, (byte) 0xFC, 0x63, 0x25, 0x51
+    };
+
+    private final PublicKey publicKey;
+    private final AtomicReferenceArray<Signature> idleSignatures;
+
+    /**
+     * @param publicKey The key of the leaf certificate of a validated chain
+     */
+    SignatureVerifier(PublicKey publicKey) {
+        this(publicKey, Math.min(Runtime.getRuntime().availableProcessors(), MAXIMUM_POOL_SIZE));
+    }
+
+    SignatureVerifier(PublicKey publicKey, int poolSize) {
+        this.publicKey = publicKey;
+        this.idleSignatures = new AtomicReferenceArray<>(poolSize);
+    }
+
+    /**
+     * @return The key of the leaf certificate of a validated chain
+     */
+    PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * @param data The array containing the signed data, starting at index zero
+     * @param length The length of the signed data
+     * @param signature The signature, in IEEE P1363 format
+     * @return Whether the signature is valid for the data
+     * @throws GeneralSecurityException If the key is not an EC key, or the signature could not be checked
+     */
+    boolean verify(byte[] data, int length, byte[] signature) throws GeneralSecurityException {
+        // Some JDK versions accept R = S = 0 for any data (CVE-2022-21449), so the structure is checked before the provider sees it
+        if (!isWellFormed(signature)) {
+            return false;
+        }
+        // Signatures are only returned to the pool after a verification completes, which resets them for the next one
+        Signature instance = acquire();
+        instance.update(data, 0, length);
+        boolean valid = instance.verify(signature);
+        release(instance);
+        return valid;
+    }
+
+    /**
+     * @return Whether the signature is 64 bytes, with R and S both within [1, n - 1]
+     */
+    private static boolean isWellFormed(byte[] signature) {
+        return signature.length == COMPONENT_LENGTH * 2
+                && isInRange(signature, 0)
+                && isInRange(signature, COMPONENT_LENGTH);
+    }
+
+    private static boolean isInRange(byte[] signature, int offset) {
+        boolean zero = true;
+        for (int i = 0; i < COMPONENT_LENGTH; i++) {
+            if (signature[offset + i] != 0) {
+                zero = false;
+                break;
+            }
+        }
+        // Big-endian, unsigned comparison with the curve order
+        return !zero && Arrays.compareUnsigned(signature, offset, offset + COMPONENT_LENGTH, CURVE_ORDER, 0, COMPONENT_LENGTH) < 0;
+    }
+
+    private Signature acquire() throws GeneralSecurityException {
+        int slots = idleSignatures.length();
+        int start = (int) (Thread.currentThread().getId() % slots);
+        for (int i = 0; i < slots; i++) {
+            int slot = (start + i) % slots;
+            if (idleSignatures.get(slot) != null) {
+                Signature signature = idleSignatures.getAndSet(slot, null);
+                if (signature != null) {
+                    return signature;
+                }
+            }
+        }
+        Signature signature = Signature.getInstance(ALGORITHM);
+        signature.initVerify(publicKey);
+        return signature;
+    }
+
+    private void release(Signature signature) {
+        int slots = idleSignatures.length();
+        int start = (int) (Thread.currentThread().getId() % slots);
+        for (int i = 0; i < slots; i++) {
+            int slot = (start + i) % slots;
+            if (idleSignatures.get(slot) == null && idleSignatures.compareAndSet(slot, null, signature)) {
+                return;
+            }
+        }
+        // The pool is full, more threads are verifying with this key than it retains signatures for
+    }
+}
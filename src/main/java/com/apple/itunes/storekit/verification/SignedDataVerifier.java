@@ -2,7 +2,11 @@
 
 package com.apple.itunes.storekit.verification;
 
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.model.AppData;
 import com.apple.itunes.storekit.model.AppTransaction;
+import com.apple.itunes.storekit.model.Data;
 import com.apple.itunes.storekit.model.DecodedRealtimeRequestBody;
 import com.apple.itunes.storekit.model.DecodedSignedData;
 import com.apple.itunes.storekit.model.Environment;
@@ -10,30 +14,36 @@ import com.apple.itunes.storekit.model.JWSRenewalInfoDecodedPayload;
 import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
 import com.apple.itunes.storekit.model.ResponseBodyV2DecodedPayload;
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.InputStream;
-import java.security.PublicKey;
-import java.security.interfaces.ECPublicKey;
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * A verifier and decoder class designed to decode signed data from the App Store.
  */
 public class SignedDataVerifier {
-
     private final String bundleId;
     private final Long appAppleId;
     private final Environment environment;
     private final ChainVerifier chainVerifier;
     private final boolean enableOnlineChecks;
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+    private final boolean parseJWTPayloadOverridden;
 
     /**
      *
@@ -44,23 +54,38 @@ public class SignedDataVerifier {
      * @param enableOnlineChecks Whether to enable revocation checking and check expiration using the current date
      */
     public SignedDataVerifier(Set<InputStream> rootCertificates, String bundleId, Long appAppleId, Environment environment, boolean enableOnlineChecks) {
+        this(new ChainVerifier(rootCertificates), bundleId, appAppleId, environment, enableOnlineChecks);
+    }
+
+    /**
+     *
+     * @param chainVerifier The verifier used to validate certificate chains, which may be shared between verifiers to share its caches
+     * @param bundleId The bundle identifier of the app.
+     * @param appAppleId The unique identifier of the app in the App Store.
+     * @param environment The server environment, either sandbox or production.
+     * @param enableOnlineChecks Whether to enable revocation checking and check expiration using the current date
+     */
+    public SignedDataVerifier(ChainVerifier chainVerifier, String bundleId, Long appAppleId, Environment environment, boolean enableOnlineChecks) {
         this.bundleId = bundleId;
         this.appAppleId = appAppleId;
         this.environment = environment;
-        this.chainVerifier = new ChainVerifier(rootCertificates);
+        this.chainVerifier = chainVerifier;
         this.enableOnlineChecks = enableOnlineChecks;
-        this.objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        this.jsonCodec = JsonCodec.getInstance();
+        this.parseJWTPayloadOverridden = overridesParseJWTPayload(getClass());
         if (appAppleId == null && Environment.PRODUCTION.equals(environment)) {
             throw new IllegalArgumentException("appAppleId is required when the environment is Production");
         }
     }
 
+    /**
+     * Set the recorder that receives the outcome and duration of every verification
+     * @param metricsRecorder The recorder, or {@link MetricsRecorder#NOOP} to stop recording
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+    }
+
     /**
      * Verifies and decodes a signedTransaction obtained from the App Store Server API, an App Store Server Notification, or from a device
      * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/jwstransaction">JWSTransaction</a>
@@ -70,10 +95,37 @@ public class SignedDataVerifier {
      * @throws VerificationException Thrown if the data could not be verified
      */
     public JWSTransactionDecodedPayload verifyAndDecodeTransaction(String signedTransaction) throws VerificationException {
-        JWSTransactionDecodedPayload transaction = decodeSignedObject(signedTransaction, JWSTransactionDecodedPayload.class);
+        return verifyAndDecode(signedTransaction, JWSTransactionDecodedPayload.class, this::validateTransaction);
+    }
+
+    /**
+     * Verifies and decodes a batch of signedTransactions using the common {@link ForkJoinPool}
+     *
+     * @param signedTransactions The signedTransaction fields
+     * @return A result for each signedTransaction, in iteration order of the input
+     * @see #verifyAndDecodeTransactions(Collection, Executor)
+     */
+    public List<VerificationResult<JWSTransactionDecodedPayload>> verifyAndDecodeTransactions(Collection<String> signedTransactions) {
+        return verifyAndDecodeTransactions(signedTransactions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies and decodes a batch of signedTransactions obtained from the App Store Server API, an App Store Server Notification, or from a device
+     * <p>
+     * Each distinct certificate chain is validated once per batch, and a failure to verify one item does not affect the others.
+     * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/jwstransaction">JWSTransaction</a>
+     *
+     * @param signedTransactions The signedTransaction fields
+     * @param executor The executor on which items are verified
+     * @return A result for each signedTransaction, in iteration order of the input
+     */
+    public List<VerificationResult<JWSTransactionDecodedPayload>> verifyAndDecodeTransactions(Collection<String> signedTransactions, Executor executor) {
+        return verifyAndDecodeBatch(signedTransactions, JWSTransactionDecodedPayload.class, this::validateTransaction, executor);
+    }
+
+    private void validateTransaction(JWSTransactionDecodedPayload transaction) throws VerificationException {
         validateBundleId(transaction.getBundleId());
         validateEnvironment(transaction.getEnvironment());
-        return transaction;
     }
 
     /**
@@ -85,9 +137,32 @@ public class SignedDataVerifier {
      * @throws VerificationException Thrown if the data could not be verified
      */
     public JWSRenewalInfoDecodedPayload verifyAndDecodeRenewalInfo(String signedRenewalInfo) throws VerificationException {
-        JWSRenewalInfoDecodedPayload renewalInfo = decodeSignedObject(signedRenewalInfo, JWSRenewalInfoDecodedPayload.class);
-        validateEnvironment(renewalInfo.getEnvironment());
-        return renewalInfo;
+        return verifyAndDecode(signedRenewalInfo, JWSRenewalInfoDecodedPayload.class, renewalInfo -> validateEnvironment(renewalInfo.getEnvironment()));
+    }
+
+    /**
+     * Verifies and decodes a batch of signedRenewalInfos using the common {@link ForkJoinPool}
+     *
+     * @param signedRenewalInfos The signedRenewalInfo fields
+     * @return A result for each signedRenewalInfo, in iteration order of the input
+     * @see #verifyAndDecodeRenewalInfos(Collection, Executor)
+     */
+    public List<VerificationResult<JWSRenewalInfoDecodedPayload>> verifyAndDecodeRenewalInfos(Collection<String> signedRenewalInfos) {
+        return verifyAndDecodeRenewalInfos(signedRenewalInfos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies and decodes a batch of signedRenewalInfos obtained from the App Store Server API, an App Store Server Notification, or from a device
+     * <p>
+     * Each distinct certificate chain is validated once per batch, and a failure to verify one item does not affect the others.
+     * @see <a href="https://developer.apple.com/documentation/appstoreserverapi/jwsrenewalinfo">JWSRenewalInfo</a>
+     *
+     * @param signedRenewalInfos The signedRenewalInfo fields
+     * @param executor The executor on which items are verified
+     * @return A result for each signedRenewalInfo, in iteration order of the input
+     */
+    public List<VerificationResult<JWSRenewalInfoDecodedPayload>> verifyAndDecodeRenewalInfos(Collection<String> signedRenewalInfos, Executor executor) {
+        return verifyAndDecodeBatch(signedRenewalInfos, JWSRenewalInfoDecodedPayload.class, renewalInfo -> validateEnvironment(renewalInfo.getEnvironment()), executor);
     }
 
     /**
@@ -99,7 +174,59 @@ public class SignedDataVerifier {
      * @throws VerificationException Thrown if the data could not be verified
      */
     public ResponseBodyV2DecodedPayload verifyAndDecodeNotification(String signedPayload) throws VerificationException {
-        ResponseBodyV2DecodedPayload notification = decodeSignedObject(signedPayload, ResponseBodyV2DecodedPayload.class);
+        return verifyAndDecode(signedPayload, ResponseBodyV2DecodedPayload.class, this::validateNotification);
+    }
+
+    /**
+     * Verifies and decodes an App Store Server Notification signedPayload, along with the signed data it contains
+     * <p>
+     * The signedTransactionInfo and signedRenewalInfo of the notification's data, and the signedAppTransactionInfo of its
+     * appData, are verified and decoded the first time they are requested from the result. They share the validation
+     * of the certificate chain with the signedPayload.
+     * @see <a href="https://developer.apple.com/documentation/appstoreservernotifications/signedpayload">signedPayload</a>
+     *
+     * @param signedPayload The payload received by your server
+     * @return The decoded payload after verification, with its signed data
+     * @throws VerificationException Thrown if the signedPayload could not be verified
+     */
+    public DecodedNotification verifyAndDecodeNotificationContents(String signedPayload) throws VerificationException {
+        return verifyAndDecodeNotificationContents(signedPayload, sharedChainResolver());
+    }
+
+    /**
+     * Verifies and decodes an App Store Server Notification signedPayload, along with the signed data it contains
+     * <p>
+     * As soon as the signedPayload has been verified, the signedTransactionInfo and signedRenewalInfo of the
+     * notification's data, and the signedAppTransactionInfo of its appData, are verified and decoded in parallel on the
+     * executor. They share the validation of the certificate chain with the signedPayload.
+     * @see <a href="https://developer.apple.com/documentation/appstoreservernotifications/signedpayload">signedPayload</a>
+     *
+     * @param signedPayload The payload received by your server
+     * @param executor The executor on which the signed data of the notification is verified
+     * @return The decoded payload after verification, with its signed data
+     * @throws VerificationException Thrown if the signedPayload could not be verified
+     */
+    public DecodedNotification verifyAndDecodeNotificationContents(String signedPayload, Executor executor) throws VerificationException {
+        DecodedNotification notification = verifyAndDecodeNotificationContents(signedPayload, sharedChainResolver());
+        notification.startVerification(executor);
+        return notification;
+    }
+
+    private DecodedNotification verifyAndDecodeNotificationContents(String signedPayload, ChainResolver chainResolver) throws VerificationException {
+        ResponseBodyV2DecodedPayload payload = verifyAndDecode(signedPayload, ResponseBodyV2DecodedPayload.class, this::validateNotification, chainResolver);
+        Data data = payload.getData();
+        AppData appData = payload.getAppData();
+        return new DecodedNotification(payload,
+                lazyVerification(data != null ? data.getSignedTransactionInfo() : null, JWSTransactionDecodedPayload.class, this::validateTransaction, chainResolver),
+                lazyVerification(data != null ? data.getSignedRenewalInfo() : null, JWSRenewalInfoDecodedPayload.class, renewalInfo -> validateEnvironment(renewalInfo.getEnvironment()), chainResolver),
+                lazyVerification(appData != null ? appData.getSignedAppTransactionInfo() : null, AppTransaction.class, this::validateAppTransaction, chainResolver));
+    }
+
+    private <T extends DecodedSignedData> DecodedNotification.LazyVerification<T> lazyVerification(String signedObject, Class<T> clazz, PayloadValidator<T> validator, ChainResolver chainResolver) {
+        return new DecodedNotification.LazyVerification<>(signedObject != null ? () -> verifyAndDecode(signedObject, clazz, validator, chainResolver) : null);
+    }
+
+    private void validateNotification(ResponseBodyV2DecodedPayload notification) throws VerificationException {
         String bundleId;
         Long appAppleId;
         Environment notificationEnv;
@@ -130,7 +257,6 @@ public class SignedDataVerifier {
             notificationEnv = null;
         }
         verifyNotification(bundleId, appAppleId, notificationEnv);
-        return notification;
     }
 
     protected void verifyNotification(String bundleId, Long appAppleId, Environment notificationEnv) throws VerificationException {
@@ -148,12 +274,13 @@ public class SignedDataVerifier {
      * @throws VerificationException Thrown if the data could not be verified
      */
     public AppTransaction verifyAndDecodeAppTransaction(String signedAppTransaction) throws VerificationException {
-        AppTransaction appTransaction = decodeSignedObject(signedAppTransaction, AppTransaction.class);
-        Environment environment = appTransaction.getReceiptType();
+        return verifyAndDecode(signedAppTransaction, AppTransaction.class, this::validateAppTransaction);
+    }
+
+    private void validateAppTransaction(AppTransaction appTransaction) throws VerificationException {
         validateBundleId(appTransaction.getBundleId());
         validateAppAppleId(appTransaction.getAppAppleId());
-        validateEnvironment(environment);
-        return appTransaction;
+        validateEnvironment(appTransaction.getReceiptType());
     }
 
     /**
@@ -165,10 +292,10 @@ public class SignedDataVerifier {
      * @throws VerificationException Thrown if the data could not be verified
      */
     public DecodedRealtimeRequestBody verifyAndDecodeRealtimeRequest(String signedPayload) throws VerificationException {
-        DecodedRealtimeRequestBody request = decodeSignedObject(signedPayload, DecodedRealtimeRequestBody.class);
-        validateAppAppleId(request.getAppAppleId());
-        validateEnvironment(request.getEnvironment());
-        return request;
+        return verifyAndDecode(signedPayload, DecodedRealtimeRequestBody.class, request -> {
+            validateAppAppleId(request.getAppAppleId());
+            validateEnvironment(request.getEnvironment());
+        });
     }
 
     protected void validateAppAppleId(Long appAppleId) throws VerificationException {
@@ -189,25 +316,63 @@ public class SignedDataVerifier {
         }
     }
 
+    private <T extends DecodedSignedData> T verifyAndDecode(String signedObject, Class<T> clazz, PayloadValidator<T> validator) throws VerificationException {
+        return verifyAndDecode(signedObject, clazz, validator, null);
+    }
+
+    private <T extends DecodedSignedData> T verifyAndDecode(String signedObject, Class<T> clazz, PayloadValidator<T> validator, ChainResolver chainResolver) throws VerificationException {
+        MetricsRecorder metrics = metricsRecorder;
+        long start = System.nanoTime();
+        try {
+            T decodedData = chainResolver != null ? decodeSignedObject(signedObject, clazz, chainResolver) : decodeSignedObject(signedObject, clazz);
+            validator.validate(decodedData);
+            metrics.recordVerification(clazz, VerificationStatus.OK, System.nanoTime() - start);
+            return decodedData;
+        } catch (VerificationException e) {
+            metrics.recordVerification(clazz, e.getStatus(), System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes a single signed object, validating its certificate chain on its own.
+     * <p>
+     * Batches and notification contents are decoded through {@link #decodeSignedObject(String, Class, ChainResolver)}
+     * instead, which this method delegates to, so overriding that method intercepts the decoding of every signed object.
+     */
     protected <T extends DecodedSignedData> T decodeSignedObject(String signedObject, Class<T> clazz) throws VerificationException {
+        return decodeSignedObject(signedObject, clazz, new ChainResolver((x5cChain, effectiveDate) -> chainVerifier.verifyChainForSignatures(x5cChain, enableOnlineChecks, effectiveDate)));
+    }
+
+    /**
+     * Decodes a signed object, validating its certificate chain through the resolver
+     * @param signedObject The signed object to decode
+     * @param clazz The type of the payload
+     * @param chainResolver The validation of certificate chains, shared by all signed objects of a batch or notification
+     * @return The decoded payload after verification
+     * @throws VerificationException Thrown if the signed object could not be verified
+     */
+    protected <T extends DecodedSignedData> T decodeSignedObject(String signedObject, Class<T> clazz, ChainResolver chainResolver) throws VerificationException {
+        return parseAndVerify(signedObject, clazz, chainResolver);
+    }
+
+    private <T extends DecodedSignedData> T parseAndVerify(String signedObject, Class<T> clazz, ChainResolver chainResolver) throws VerificationException {
         try {
-            DecodedJWT unverifiedJWT = JWT.decode(signedObject);
+            CompactJWS jws = CompactJWS.parse(signedObject, jsonCodec);
             if (Environment.XCODE.equals(this.environment) || Environment.LOCAL_TESTING.equals(this.environment)) {
                 // Data is not signed by the App Store, and verification should be skipped
                 // The environment MUST be checked in the public method calling this
-                return parseJWTPayload(clazz, unverifiedJWT);
+                return readPayload(signedObject, jws, clazz);
             }
-            String[] x5cChain = unverifiedJWT.getHeaderClaim("x5c").asArray(String.class);
+            String[] x5cChain = jws.getX5cChain();
             if (x5cChain == null) {
                 throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "x5c claim was null");
             }
-            T decodedData = parseJWTPayload(clazz, unverifiedJWT);
+            T decodedData = readPayload(signedObject, jws, clazz);
             Date effectiveDate = this.enableOnlineChecks || decodedData.getSignedDate() == null ? new Date() : new Date(decodedData.getSignedDate());
-            PublicKey signingKey = chainVerifier.verifyChain(x5cChain, enableOnlineChecks, effectiveDate);
-            if ("ES256".equals(unverifiedJWT.getAlgorithm())) {
-                JWT.require(Algorithm.ECDSA256((ECPublicKey) signingKey)).build().verify(unverifiedJWT);
-            } else {
-                throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "Unrecognized JWT algorithm + " + unverifiedJWT.getAlgorithm());
+            SignatureVerifier signatureVerifier = chainResolver.resolve(x5cChain, effectiveDate);
+            if (!jws.verifySignature(signatureVerifier)) {
+                throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, "The token signature was invalid");
             }
             return decodedData;
         } catch (VerificationException e) {
@@ -217,12 +382,128 @@ public class SignedDataVerifier {
         }
     }
 
+    private <T extends DecodedSignedData> List<VerificationResult<T>> verifyAndDecodeBatch(Collection<String> signedObjects, Class<T> clazz, PayloadValidator<T> validator, Executor executor) {
+        ChainResolver chainResolver = sharedChainResolver();
+        MetricsRecorder metrics = metricsRecorder;
+        List<CompletableFuture<VerificationResult<T>>> results = new ArrayList<>(signedObjects.size());
+        for (String signedObject : signedObjects) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                VerificationResult<T> result;
+                try {
+                    T decodedData = decodeSignedObject(signedObject, clazz, chainResolver);
+                    validator.validate(decodedData);
+                    result = VerificationResult.success(decodedData);
+                } catch (VerificationException e) {
+                    result = VerificationResult.failure(e);
+                } catch (RuntimeException e) {
+                    result = VerificationResult.failure(new VerificationException(VerificationStatus.VERIFICATION_FAILURE, e));
+                }
+                metrics.recordVerification(clazz, result.isSuccess() ? VerificationStatus.OK : result.getException().getStatus(), System.nanoTime() - start);
+                return result;
+            }, executor));
+        }
+        return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * @return A resolver validating each distinct chain once. Without online checks, the chain is validated for the
+     * validity period of its certificates, which is then checked against the effective date of each item.
+     */
+    private ChainResolver sharedChainResolver() {
+        ConcurrentHashMap<List<String>, CompletableFuture<Object>> verifiedChains = new ConcurrentHashMap<>();
+        return new ChainResolver((x5cChain, effectiveDate) -> {
+            CompletableFuture<Object> verification = new CompletableFuture<>();
+            CompletableFuture<Object> existingVerification = verifiedChains.putIfAbsent(Arrays.asList(x5cChain), verification);
+            if (existingVerification == null) {
+                try {
+                    verification.complete(enableOnlineChecks
+                            ? chainVerifier.verifyChainForSignatures(x5cChain, true, effectiveDate)
+                            : chainVerifier.verifyChainForValidityPeriod(x5cChain));
+                } catch (VerificationException | RuntimeException e) {
+                    verification.completeExceptionally(e);
+                }
+                existingVerification = verification;
+            }
+            Object verifiedChain;
+            try {
+                verifiedChain = existingVerification.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof VerificationException) {
+                    throw (VerificationException) e.getCause();
+                }
+                throw e;
+            }
+            if (verifiedChain instanceof SignatureVerifier) {
+                return (SignatureVerifier) verifiedChain;
+            }
+            ChainVerifier.ValidatedChain validatedChain = (ChainVerifier.ValidatedChain) verifiedChain;
+            if (!validatedChain.isValidAt(effectiveDate)) {
+                throw new VerificationException(VerificationStatus.INVALID_CHAIN, "The certificate chain was not valid at " + effectiveDate.toInstant());
+            }
+            return validatedChain.getSignatureVerifier();
+        });
+    }
+
+    private <T extends DecodedSignedData> T readPayload(String signedObject, CompactJWS jws, Class<T> clazz) throws VerificationException {
+        if (parseJWTPayloadOverridden) {
+            // Subclasses post-processing payloads still receive a DecodedJWT, at the cost of decoding the token twice
+            return parseJWTPayload(clazz, JWT.decode(signedObject));
+        }
+        return jws.readPayload(clazz, jsonCodec);
+    }
+
+    private static boolean overridesParseJWTPayload(Class<?> type) {
+        for (Class<?> c = type; c != SignedDataVerifier.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("parseJWTPayload", Class.class, DecodedJWT.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // Not overridden by this class
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Only called when overridden, since decoding through a {@link DecodedJWT} is slower
+     * @deprecated Signed objects are decoded without a {@link DecodedJWT} unless this method is overridden. Override
+     * {@link #decodeSignedObject(String, Class, ChainResolver)} instead.
+     */
+    @Deprecated
     protected <T extends DecodedSignedData> T parseJWTPayload(Class<T> clazz, DecodedJWT jwt) throws VerificationException {
-        String payload = new String(Base64.getUrlDecoder().decode(jwt.getPayload()));
-        try {
-            return objectMapper.readValue(payload, clazz);
-        } catch (JsonProcessingException e) {
-            throw new VerificationException(VerificationStatus.VERIFICATION_FAILURE, e);
+        return parsePayload(clazz, jwt.getPayload());
+    }
+
+    private <T> T parsePayload(Class<T> clazz, String encodedPayload) throws VerificationException {
+        // Decode into a per-thread buffer and let Jackson detect the UTF-8 encoding, rather than building an intermediate String
+        byte[] encodedBytes = encodedPayload.getBytes(StandardCharsets.US_ASCII);
+        return CompactJWS.readJson(encodedBytes, 0, encodedBytes.length, clazz, jsonCodec);
+    }
+
+    /**
+     * The validation of the certificate chains of signed objects, which a batch or notification shares between its signed
+     * objects so that each distinct chain is validated once. Only created by the verifier.
+     */
+    public static final class ChainResolver {
+        private final ChainResolution resolution;
+
+        private ChainResolver(ChainResolution resolution) {
+            this.resolution = resolution;
+        }
+
+        SignatureVerifier resolve(String[] x5cChain, Date effectiveDate) throws VerificationException {
+            return resolution.resolve(x5cChain, effectiveDate);
         }
     }
+
+    @FunctionalInterface
+    private interface ChainResolution {
+        SignatureVerifier resolve(String[] x5cChain, Date effectiveDate) throws VerificationException;
+    }
+
+    @FunctionalInterface
+    private interface PayloadValidator<T> {
+        void validate(T decodedData) throws VerificationException;
+    }
 }
@@ -0,0 +1,186 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded {@link PublicKeyCache} that evicts the least recently used entry once full and drops entries past their
+ * expiration.
+ * <p>
+ * Entries are spread across independently locked stripes by chain digest, each holding an equal share of the maximum size.
+ */
+public class StripedLruPublicKeyCache implements PublicKeyCache {
+    private static final int DEFAULT_STRIPES = 4;
+
+    private final Stripe[] stripes;
+    private final Clock clock;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * @param maximumSize The maximum number of entries held
+     */
+    public StripedLruPublicKeyCache(int maximumSize) {
+        this(maximumSize, Math.min(DEFAULT_STRIPES, maximumSize));
+    }
+
+    /**
+     * @param maximumSize The maximum number of entries held
+     * @param stripeCount The number of independently locked stripes, at most maximumSize
+     */
+    public StripedLruPublicKeyCache(int maximumSize, int stripeCount) {
+        this(maximumSize, stripeCount, Clock.systemUTC());
+    }
+
+    StripedLruPublicKeyCache(int maximumSize, int stripeCount, Clock clock) {
+        if (stripeCount < 1 || stripeCount > maximumSize) {
+            throw new IllegalArgumentException("stripeCount must be between 1 and maximumSize");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Distribute the maximum size so that the stripes hold exactly maximumSize entries in total
+            int capacity = maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0);
+            stripes[i] = new Stripe(capacity, clock, evictionCount, expirationCount);
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public CachedPublicKey get(ChainDigest chain) {
+        Stripe stripe = stripeFor(chain);
+        CachedPublicKey cachedPublicKey;
+        synchronized (stripe) {
+            cachedPublicKey = stripe.entries.get(chain);
+            if (cachedPublicKey != null && !cachedPublicKey.getExpiresAt().isAfter(clock.instant())) {
+                stripe.entries.remove(chain);
+                expirationCount.increment();
+                cachedPublicKey = null;
+            }
+        }
+        if (cachedPublicKey == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return cachedPublicKey;
+    }
+
+    @Override
+    public void put(ChainDigest chain, CachedPublicKey cachedPublicKey) {
+        Stripe stripe = stripeFor(chain);
+        synchronized (stripe) {
+            if (stripe.entries.size() >= stripe.capacity) {
+                // Prefer dropping expired entries over evicting live ones
+                stripe.removeExpired();
+            }
+            stripe.entries.put(chain, cachedPublicKey);
+        }
+    }
+
+    @Override
+    public void remove(ChainDigest chain) {
+        Stripe stripe = stripeFor(chain);
+        synchronized (stripe) {
+            stripe.entries.remove(chain);
+        }
+    }
+
+    /**
+     * @return The number of entries currently held, including any that have expired but not yet been removed
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of lookups that returned an entry
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of lookups that found no usable entry
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return The number of live entries removed to stay within the maximum size
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return The number of entries removed because they had expired
+     */
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    private Stripe stripeFor(ChainDigest chain) {
+        int hash = chain.hashCode();
+        // Spread the bits, as in HashMap, before selecting a stripe
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Clock clock;
+        private final LongAdder evictionCount;
+        private final LongAdder expirationCount;
+        private final LinkedHashMap<ChainDigest, CachedPublicKey> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChainDigest, CachedPublicKey> eldest) {
+                return removeEldest(eldest);
+            }
+        };
+
+        private Stripe(int capacity, Clock clock, LongAdder evictionCount, LongAdder expirationCount) {
+            this.capacity = capacity;
+            this.clock = clock;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+        }
+
+        private void removeExpired() {
+            Instant now = clock.instant();
+            Iterator<CachedPublicKey> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().getExpiresAt().isAfter(now)) {
+                    iterator.remove();
+                    expirationCount.increment();
+                }
+            }
+        }
+
+        private boolean removeEldest(Map.Entry<ChainDigest, CachedPublicKey> eldest) {
+            if (entries.size() <= capacity) {
+                return false;
+            }
+            if (eldest.getValue().getExpiresAt().isAfter(clock.instant())) {
+                evictionCount.increment();
+            } else {
+                expirationCount.increment();
+            }
+            return true;
+        }
+    }
+}
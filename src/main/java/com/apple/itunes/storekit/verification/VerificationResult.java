@@ -0,0 +1,66 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+/**
+ * The outcome of verifying and decoding a single item of a batch.
+ *
+ * @param <T> The type of the decoded payload
+ */
+public final class VerificationResult<T> {
+    private final T decodedData;
+    private final VerificationException exception;
+
+    private VerificationResult(T decodedData, VerificationException exception) {
+        this.decodedData = decodedData;
+        this.exception = exception;
+    }
+
+    static <T> VerificationResult<T> success(T decodedData) {
+        return new VerificationResult<>(decodedData, null);
+    }
+
+    static <T> VerificationResult<T> failure(VerificationException exception) {
+        return new VerificationResult<>(null, exception);
+    }
+
+    /**
+     * @return Whether the item was successfully verified and decoded
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return The decoded payload, or null if verification failed
+     */
+    public T getDecodedData() {
+        return decodedData;
+    }
+
+    /**
+     * @return The reason verification failed, or null if verification succeeded
+     */
+    public VerificationException getException() {
+        return exception;
+    }
+
+    /**
+     * @return The decoded payload
+     * @throws VerificationException Thrown if the item could not be verified
+     */
+    public T getOrThrow() throws VerificationException {
+        if (exception != null) {
+            throw exception;
+        }
+        return decodedData;
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationResult{" +
+                "decodedData=" + decodedData +
+                ", exception=" + exception +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class AdaptiveRateLimiterTest {
+
+    private static final String SUBSCRIPTIONS = "/inApps/v1/subscriptions/{transactionId}";
+    private static final String HISTORY = "/inApps/v2/history/{transactionId}";
+
+    @Test
+    public void testBurstThenFailFast() {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(5).build();
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, limiter.reserve(SUBSCRIPTIONS));
+        }
+        Assertions.assertTrue(limiter.reserve(SUBSCRIPTIONS) < 0);
+        Assertions.assertTrue(limiter.nanosUntilAvailable(SUBSCRIPTIONS) > 0);
+    }
+
+    @Test
+    public void testEndpointsHaveSeparateBuckets() {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(1).endpointRate(HISTORY, 3).build();
+        Assertions.assertEquals(0, limiter.reserve(SUBSCRIPTIONS));
+        Assertions.assertTrue(limiter.reserve(SUBSCRIPTIONS) < 0);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.reserve(HISTORY));
+        }
+        Assertions.assertTrue(limiter.reserve(HISTORY) < 0);
+    }
+
+    @Test
+    public void testQueuedCallsAreSpacedByRate() {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(10).maxWait(Duration.ofSeconds(1)).build();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, limiter.reserve(SUBSCRIPTIONS));
+        }
+        long first = limiter.reserve(SUBSCRIPTIONS);
+        long second = limiter.reserve(SUBSCRIPTIONS);
+        Assertions.assertTrue(first > 0 && first <= Duration.ofMillis(100).toNanos());
+        Assertions.assertTrue(second > first && second <= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    public void testMaxWaitViewSharesBuckets() {
+        AdaptiveRateLimiter interactive = AdaptiveRateLimiter.builder().defaultRate(2).build();
+        AdaptiveRateLimiter bulk = interactive.withMaxWait(Duration.ofSeconds(10));
+        Assertions.assertEquals(0, bulk.reserve(SUBSCRIPTIONS));
+        Assertions.assertEquals(0, bulk.reserve(SUBSCRIPTIONS));
+        Assertions.assertTrue(bulk.reserve(SUBSCRIPTIONS) > 0);
+        Assertions.assertTrue(interactive.reserve(SUBSCRIPTIONS) < 0);
+    }
+
+    @Test
+    public void testRateAdaptsToResponses() {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder()
+                .defaultRate(8)
+                .minimumRate(1)
+                .adaptation(0.5, 0.25)
+                .build();
+        Assertions.assertEquals(8, limiter.getCurrentRate(SUBSCRIPTIONS));
+        limiter.onResponse(SUBSCRIPTIONS, 429);
+        Assertions.assertEquals(4, limiter.getCurrentRate(SUBSCRIPTIONS));
+        limiter.onResponse(SUBSCRIPTIONS, 429);
+        limiter.onResponse(SUBSCRIPTIONS, 429);
+        limiter.onResponse(SUBSCRIPTIONS, 429);
+        Assertions.assertEquals(1, limiter.getCurrentRate(SUBSCRIPTIONS));
+        limiter.onResponse(SUBSCRIPTIONS, 500);
+        Assertions.assertEquals(1, limiter.getCurrentRate(SUBSCRIPTIONS));
+        limiter.onResponse(SUBSCRIPTIONS, 200);
+        Assertions.assertEquals(3, limiter.getCurrentRate(SUBSCRIPTIONS));
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(SUBSCRIPTIONS, 200);
+        }
+        Assertions.assertEquals(8, limiter.getCurrentRate(SUBSCRIPTIONS));
+        Assertions.assertEquals(8, limiter.getCurrentRate(HISTORY));
+    }
+
+    @Test
+    public void testRateLimitedResponseDropsBurst() {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(5).build();
+        Assertions.assertEquals(0, limiter.reserve(SUBSCRIPTIONS));
+        limiter.onResponse(SUBSCRIPTIONS, 429);
+        Assertions.assertTrue(limiter.reserve(SUBSCRIPTIONS) < 0);
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptiveRateLimiter.builder().defaultRate(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptiveRateLimiter.builder().adaptation(1, 0.1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptiveRateLimiter.builder().burst(Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptiveRateLimiter.builder().maxWait(Duration.ofMillis(-1)));
+    }
+}
@@ -2,6 +2,7 @@
 
 package com.apple.itunes.storekit.client;
 
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
 import com.apple.itunes.storekit.model.AccountTenure;
 import com.apple.itunes.storekit.model.AppTransactionInfoResponse;
 import com.apple.itunes.storekit.model.BulletPoint;
@@ -69,6 +70,7 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
@@ -80,9 +82,12 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public class AppStoreServerAPIClientTest {
@@ -411,6 +416,71 @@ public class AppStoreServerAPIClientTest {
         Assertions.assertEquals(List.of("signed_transaction_value", "signed_transaction_value2"), historyResponse.getSignedTransactions());
     }
 
+    @Test
+    public void testGetTransactionHistoryWithConsumer() throws APIException, IOException {
+        String body = "{\"revision\": \"revision_output\", \"signedTransactions\": [\"signed_transaction_value\", \"signed_transaction_value2\"], \"hasMore\": true, \"newField\": [1, 2]}";
+        AppStoreServerAPIClient client = getAppStoreServerAPIClient(body, request -> {
+            Assertions.assertEquals("/inApps/v2/history/1234", request.url().encodedPath());
+            Assertions.assertEquals("revision_input", request.url().queryParameter("revision"));
+        });
+        List<String> signedTransactions = new ArrayList<>();
+
+        HistoryResponse historyResponse = client.getTransactionHistory("1234", "revision_input", new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2, signedTransactions::add);
+
+        Assertions.assertEquals(List.of("signed_transaction_value", "signed_transaction_value2"), signedTransactions);
+        Assertions.assertNull(historyResponse.getSignedTransactions());
+        Assertions.assertEquals("revision_output", historyResponse.getRevision());
+        Assertions.assertTrue(historyResponse.getHasMore());
+        Assertions.assertEquals(Map.of("newField", List.of(1, 2)), historyResponse.getUnknownFields());
+    }
+
+    @Test
+    public void testGetNotificationHistoryWithConsumer() throws APIException, IOException {
+        AppStoreServerAPIClient client = getClientWithBody("models/getNotificationHistoryResponse.json", request -> {
+            Assertions.assertEquals("/inApps/v1/notifications/history", request.url().encodedPath());
+        });
+        List<NotificationHistoryResponseItem> notifications = new ArrayList<>();
+
+        NotificationHistoryResponse notificationHistoryResponse = client.getNotificationHistory(null, new NotificationHistoryRequest(), notifications::add);
+
+        Assertions.assertNull(notificationHistoryResponse.getNotificationHistory());
+        Assertions.assertEquals("57715481-805a-4283-8499-1c19b5d6b20a", notificationHistoryResponse.getPaginationToken());
+        Assertions.assertTrue(notificationHistoryResponse.getHasMore());
+        Assertions.assertEquals(2, notifications.size());
+        Assertions.assertEquals("signed_payload_one", notifications.get(0).getSignedPayload());
+        Assertions.assertEquals(SendAttemptResult.SUCCESS, notifications.get(0).getSendAttempts().get(1).getSendAttemptResult());
+        Assertions.assertEquals("signed_payload_two", notifications.get(1).getSignedPayload());
+    }
+
+    @Test
+    public void testGetTransactionHistoryWithConsumerRejectsInvalidBody() throws IOException {
+        AppStoreServerAPIClient client = getAppStoreServerAPIClient("[\"signed_transaction_value\"]", request -> {});
+
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionHistory("1234", null, new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2, signedTransaction -> {}));
+        Assertions.assertEquals(200, exception.getHttpStatusCode());
+    }
+
+    @Test
+    public void testResponseWithNonUtf8Charset() throws APIException, IOException {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected Response getResponse(Request request) {
+                    return new Response.Builder()
+                            .body(ResponseBody.create("{\"signedTransactionInfo\": \"sign\u00e9\"}", MediaType.parse("application/json; charset=iso-8859-1")))
+                            .code(200)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("")
+                            .build();
+                }
+            };
+
+            Assertions.assertEquals("sign\u00e9", client.getTransactionInfo("1234").getSignedTransactionInfo());
+        }
+    }
+
     @Test
     public void testGetTransactionInfo() throws APIException, IOException {
         AppStoreServerAPIClient client = getClientWithBody("models/transactionInfoResponse.json", request -> {
@@ -877,6 +947,252 @@ public class AppStoreServerAPIClientTest {
         client.getTransactionInfo("1234");
     }
 
+    @Test
+    public void testMetricsRecorder() throws IOException {
+        List<String> calls = new ArrayList<>();
+        List<Long> tokenGenerations = new ArrayList<>();
+        MetricsRecorder recorder = new MetricsRecorder() {
+            @Override
+            public void recordApiCall(String endpoint, String method, int statusCode, long requestBytes, long durationNanos) {
+                Assertions.assertTrue(durationNanos >= 0);
+                calls.add(method + " " + endpoint + " " + statusCode + " " + requestBytes);
+            }
+
+            @Override
+            public void recordTokenGeneration(long durationNanos) {
+                tokenGenerations.add(durationNanos);
+            }
+        };
+        AppStoreServerAPIClient client = getAppStoreServerAPIClient(TestingUtility.readFile("models/apiException.json"), request -> {}, 500);
+        client.setMetricsRecorder(recorder);
+
+        Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+        Assertions.assertThrows(APIException.class, () -> client.getAllSubscriptionStatuses("4321", null));
+        Assertions.assertThrows(APIException.class, () -> client.requestTestNotification());
+
+        Assertions.assertEquals(List.of("GET /inApps/v1/transactions/{transactionId} 500 0",
+                "GET /inApps/v1/subscriptions/{transactionId} 500 0",
+                "POST /inApps/v1/notifications/test 500 0"), calls);
+        Assertions.assertEquals(3, tokenGenerations.size());
+    }
+
+    @Test
+    public void testMetricsRecorderRequestFailure() throws IOException {
+        List<String> failures = new ArrayList<>();
+        AppStoreServerAPIClient client = getAppStoreServerAPIClient("", request -> {
+            throw new RuntimeException("connection reset");
+        });
+        client.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordApiCallFailure(String endpoint, String method, Throwable cause, long durationNanos) {
+                failures.add(method + " " + endpoint + " " + cause.getMessage());
+            }
+        });
+
+        Assertions.assertThrows(RuntimeException.class, () -> client.finishTransaction("1234"));
+
+        Assertions.assertEquals(List.of("POST /inApps/v1/transactions/{transactionId}/finish connection reset"), failures);
+    }
+
+    @Test
+    public void testRetryAfterHeader() throws IOException {
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, "30", new AtomicInteger(), Integer.MAX_VALUE, null);
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, exception.getApiError());
+        Assertions.assertEquals(Duration.ofSeconds(30), exception.getRetryAfter());
+    }
+
+    @Test
+    public void testRetryOnRetryableError() throws IOException, APIException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, "0", requestCount, 2, TestingUtility.readFile("models/transactionInfoResponse.json"));
+        List<Integer> retries = new ArrayList<>();
+        client.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordRetry(String endpoint, String method, int attempt, long backoffNanos) {
+                retries.add(attempt);
+            }
+        });
+        client.setRetryPolicy(RetryPolicy.builder().maxAttempts(3).backoff(Duration.ZERO, Duration.ofSeconds(1)).build());
+
+        TransactionInfoResponse response = client.getTransactionInfo("1234");
+
+        Assertions.assertEquals("signed_transaction_info_value", response.getSignedTransactionInfo());
+        Assertions.assertEquals(3, requestCount.get());
+        Assertions.assertEquals(List.of(1, 2), retries);
+    }
+
+    @Test
+    public void testRetryStopsAfterMaxAttempts() throws IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, null, requestCount, Integer.MAX_VALUE, null);
+        client.setRetryPolicy(RetryPolicy.builder().maxAttempts(4).backoff(Duration.ZERO, Duration.ofMillis(1)).build());
+
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, exception.getApiError());
+        Assertions.assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void testRetryBudgetLimitsRetries() throws IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, null, requestCount, Integer.MAX_VALUE, null);
+        AtomicInteger exhausted = new AtomicInteger();
+        client.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordRetryBudgetExhausted(String endpoint, String method) {
+                exhausted.incrementAndGet();
+            }
+        });
+        client.setRetryPolicy(RetryPolicy.builder().maxAttempts(3).backoff(Duration.ZERO, Duration.ofMillis(1)).globalBudget(0, 3).build());
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+        }
+
+        // Three calls, sharing three retries
+        Assertions.assertEquals(6, requestCount.get());
+        Assertions.assertEquals(2, exhausted.get());
+    }
+
+    @Test
+    public void testNonRetryableErrorIsNotRetried() throws IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiException.json"), 500, null, requestCount, Integer.MAX_VALUE, null);
+        client.setRetryPolicy(RetryPolicy.builder().backoff(Duration.ZERO, Duration.ofMillis(1)).build());
+
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+
+        Assertions.assertEquals(APIError.GENERAL_INTERNAL, exception.getApiError());
+        Assertions.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testRateLimiterFailsFast() throws IOException, APIException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(null, 0, null, requestCount, 0, TestingUtility.readFile("models/transactionInfoResponse.json"));
+        AtomicInteger rejections = new AtomicInteger();
+        client.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordRateLimiterRejection(String endpoint, String method) {
+                rejections.incrementAndGet();
+            }
+        });
+        client.setRateLimiter(AdaptiveRateLimiter.builder().defaultRate(1).build());
+
+        client.getTransactionInfo("1234");
+        RateLimitedException exception = Assertions.assertThrows(RateLimitedException.class, () -> client.getTransactionInfo("5678"));
+
+        Assertions.assertEquals("/inApps/v1/transactions/{transactionId}", exception.getEndpoint());
+        Assertions.assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        Assertions.assertEquals(1, requestCount.get());
+        Assertions.assertEquals(1, rejections.get());
+        // Other endpoints are not affected
+        client.getTransactionHistory("1234", null, new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2);
+    }
+
+    @Test
+    public void testRateLimiterRejectingRetryKeepsFailure() throws IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, null, requestCount, 1, TestingUtility.readFile("models/transactionInfoResponse.json"));
+        client.setRateLimiter(AdaptiveRateLimiter.builder().defaultRate(2).adaptation(0.5, 0.5).build());
+        client.setRetryPolicy(RetryPolicy.builder().backoff(Duration.ZERO, Duration.ofMillis(1)).build());
+
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+
+        // The rate limited attempt dropped the burst, so the limiter rejected the retry
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, exception.getApiError());
+        Assertions.assertInstanceOf(RateLimitedException.class, exception.getSuppressed()[0]);
+        Assertions.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testRateLimiterQueuesAndAdapts() throws IOException, APIException {
+        AtomicInteger requestCount = new AtomicInteger();
+        AppStoreServerAPIClient client = getClientWithResponses(TestingUtility.readFile("models/apiTooManyRequestsException.json"), 429, null, requestCount, 1, TestingUtility.readFile("models/transactionInfoResponse.json"));
+        List<Long> waits = new ArrayList<>();
+        client.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordRateLimiterWait(String endpoint, String method, long waitNanos) {
+                waits.add(waitNanos);
+            }
+        });
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(2).adaptation(0.5, 0.5).maxWait(Duration.ofSeconds(2)).build();
+        client.setRateLimiter(limiter);
+        client.setRetryPolicy(RetryPolicy.builder().backoff(Duration.ZERO, Duration.ofSeconds(1)).build());
+
+        client.getTransactionInfo("1234");
+
+        // The rate limited attempt halved the rate and dropped the burst, so the retry waited, and its success restored the rate
+        Assertions.assertEquals(2, requestCount.get());
+        Assertions.assertEquals(1, waits.size());
+        Assertions.assertTrue(waits.get(0) > 0 && waits.get(0) <= Duration.ofSeconds(1).toNanos());
+        Assertions.assertEquals(2, limiter.getCurrentRate("/inApps/v1/transactions/{transactionId}"));
+    }
+
+    @Test
+    public void testBuilderDefaults() {
+        OkHttpClient httpClient = AppStoreServerAPIClient.builder().buildHttpClient();
+        Assertions.assertEquals(64, httpClient.dispatcher().getMaxRequests());
+        Assertions.assertEquals(64, httpClient.dispatcher().getMaxRequestsPerHost());
+        Assertions.assertEquals(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1), httpClient.protocols());
+        Assertions.assertEquals(okhttp3.Authenticator.JAVA_NET_AUTHENTICATOR, httpClient.proxyAuthenticator());
+    }
+
+    @Test
+    public void testBuilderConfiguresHttpClient() {
+        OkHttpClient httpClient = AppStoreServerAPIClient.builder()
+                .connectionPool(20, Duration.ofSeconds(30))
+                .maxRequests(128, 100)
+                .http2(false)
+                .connectTimeout(Duration.ofSeconds(2))
+                .readTimeout(Duration.ofSeconds(5))
+                .callTimeout(Duration.ofSeconds(10))
+                .buildHttpClient();
+        Assertions.assertEquals(128, httpClient.dispatcher().getMaxRequests());
+        Assertions.assertEquals(100, httpClient.dispatcher().getMaxRequestsPerHost());
+        Assertions.assertEquals(List.of(Protocol.HTTP_1_1), httpClient.protocols());
+        Assertions.assertEquals(2000, httpClient.connectTimeoutMillis());
+        Assertions.assertEquals(5000, httpClient.readTimeoutMillis());
+        Assertions.assertEquals(10000, httpClient.callTimeoutMillis());
+    }
+
+    @Test
+    public void testBuilderSharesHttpClient() throws IOException {
+        OkHttpClient shared = new OkHttpClient.Builder().build();
+        OkHttpClient first = AppStoreServerAPIClient.builder().httpClient(shared).buildHttpClient();
+        OkHttpClient second = AppStoreServerAPIClient.builder().httpClient(shared).readTimeout(Duration.ofSeconds(3)).buildHttpClient();
+        Assertions.assertSame(shared.connectionPool(), first.connectionPool());
+        Assertions.assertSame(shared.dispatcher(), first.dispatcher());
+        Assertions.assertSame(shared.connectionPool(), second.connectionPool());
+        Assertions.assertSame(shared.dispatcher(), second.dispatcher());
+        Assertions.assertEquals(3000, second.readTimeoutMillis());
+
+        OkHttpClient ownDispatcher = AppStoreServerAPIClient.builder().httpClient(shared).maxRequests(10, 10).buildHttpClient();
+        Assertions.assertSame(shared.connectionPool(), ownDispatcher.connectionPool());
+        Assertions.assertNotSame(shared.dispatcher(), ownDispatcher.dispatcher());
+
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = AppStoreServerAPIClient.builder()
+                    .credentials(new String(key.readAllBytes()), "keyId", "issuerId", "com.example")
+                    .environment(Environment.LOCAL_TESTING)
+                    .httpClient(shared)
+                    .retryPolicy(RetryPolicy.builder().build())
+                    .build();
+            Assertions.assertNotNull(client);
+        }
+    }
+
+    @Test
+    public void testBuilderValidation() {
+        Assertions.assertThrows(IllegalStateException.class, () -> AppStoreServerAPIClient.builder().environment(Environment.SANDBOX).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AppStoreServerAPIClient.builder().maxRequests(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AppStoreServerAPIClient.builder().connectionPool(5, Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AppStoreServerAPIClient.builder().readTimeout(Duration.ofSeconds(-1)));
+    }
+
     @Test
     public void testAPIError() throws IOException {
         String body = TestingUtility.readFile("models/apiException.json");
@@ -1288,6 +1604,28 @@ public class AppStoreServerAPIClientTest {
         return getAppStoreServerAPIClient(body, requestVerifier, 200);
     }
 
+    private AppStoreServerAPIClient getClientWithResponses(String failureBody, int failureStatusCode, String retryAfter, AtomicInteger requestCount, int failureCount, String successBody) throws IOException {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            return new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected Response getResponse(Request request) {
+                    boolean failure = requestCount.incrementAndGet() <= failureCount;
+                    Response.Builder builder = new Response.Builder()
+                            .body(ResponseBody.create(failure ? failureBody : successBody, MediaType.parse("application/json")))
+                            .code(failure ? failureStatusCode : 200)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("");
+                    if (failure && retryAfter != null) {
+                        builder.header("Retry-After", retryAfter);
+                    }
+                    return builder.build();
+                }
+            };
+        }
+    }
+
     private AppStoreServerAPIClient getAppStoreServerAPIClient(String body, Consumer<Request> requestVerifier, int statusCode) throws IOException {
         try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
             Assertions.assertNotNull(key);
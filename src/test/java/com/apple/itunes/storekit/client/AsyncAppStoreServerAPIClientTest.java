@@ -0,0 +1,285 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.HistoryResponse;
+import com.apple.itunes.storekit.model.Status;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.model.TransactionInfoResponse;
+import com.apple.itunes.storekit.util.TestingUtility;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class AsyncAppStoreServerAPIClientTest {
+
+    @Test
+    public void testGetTransactionInfo() throws Exception {
+        AsyncAppStoreServerAPIClient client = getClientWithBody("models/transactionInfoResponse.json", request -> {
+            Assertions.assertEquals("GET", request.method());
+            Assertions.assertEquals("/inApps/v1/transactions/1234", request.url().encodedPath());
+            Assertions.assertNull(request.body());
+        });
+
+        TransactionInfoResponse transactionInfoResponse = client.getTransactionInfo("1234").get();
+
+        Assertions.assertNotNull(transactionInfoResponse);
+        Assertions.assertEquals("signed_transaction_info_value", transactionInfoResponse.getSignedTransactionInfo());
+    }
+
+    @Test
+    public void testGetAllSubscriptionStatuses() throws Exception {
+        AsyncAppStoreServerAPIClient client = getClientWithBody("models/getAllSubscriptionStatusesResponse.json", request -> {
+            Assertions.assertEquals("GET", request.method());
+            Assertions.assertEquals("/inApps/v1/subscriptions/4321", request.url().encodedPath());
+            Assertions.assertEquals(List.of("2", "1"), request.url().queryParameterValues("status"));
+            Assertions.assertNull(request.body());
+        });
+
+        StatusResponse statusResponse = client.getAllSubscriptionStatuses("4321", new Status[] {Status.EXPIRED, Status.ACTIVE}).get();
+
+        Assertions.assertNotNull(statusResponse);
+        Assertions.assertEquals(Environment.LOCAL_TESTING, statusResponse.getEnvironment());
+        Assertions.assertEquals("com.example", statusResponse.getBundleId());
+    }
+
+    @Test
+    public void testGetTransactionHistory() throws Exception {
+        AsyncAppStoreServerAPIClient client = getClientWithBody("models/transactionHistoryResponse.json", request -> {
+            Assertions.assertEquals("GET", request.method());
+            Assertions.assertEquals("/inApps/v2/history/1234", request.url().encodedPath());
+            Assertions.assertEquals(List.of("revision_input"), request.url().queryParameterValues("revision"));
+            Assertions.assertEquals(List.of("true"), request.url().queryParameterValues("revoked"));
+        });
+
+        HistoryResponse historyResponse = client.getTransactionHistory("1234", "revision_input", new TransactionHistoryRequest().revoked(true), GetTransactionHistoryVersion.V2).get();
+
+        Assertions.assertNotNull(historyResponse);
+        Assertions.assertEquals("revision_output", historyResponse.getRevision());
+    }
+
+    @Test
+    public void testGetTransactionHistoryWithConsumer() throws Exception {
+        AsyncAppStoreServerAPIClient client = getClientWithBody("models/transactionHistoryResponse.json", request -> {
+            Assertions.assertEquals("/inApps/v2/history/1234", request.url().encodedPath());
+        });
+        List<String> signedTransactions = new ArrayList<>();
+
+        HistoryResponse historyResponse = client.getTransactionHistory("1234", null, new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2, signedTransactions::add).get();
+
+        Assertions.assertEquals("revision_output", historyResponse.getRevision());
+        Assertions.assertNull(historyResponse.getSignedTransactions());
+        Assertions.assertEquals(List.of("signed_transaction_value", "signed_transaction_value2"), signedTransactions);
+    }
+
+    @Test
+    public void testFinishTransaction() throws Exception {
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient("", request -> {
+            Assertions.assertEquals("POST", request.method());
+            Assertions.assertEquals("/inApps/v1/transactions/1234/finish", request.url().encodedPath());
+        }, 200);
+
+        Assertions.assertNull(client.finishTransaction("1234").get());
+    }
+
+    @Test
+    public void testAPIError() throws IOException {
+        String body = TestingUtility.readFile("models/apiException.json");
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient(body, request -> {}, 500);
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> client.getTransactionInfo("1234").get());
+        APIException apiException = Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        Assertions.assertEquals(500, apiException.getHttpStatusCode());
+        Assertions.assertEquals(APIError.GENERAL_INTERNAL, apiException.getApiError());
+    }
+
+    @Test
+    public void testTransportFailure() throws IOException {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected CompletableFuture<Response> getResponseAsync(Request request) {
+                    return CompletableFuture.failedFuture(new IOException("connection reset"));
+                }
+            };
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> new AsyncAppStoreServerAPIClient(client).getTransactionInfo("1234").get());
+            Assertions.assertInstanceOf(IOException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    public void testRetryOnRetryableError() throws Exception {
+        String failureBody = TestingUtility.readFile("models/apiTooManyRequestsException.json");
+        String successBody = TestingUtility.readFile("models/transactionInfoResponse.json");
+        AtomicInteger requestCount = new AtomicInteger();
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected CompletableFuture<Response> getResponseAsync(Request request) {
+                    boolean failure = requestCount.incrementAndGet() == 1;
+                    return CompletableFuture.supplyAsync(() -> new Response.Builder()
+                            .body(ResponseBody.create(failure ? failureBody : successBody, MediaType.parse("application/json")))
+                            .code(failure ? 429 : 200)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("")
+                            .build());
+                }
+            };
+            client.setRetryPolicy(RetryPolicy.builder().backoff(Duration.ofMillis(1), Duration.ofMillis(10)).build());
+
+            TransactionInfoResponse response = new AsyncAppStoreServerAPIClient(client).getTransactionInfo("1234").get();
+
+            Assertions.assertEquals("signed_transaction_info_value", response.getSignedTransactionInfo());
+            Assertions.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetriesExhausted() throws Exception {
+        String failureBody = TestingUtility.readFile("models/apiTooManyRequestsException.json");
+        AtomicInteger requestCount = new AtomicInteger();
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient(failureBody, request -> requestCount.incrementAndGet(), 429, RetryPolicy.builder().maxAttempts(2).backoff(Duration.ZERO, Duration.ofMillis(1)).build());
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> client.getTransactionInfo("1234").get());
+
+        APIException apiException = Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, apiException.getApiError());
+        Assertions.assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    public void testRateLimiterQueues() throws Exception {
+        String body = TestingUtility.readFile("models/transactionInfoResponse.json");
+        AtomicInteger requestCount = new AtomicInteger();
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(10).maxWait(Duration.ofSeconds(1)).build();
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient(body, request -> requestCount.incrementAndGet(), 200, null, limiter);
+
+        List<CompletableFuture<TransactionInfoResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            futures.add(client.getTransactionInfo("1234"));
+        }
+        for (CompletableFuture<TransactionInfoResponse> future : futures) {
+            Assertions.assertEquals("signed_transaction_info_value", future.get().getSignedTransactionInfo());
+        }
+        Assertions.assertEquals(12, requestCount.get());
+    }
+
+    @Test
+    public void testRateLimiterRejectingRetryKeepsFailure() throws Exception {
+        String failureBody = TestingUtility.readFile("models/apiTooManyRequestsException.json");
+        AtomicInteger requestCount = new AtomicInteger();
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.builder().defaultRate(2).adaptation(0.5, 0.5).build();
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient(failureBody, request -> requestCount.incrementAndGet(), 429, RetryPolicy.builder().backoff(Duration.ZERO, Duration.ofMillis(1)).build(), limiter);
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> client.getTransactionInfo("1234").get());
+
+        APIException apiException = Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, apiException.getApiError());
+        Assertions.assertInstanceOf(RateLimitedException.class, apiException.getSuppressed()[0]);
+        Assertions.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testRateLimiterFailsFast() throws Exception {
+        String body = TestingUtility.readFile("models/transactionInfoResponse.json");
+        AsyncAppStoreServerAPIClient client = getAsyncAppStoreServerAPIClient(body, request -> {}, 200, null, AdaptiveRateLimiter.builder().defaultRate(1).build());
+
+        client.getTransactionInfo("1234").get();
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> client.getTransactionInfo("1234").get());
+
+        Assertions.assertInstanceOf(RateLimitedException.class, exception.getCause());
+    }
+
+    @Test
+    public void testCancellingCallCancelsHttpCall() throws Exception {
+        CompletableFuture<Call> inFlightCall = new CompletableFuture<>();
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    inFlightCall.complete(chain.call());
+                    // Stands in for a server that does not answer
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                    while (!chain.call().isCanceled() && System.nanoTime() < deadline) {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                    }
+                    throw new IOException("Canceled");
+                })
+                .build();
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            BearerTokenAuthenticator authenticator = new BearerTokenAuthenticator(new String(key.readAllBytes()), "keyId", "issuerId", "com.example");
+            AsyncAppStoreServerAPIClient client = new AsyncAppStoreServerAPIClient(new AppStoreServerAPIClient(authenticator, Environment.LOCAL_TESTING, httpClient));
+
+            CompletableFuture<TransactionInfoResponse> future = client.getTransactionInfo("1234");
+            Call call = inFlightCall.get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(future.cancel(true));
+
+            Assertions.assertTrue(call.isCanceled());
+        }
+    }
+
+    private AsyncAppStoreServerAPIClient getClientWithBody(String path, Consumer<Request> requestVerifier) throws IOException {
+        String body = TestingUtility.readFile(path);
+        return getAsyncAppStoreServerAPIClient(body, requestVerifier, 200);
+    }
+
+    private AsyncAppStoreServerAPIClient getAsyncAppStoreServerAPIClient(String body, Consumer<Request> requestVerifier, int statusCode) throws IOException {
+        return getAsyncAppStoreServerAPIClient(body, requestVerifier, statusCode, null);
+    }
+
+    private AsyncAppStoreServerAPIClient getAsyncAppStoreServerAPIClient(String body, Consumer<Request> requestVerifier, int statusCode, RetryPolicy retryPolicy) throws IOException {
+        return getAsyncAppStoreServerAPIClient(body, requestVerifier, statusCode, retryPolicy, null);
+    }
+
+    private AsyncAppStoreServerAPIClient getAsyncAppStoreServerAPIClient(String body, Consumer<Request> requestVerifier, int statusCode, RetryPolicy retryPolicy, AdaptiveRateLimiter rateLimiter) throws IOException {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected Response getResponse(Request request) {
+                    throw new AssertionError("The asynchronous client must not block on a call");
+                }
+
+                @Override
+                protected CompletableFuture<Response> getResponseAsync(Request request) {
+                    requestVerifier.accept(request);
+                    return CompletableFuture.supplyAsync(() -> new Response.Builder()
+                            .body(ResponseBody.create(body, MediaType.parse("application/json")))
+                            .code(statusCode)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("")
+                            .build());
+                }
+            };
+            client.setRetryPolicy(retryPolicy);
+            client.setRateLimiter(rateLimiter);
+            return new AsyncAppStoreServerAPIClient(client);
+        }
+    }
+}
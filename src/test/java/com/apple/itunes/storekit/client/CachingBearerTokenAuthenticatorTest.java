@@ -0,0 +1,102 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachingBearerTokenAuthenticatorTest {
+
+    private static final long CLOCK_DATE = 41231L;
+
+    private Clock clock;
+    private AtomicInteger generatedTokens;
+    private List<Runnable> pendingRefreshes;
+    private CachingBearerTokenAuthenticator authenticator;
+
+    @BeforeEach
+    public void setup() {
+        clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE));
+        generatedTokens = new AtomicInteger();
+        pendingRefreshes = new ArrayList<>();
+        authenticator = new CachingBearerTokenAuthenticator(() -> "token" + generatedTokens.incrementAndGet(), Duration.ofMinutes(5), Duration.ofMinutes(1), pendingRefreshes::add, clock);
+    }
+
+    @Test
+    public void testTokenIsReused() {
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 60_000)); // 1 minute
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        Assertions.assertEquals(1, generatedTokens.get());
+        Assertions.assertEquals(1, authenticator.getHitCount());
+        Assertions.assertEquals(1, authenticator.getMissCount());
+        Assertions.assertEquals(1, authenticator.getRefreshCount());
+        Assertions.assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    public void testTokenIsRefreshedInBackground() {
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        // Move into the refresh window, the current token is returned while a single refresh is scheduled
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 250_000)); // 4 minutes 10 seconds
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        Assertions.assertEquals(1, pendingRefreshes.size());
+        pendingRefreshes.get(0).run();
+        Assertions.assertEquals("token2", authenticator.generateToken());
+        Assertions.assertEquals(2, authenticator.getRefreshCount());
+        Assertions.assertEquals(1, authenticator.getMissCount());
+    }
+
+    @Test
+    public void testExpiredTokenIsRegenerated() {
+        Assertions.assertEquals("token1", authenticator.generateToken());
+        // Move past the usable lifetime of the token
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 295_000)); // 4 minutes 55 seconds
+        Assertions.assertEquals("token2", authenticator.generateToken());
+        Assertions.assertEquals(2, authenticator.getMissCount());
+        Assertions.assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    public void testFailedBackgroundRefreshKeepsCurrentToken() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingBearerTokenAuthenticator failingAuthenticator = new CachingBearerTokenAuthenticator(() -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new IllegalStateException();
+            }
+            return "token";
+        }, Duration.ofMinutes(5), Duration.ofMinutes(1), Runnable::run, clock);
+        Assertions.assertEquals("token", failingAuthenticator.generateToken());
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 250_000)); // 4 minutes 10 seconds
+        Assertions.assertEquals("token", failingAuthenticator.generateToken());
+        Assertions.assertEquals(1, failingAuthenticator.getRefreshFailureCount());
+    }
+
+    @Test
+    public void testInvalidRefreshMargin() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CachingBearerTokenAuthenticator(() -> "token", Duration.ofMinutes(5), Duration.ofMinutes(5), Runnable::run, clock));
+    }
+
+    @Test
+    public void testCachingRealToken() throws Exception {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            var tokenGenerator = new CachingBearerTokenAuthenticator(new String(key.readAllBytes()), "keyId", "issuerId", "bundleId");
+            String token = tokenGenerator.generateToken();
+            Assertions.assertNotNull(token);
+            Assertions.assertSame(token, tokenGenerator.generateToken());
+        }
+    }
+}
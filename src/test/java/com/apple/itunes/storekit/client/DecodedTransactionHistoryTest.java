@@ -0,0 +1,222 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.util.SignedDataCreator;
+import com.apple.itunes.storekit.util.TestingUtility;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DecodedTransactionHistoryTest {
+
+    private String signedTransaction;
+    private List<String> requestedRevisions;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        signedTransaction = SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json");
+        requestedRevisions = new ArrayList<>();
+    }
+
+    @Test
+    public void testIteratingAllPages() throws IOException {
+        DecodedTransactionHistory history = getHistory(200);
+
+        List<JWSTransactionDecodedPayload> transactions = history.stream().collect(Collectors.toList());
+
+        Assertions.assertEquals(5, transactions.size());
+        Assertions.assertEquals("23456", transactions.get(0).getTransactionId());
+        Assertions.assertEquals(List.of("first", "revision_1", "revision_2"), requestedRevisions);
+    }
+
+    @Test
+    public void testLookAheadIsBounded() throws IOException {
+        DecodedTransactionHistory history = getHistory(200);
+        Iterator<JWSTransactionDecodedPayload> iterator = history.iterator();
+        Assertions.assertTrue(requestedRevisions.isEmpty());
+
+        iterator.next();
+        // The first page is being consumed and a single page has been requested ahead of it
+        Assertions.assertEquals(List.of("first", "revision_1"), requestedRevisions);
+        iterator.next();
+        Assertions.assertEquals(List.of("first", "revision_1"), requestedRevisions);
+        iterator.next();
+        Assertions.assertEquals(List.of("first", "revision_1", "revision_2"), requestedRevisions);
+    }
+
+    @Test
+    public void testAPIErrorIsReported() throws IOException {
+        DecodedTransactionHistory history = getHistory(500);
+        TransactionHistoryException exception = Assertions.assertThrows(TransactionHistoryException.class, () -> history.iterator().hasNext());
+        APIException apiException = Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        Assertions.assertEquals(500, apiException.getHttpStatusCode());
+    }
+
+    @Test
+    public void testPublisherHonorsDemand() throws Exception {
+        DecodedTransactionHistory history = getHistory(200);
+        List<JWSTransactionDecodedPayload> received = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        history.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(JWSTransactionDecodedPayload item) {
+                synchronized (received) {
+                    received.add(item);
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        Assertions.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        synchronized (received) {
+            Assertions.assertEquals(5, received.size());
+        }
+    }
+
+    @Test
+    public void testClosingStreamCancelsRequests() throws IOException {
+        List<CompletableFuture<Response>> heldResponses = Collections.synchronizedList(new ArrayList<>());
+        DecodedTransactionHistory history = getHistory(200, heldResponses);
+
+        try (Stream<JWSTransactionDecodedPayload> stream = history.stream()) {
+            Assertions.assertEquals(1, stream.limit(1).count());
+        }
+
+        // The page requested ahead was cancelled, and no further page was requested
+        Assertions.assertEquals(List.of("first", "revision_1"), requestedRevisions);
+        Assertions.assertTrue(heldResponses.get(0).isCancelled());
+    }
+
+    @Test
+    public void testCancellingSubscriptionCancelsRequests() throws Exception {
+        List<CompletableFuture<Response>> heldResponses = Collections.synchronizedList(new ArrayList<>());
+        DecodedTransactionHistory history = getHistory(200, heldResponses);
+        CountDownLatch received = new CountDownLatch(1);
+        history.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(JWSTransactionDecodedPayload item) {
+                subscription.cancel();
+                received.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                Assertions.fail();
+            }
+        });
+
+        Assertions.assertTrue(received.await(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!heldResponses.get(0).isCancelled() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(heldResponses.get(0).isCancelled());
+        synchronized (requestedRevisions) {
+            Assertions.assertEquals(List.of("first", "revision_1"), requestedRevisions);
+        }
+    }
+
+    private DecodedTransactionHistory getHistory(int statusCode) throws IOException {
+        return getHistory(statusCode, null);
+    }
+
+    /**
+     * @param heldResponses If not null, responses to requests after the first are held in this list instead of completing
+     */
+    private DecodedTransactionHistory getHistory(int statusCode, List<CompletableFuture<Response>> heldResponses) throws IOException {
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            AppStoreServerAPIClient client = new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected CompletableFuture<Response> getResponseAsync(Request request) {
+                    String revision = request.url().queryParameter("revision");
+                    String body;
+                    synchronized (requestedRevisions) {
+                        requestedRevisions.add(revision != null ? revision : "first");
+                    }
+                    if (revision != null && heldResponses != null) {
+                        CompletableFuture<Response> heldResponse = new CompletableFuture<>();
+                        heldResponses.add(heldResponse);
+                        return heldResponse;
+                    }
+                    if (revision == null) {
+                        body = getPage("revision_1", true, 2);
+                    } else if (revision.equals("revision_1")) {
+                        body = getPage("revision_2", true, 2);
+                    } else {
+                        body = getPage("revision_3", false, 1);
+                    }
+                    return CompletableFuture.completedFuture(new Response.Builder()
+                            .body(ResponseBody.create(statusCode == 200 ? body : "{}", MediaType.parse("application/json")))
+                            .code(statusCode)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("")
+                            .build());
+                }
+            };
+            return new DecodedTransactionHistory(new AsyncAppStoreServerAPIClient(client), TestingUtility.getSignedPayloadVerifier(), "1234", new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2);
+        }
+    }
+
+    private String getPage(String revision, boolean hasMore, int count) {
+        List<String> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add("\"" + signedTransaction + "\"");
+        }
+        return "{\"revision\": \"" + revision + "\", \"hasMore\": " + hasMore + ", \"bundleId\": \"com.example\", \"environment\": \"LocalTesting\", \"signedTransactions\": [" + String.join(",", transactions) + "]}";
+    }
+}
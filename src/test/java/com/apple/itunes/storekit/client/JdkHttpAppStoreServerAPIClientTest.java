@@ -0,0 +1,296 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.HistoryResponse;
+import com.apple.itunes.storekit.model.NotificationHistoryRequest;
+import com.apple.itunes.storekit.model.NotificationHistoryResponse;
+import com.apple.itunes.storekit.model.Status;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.model.TransactionInfoResponse;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class JdkHttpAppStoreServerAPIClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+    private final AtomicReference<RecordedRequest> lastRequest = new AtomicReference<>();
+    private volatile int responseStatus;
+    private volatile String responseBody;
+    private volatile String retryAfter;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        responseStatus = 200;
+        retryAfter = null;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testGetWithQueryParameters() throws Exception {
+        responseBody = TestingUtility.readFile("models/getAllSubscriptionStatusesResponse.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+
+        StatusResponse response = client.getAllSubscriptionStatuses("4321", new Status[] {Status.EXPIRED, Status.ACTIVE});
+
+        Assertions.assertEquals("com.example", response.getBundleId());
+        Assertions.assertEquals(2, response.getData().size());
+        RecordedRequest request = lastRequest.get();
+        Assertions.assertEquals("GET", request.method);
+        Assertions.assertEquals("/inApps/v1/subscriptions/4321", request.path);
+        Assertions.assertEquals("status=2&status=1", request.query);
+        Assertions.assertTrue(request.authorization.startsWith("Bearer "));
+        Assertions.assertTrue(request.userAgent.startsWith("app-store-server-library/java"));
+    }
+
+    @Test
+    public void testQueryParametersAreEncoded() throws Exception {
+        responseBody = TestingUtility.readFile("models/transactionHistoryResponse.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+
+        HistoryResponse response = client.getTransactionHistory("1234", "revision input+/=", new TransactionHistoryRequest(), GetTransactionHistoryVersion.V2);
+
+        Assertions.assertNotNull(response.getRevision());
+        Assertions.assertEquals("revision=revision%20input%2B%2F%3D", lastRequest.get().query);
+    }
+
+    @Test
+    public void testPostWithBody() throws Exception {
+        responseBody = TestingUtility.readFile("models/getNotificationHistoryResponse.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+
+        NotificationHistoryResponse response = client.getNotificationHistory("a036bc0e-52b8-4bee-82fc-8c24cb6715d6", new NotificationHistoryRequest().startDate(1698148900000L).endDate(1698148950000L));
+
+        Assertions.assertEquals(2, response.getNotificationHistory().size());
+        RecordedRequest request = lastRequest.get();
+        Assertions.assertEquals("POST", request.method);
+        Assertions.assertEquals("application/json; charset=utf-8", request.contentType);
+        Assertions.assertTrue(request.body.contains("\"startDate\":1698148900000"));
+    }
+
+    @Test
+    public void testNotificationHistoryWithConsumer() throws Exception {
+        responseBody = TestingUtility.readFile("models/getNotificationHistoryResponse.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+        List<String> signedPayloads = new ArrayList<>();
+
+        NotificationHistoryResponse response = client.getNotificationHistory(null, new NotificationHistoryRequest(), notification -> signedPayloads.add(notification.getSignedPayload()));
+
+        Assertions.assertNull(response.getNotificationHistory());
+        Assertions.assertTrue(response.getHasMore());
+        Assertions.assertEquals(List.of("signed_payload_one", "signed_payload_two"), signedPayloads);
+    }
+
+    @Test
+    public void testErrorResponse() throws Exception {
+        responseStatus = 429;
+        retryAfter = "7";
+        responseBody = TestingUtility.readFile("models/apiTooManyRequestsException.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+
+        APIException exception = Assertions.assertThrows(APIException.class, () -> client.getTransactionInfo("1234"));
+
+        Assertions.assertEquals(429, exception.getHttpStatusCode());
+        Assertions.assertEquals(APIError.RATE_LIMIT_EXCEEDED, exception.getApiError());
+        Assertions.assertEquals(Duration.ofSeconds(7), exception.getRetryAfter());
+    }
+
+    @Test
+    public void testAsyncCall() throws Exception {
+        responseBody = TestingUtility.readFile("models/transactionInfoResponse.json");
+        AsyncAppStoreServerAPIClient client = new AsyncAppStoreServerAPIClient(getClient());
+
+        Assertions.assertEquals("signed_transaction_info_value", client.getTransactionInfo("1234").get(5, TimeUnit.SECONDS).getSignedTransactionInfo());
+        Assertions.assertEquals("/inApps/v1/transactions/1234", lastRequest.get().path);
+
+        responseStatus = 500;
+        responseBody = TestingUtility.readFile("models/apiException.json");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> client.getTransactionInfo("1234").get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(APIError.GENERAL_INTERNAL, Assertions.assertInstanceOf(APIException.class, exception.getCause()).getApiError());
+    }
+
+    @Test
+    public void testCancellingAsyncCallDropsConnection() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            CountDownLatch accepted = new CountDownLatch(1);
+            CompletableFuture<Boolean> connectionDropped = CompletableFuture.supplyAsync(() -> awaitDroppedConnection(serverSocket, accepted));
+            AsyncAppStoreServerAPIClient client = new AsyncAppStoreServerAPIClient(getClient(serverSocket.getLocalPort()));
+
+            CompletableFuture<TransactionInfoResponse> future = client.getTransactionInfo("1234");
+            Assertions.assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(future.cancel(true));
+
+            // Well before the request timeout of the client would close the connection
+            Assertions.assertTrue(connectionDropped.get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testMaxConcurrentRequests() throws Exception {
+        responseBody = TestingUtility.readFile("models/transactionInfoResponse.json");
+        JdkHttpAppStoreServerAPIClient client = getClient();
+        client.setMaxConcurrentRequests(2);
+        AsyncAppStoreServerAPIClient asyncClient = new AsyncAppStoreServerAPIClient(client);
+        responseLatch = new CountDownLatch(1);
+
+        List<CompletableFuture<TransactionInfoResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(asyncClient.getTransactionInfo(Integer.toString(i)));
+        }
+        ExecutorService blockingCallers = Executors.newFixedThreadPool(5);
+        try {
+            for (int i = 0; i < 5; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return client.getTransactionInfo("1234");
+                    } catch (APIException | IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, blockingCallers));
+            }
+            while (inFlight.get() < 2) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            Assertions.assertEquals(2, inFlight.get());
+            responseLatch.countDown();
+            for (CompletableFuture<TransactionInfoResponse> future : futures) {
+                Assertions.assertEquals("signed_transaction_info_value", future.get(5, TimeUnit.SECONDS).getSignedTransactionInfo());
+            }
+        } finally {
+            blockingCallers.shutdownNow();
+        }
+        Assertions.assertEquals(2, maxInFlight.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            responseLatch.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            lastRequest.set(new RecordedRequest(
+                    exchange.getRequestMethod(),
+                    exchange.getRequestURI().getRawPath(),
+                    exchange.getRequestURI().getRawQuery(),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    exchange.getRequestHeaders().getFirst("User-Agent"),
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    new String(requestBody.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+        }
+        exchange.sendResponseHeaders(responseStatus, body.length);
+        // Counted before the body is sent, as the client may send its next request as soon as it has read the body
+        inFlight.decrementAndGet();
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Accept a connection, read the request and wait for the client to close the connection without answering
+     */
+    private static boolean awaitDroppedConnection(ServerSocket serverSocket, CountDownLatch accepted) {
+        try (Socket socket = serverSocket.accept()) {
+            accepted.countDown();
+            socket.setSoTimeout(10_000);
+            InputStream inputStream = socket.getInputStream();
+            while (inputStream.read() != -1) {
+                // Discard the request, nothing is sent in response
+            }
+            return true;
+        } catch (IOException e) {
+            // A reset connection was also dropped by the client
+            return !(e instanceof SocketTimeoutException);
+        }
+    }
+
+    private JdkHttpAppStoreServerAPIClient getClient() throws IOException {
+        return getClient(server.getAddress().getPort());
+    }
+
+    private JdkHttpAppStoreServerAPIClient getClient(int port) throws IOException {
+        String baseUrl = "http://localhost:" + port;
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            BearerTokenAuthenticator authenticator = new BearerTokenAuthenticator(new String(key.readAllBytes()), "keyId", "issuerId", "com.example");
+            HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            return new JdkHttpAppStoreServerAPIClient(authenticator, Environment.LOCAL_TESTING, httpClient, Duration.ofSeconds(5)) {
+                @Override
+                protected String getUrlForEnvironment(Environment environment) {
+                    return baseUrl;
+                }
+            };
+        }
+    }
+
+    private static class RecordedRequest {
+        private final String method;
+        private final String path;
+        private final String query;
+        private final String authorization;
+        private final String userAgent;
+        private final String contentType;
+        private final String body;
+
+        private RecordedRequest(String method, String path, String query, String authorization, String userAgent, String contentType, String body) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.authorization = authorization;
+            this.userAgent = userAgent;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testRetryableErrors() {
+        RetryPolicy policy = RetryPolicy.builder().maxAttempts(3).build();
+        Assertions.assertTrue(policy.isRetryable(1, new APIException(429, APIError.RATE_LIMIT_EXCEEDED, "")));
+        Assertions.assertTrue(policy.isRetryable(2, new APIException(500, APIError.GENERAL_INTERNAL_RETRYABLE, "")));
+        Assertions.assertTrue(policy.isRetryable(1, new APIException(404, APIError.ORIGINAL_TRANSACTION_ID_NOT_FOUND_RETRYABLE, "")));
+        Assertions.assertTrue(policy.isRetryable(1, new APIException(429)));
+        Assertions.assertFalse(policy.isRetryable(3, new APIException(429, APIError.RATE_LIMIT_EXCEEDED, "")));
+        Assertions.assertFalse(policy.isRetryable(1, new APIException(500, APIError.GENERAL_INTERNAL, "")));
+        Assertions.assertFalse(policy.isRetryable(1, new APIException(404, APIError.TRANSACTION_ID_NOT_FOUND, "")));
+        Assertions.assertFalse(policy.isRetryable(1, new APIException(500)));
+    }
+
+    @Test
+    public void testCustomRetryableErrors() {
+        RetryPolicy policy = RetryPolicy.builder().retryableErrors(Set.of(APIError.GENERAL_INTERNAL)).build();
+        Assertions.assertTrue(policy.isRetryable(1, new APIException(500, APIError.GENERAL_INTERNAL, "")));
+        Assertions.assertFalse(policy.isRetryable(1, new APIException(429, APIError.RATE_LIMIT_EXCEEDED, "")));
+    }
+
+    @Test
+    public void testRetryAfterLongerThanMaxBackoffIsNotRetried() {
+        RetryPolicy policy = RetryPolicy.builder().backoff(Duration.ofMillis(100), Duration.ofSeconds(5)).build();
+        APIException exception = new APIException(429, APIError.RATE_LIMIT_EXCEEDED, "");
+        exception.setRetryAfter(Duration.ofSeconds(60));
+        Assertions.assertFalse(policy.isRetryable(1, exception));
+    }
+
+    @Test
+    public void testBackoffIsJitteredAndBounded() {
+        RetryPolicy policy = RetryPolicy.builder().backoff(Duration.ofMillis(100), Duration.ofMillis(300)).build();
+        APIException exception = new APIException(500, APIError.GENERAL_INTERNAL_RETRYABLE, "");
+        for (int i = 0; i < 1000; i++) {
+            long first = policy.backoffNanos(1, exception);
+            Assertions.assertTrue(first >= 0 && first <= Duration.ofMillis(100).toNanos());
+            long second = policy.backoffNanos(2, exception);
+            Assertions.assertTrue(second >= 0 && second <= Duration.ofMillis(200).toNanos());
+            long tenth = policy.backoffNanos(10, exception);
+            Assertions.assertTrue(tenth >= 0 && tenth <= Duration.ofMillis(300).toNanos());
+        }
+    }
+
+    @Test
+    public void testBackoffHonorsRetryAfter() {
+        RetryPolicy policy = RetryPolicy.builder().backoff(Duration.ofMillis(100), Duration.ofSeconds(10)).build();
+        APIException exception = new APIException(429, APIError.RATE_LIMIT_EXCEEDED, "");
+        exception.setRetryAfter(Duration.ofSeconds(2));
+        long backoff = policy.backoffNanos(1, exception);
+        Assertions.assertTrue(backoff >= Duration.ofSeconds(2).toNanos() && backoff <= Duration.ofMillis(2100).toNanos());
+    }
+
+    @Test
+    public void testEndpointBudget() {
+        RetryPolicy policy = RetryPolicy.builder().endpointBudget(0.5, 2).globalBudget(1, 100).build();
+        Assertions.assertTrue(policy.tryAcquireRetry("/a"));
+        Assertions.assertTrue(policy.tryAcquireRetry("/a"));
+        Assertions.assertFalse(policy.tryAcquireRetry("/a"));
+        // Other endpoints have their own budget
+        Assertions.assertTrue(policy.tryAcquireRetry("/b"));
+        // Two calls deposit one retry
+        policy.recordCall("/a");
+        Assertions.assertFalse(policy.tryAcquireRetry("/a"));
+        policy.recordCall("/a");
+        Assertions.assertTrue(policy.tryAcquireRetry("/a"));
+        Assertions.assertFalse(policy.tryAcquireRetry("/a"));
+    }
+
+    @Test
+    public void testGlobalBudget() {
+        RetryPolicy policy = RetryPolicy.builder().endpointBudget(1, 10).globalBudget(0.1, 1).build();
+        Assertions.assertTrue(policy.tryAcquireRetry("/a"));
+        Assertions.assertFalse(policy.tryAcquireRetry("/b"));
+        for (int i = 0; i < 10; i++) {
+            policy.recordCall("/c");
+        }
+        Assertions.assertTrue(policy.tryAcquireRetry("/b"));
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        Assertions.assertNull(BaseAppStoreServerAPIClient.parseRetryAfter(null));
+        Assertions.assertNull(BaseAppStoreServerAPIClient.parseRetryAfter("soon"));
+        Assertions.assertEquals(Duration.ofSeconds(120), BaseAppStoreServerAPIClient.parseRetryAfter("120"));
+        Assertions.assertEquals(Duration.ZERO, BaseAppStoreServerAPIClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        Duration untilDate = BaseAppStoreServerAPIClient.parseRetryAfter(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusMinutes(5)));
+        Assertions.assertTrue(untilDate.compareTo(Duration.ofMinutes(4)) > 0 && untilDate.compareTo(Duration.ofMinutes(5)) <= 0);
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().maxAttempts(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().backoff(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().endpointBudget(2, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().globalBudget(0.1, -1));
+    }
+}
@@ -0,0 +1,240 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.Status;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.util.TestingUtility;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubscriptionStatusCacheTest {
+
+    private static final Instant NOW = Instant.ofEpochMilli(1761962975000L);
+
+    private Clock clock;
+    private AtomicInteger requestCount;
+    private volatile CountDownLatch responseLatch;
+    private volatile int statusCode;
+
+    @BeforeEach
+    public void setup() {
+        clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(NOW);
+        requestCount = new AtomicInteger();
+        responseLatch = new CountDownLatch(0);
+        statusCode = 200;
+    }
+
+    @Test
+    public void testResponseIsCachedForTimeToLive() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+
+        StatusResponse first = cache.getAllSubscriptionStatuses("4321", new Status[] {Status.ACTIVE});
+        StatusResponse second = cache.getAllSubscriptionStatuses("4321", new Status[] {Status.ACTIVE});
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, requestCount.get());
+
+        // A different filter is a different lookup
+        cache.getAllSubscriptionStatuses("4321", null);
+        Assertions.assertEquals(2, requestCount.get());
+
+        Mockito.when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(5)));
+        Assertions.assertNotSame(first, cache.getAllSubscriptionStatuses("4321", new Status[] {Status.ACTIVE}));
+        Assertions.assertEquals(3, requestCount.get());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testStatusFilterOrderDoesNotMatter() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        cache.getAllSubscriptionStatuses("4321", new Status[] {Status.ACTIVE, Status.EXPIRED});
+        cache.getAllSubscriptionStatuses("4321", new Status[] {Status.EXPIRED, Status.ACTIVE});
+        Assertions.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 2, clock);
+        cache.getAllSubscriptionStatuses("1", null);
+        cache.getAllSubscriptionStatuses("2", null);
+        cache.getAllSubscriptionStatuses("1", null);
+        cache.getAllSubscriptionStatuses("3", null);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(3, requestCount.get());
+
+        cache.getAllSubscriptionStatuses("1", null);
+        Assertions.assertEquals(3, requestCount.get());
+        cache.getAllSubscriptionStatuses("2", null);
+        Assertions.assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalesced() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        responseLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StatusResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.getAllSubscriptionStatuses("4321", null)));
+            }
+            while (requestCount.get() + cache.getCoalescedCount() < 8) {
+                Thread.sleep(1);
+            }
+            responseLatch.countDown();
+            StatusResponse first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<StatusResponse> future : futures) {
+                Assertions.assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, requestCount.get());
+        Assertions.assertEquals(7, cache.getCoalescedCount());
+    }
+
+    @Test
+    public void testConcurrentAsyncLookupsAreCoalesced() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        responseLatch = new CountDownLatch(1);
+
+        CompletableFuture<StatusResponse> first = cache.getAllSubscriptionStatusesAsync("4321", null);
+        CompletableFuture<StatusResponse> second = cache.getAllSubscriptionStatusesAsync("4321", null);
+        second.cancel(false);
+        CompletableFuture<StatusResponse> third = cache.getAllSubscriptionStatusesAsync("4321", null);
+        responseLatch.countDown();
+
+        Assertions.assertSame(first.get(5, TimeUnit.SECONDS), third.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, requestCount.get());
+        Assertions.assertSame(first.get(), cache.getAllSubscriptionStatusesAsync("4321", null).get());
+        Assertions.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testFailuresAreSharedButNotCached() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        statusCode = 500;
+        responseLatch = new CountDownLatch(1);
+
+        CompletableFuture<StatusResponse> first = cache.getAllSubscriptionStatusesAsync("4321", null);
+        CompletableFuture<StatusResponse> second = cache.getAllSubscriptionStatusesAsync("4321", null);
+        responseLatch.countDown();
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        exception = Assertions.assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(APIException.class, exception.getCause());
+        Assertions.assertEquals(1, requestCount.get());
+
+        Assertions.assertThrows(APIException.class, () -> cache.getAllSubscriptionStatuses("4321", null));
+        Assertions.assertEquals(2, requestCount.get());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateByRequestedOrContainedTransaction() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        cache.getAllSubscriptionStatuses("4321", null);
+        cache.getAllSubscriptionStatuses("4321", new Status[] {Status.ACTIVE});
+        cache.getAllSubscriptionStatuses("9999", null);
+        Assertions.assertEquals(3, cache.size());
+
+        cache.invalidate("4321");
+        Assertions.assertEquals(1, cache.size());
+
+        // 3749183 is an originalTransactionId in the response
+        cache.invalidate("3749183");
+        Assertions.assertEquals(0, cache.size());
+
+        cache.getAllSubscriptionStatuses("4321", null);
+        Assertions.assertEquals(4, requestCount.get());
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLookupInFlightIsNotCachedAfterInvalidation() throws Exception {
+        SubscriptionStatusCache cache = new SubscriptionStatusCache(getClient(), Duration.ofSeconds(5), 10, clock);
+        responseLatch = new CountDownLatch(1);
+
+        CompletableFuture<StatusResponse> future = cache.getAllSubscriptionStatusesAsync("4321", null);
+        cache.invalidate("3749183");
+        responseLatch.countDown();
+        future.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(0, cache.size());
+        cache.getAllSubscriptionStatuses("4321", null);
+        Assertions.assertEquals(2, requestCount.get());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    private AppStoreServerAPIClient getClient() throws IOException {
+        String successBody = TestingUtility.readFile("models/getAllSubscriptionStatusesResponse.json");
+        String failureBody = TestingUtility.readFile("models/apiException.json");
+        try (InputStream key = this.getClass().getClassLoader().getResourceAsStream("certs/testSigningKey.p8")) {
+            Assertions.assertNotNull(key);
+            return new AppStoreServerAPIClient(new String(key.readAllBytes()), "keyId", "issuerId", "com.example", Environment.LOCAL_TESTING) {
+                @Override
+                protected Response getResponse(Request request) throws IOException {
+                    requestCount.incrementAndGet();
+                    try {
+                        responseLatch.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return createResponse(request);
+                }
+
+                @Override
+                protected CompletableFuture<Response> getResponseAsync(Request request) {
+                    requestCount.incrementAndGet();
+                    CountDownLatch latch = responseLatch;
+                    return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            latch.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        return createResponse(request);
+                    });
+                }
+
+                private Response createResponse(Request request) {
+                    return new Response.Builder()
+                            .body(ResponseBody.create(statusCode == 200 ? successBody : failureBody, MediaType.parse("application/json")))
+                            .code(statusCode)
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .message("")
+                            .build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,173 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.client;
+
+import com.apple.itunes.storekit.model.Environment;
+import com.apple.itunes.storekit.model.StatusResponse;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one virtual thread per lookup against a local server through the {@link JdkHttpAppStoreServerAPIClient}, and
+ * checks that no virtual thread pinned its carrier thread while waiting.
+ * <p>
+ * Requires Java 21 or later, and is excluded from the test task. Run it with {@code gradle stressTest}, selecting a
+ * Java 21 toolchain with {@code -PstressTestJavaVersion=21}, and the number of lookups with {@code -DstressTest.lookups}.
+ */
+@Tag("stress")
+public class VirtualThreadStressTest {
+
+    private static final int LOOKUPS = Integer.getInteger("stressTest.lookups", 100_000);
+    private static final int MAX_CONCURRENT_REQUESTS = Integer.getInteger("stressTest.maxConcurrentRequests", 256);
+
+    @Test
+    public void testConcurrentLookupsDoNotPinCarrierThreads() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+        byte[] responseBody = TestingUtility.readBytes("models/getAllSubscriptionStatusesResponse.json");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", exchange -> {
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                requestBody.readAllBytes();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, responseBody.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(responseBody);
+            }
+        });
+        // Platform threads serve requests, so that any pinned virtual thread belongs to the client
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(64);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        Path recordingPath = Files.createTempFile("virtual-thread-stress", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            JdkHttpAppStoreServerAPIClient client = getClient("http://localhost:" + server.getAddress().getPort());
+            client.setMaxConcurrentRequests(MAX_CONCURRENT_REQUESTS);
+            // Warm up the connections and the token before measuring
+            client.getAllSubscriptionStatuses("4321", null);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            AtomicInteger failures = new AtomicInteger();
+            long start = System.nanoTime();
+            long carrierCpuStart = carrierCpuNanos(threads);
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            try {
+                List<Future<?>> futures = new ArrayList<>(LOOKUPS);
+                for (int i = 0; i < LOOKUPS; i++) {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            StatusResponse response = client.getAllSubscriptionStatuses("4321", null);
+                            if (response.getData() == null) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdown();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long carrierCpuNanos = carrierCpuNanos(threads) - carrierCpuStart;
+
+            recording.stop();
+            recording.dump(recordingPath);
+            List<RecordedEvent> pinnedEvents = RecordingFile.readAllEvents(recordingPath);
+
+            double seconds = elapsedNanos / 1e9;
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            System.out.printf("%d lookups in %.2fs, %.0f lookups/s, carrier thread utilization %.1f%% of %d carriers, %d pinned events%n",
+                    LOOKUPS, seconds, LOOKUPS / seconds, 100.0 * carrierCpuNanos / (elapsedNanos * (double) parallelism), parallelism, pinnedEvents.size());
+            for (RecordedEvent event : pinnedEvents) {
+                System.out.println(describe(event));
+            }
+
+            Assertions.assertEquals(0, failures.get());
+            Assertions.assertEquals(0, pinnedEvents.size(), "Virtual threads were pinned while waiting");
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            Files.deleteIfExists(recordingPath);
+        }
+    }
+
+    private static JdkHttpAppStoreServerAPIClient getClient(String baseUrl) throws Exception {
+        String key = new String(TestingUtility.readBytes("certs/testSigningKey.p8"), StandardCharsets.UTF_8);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        CachingBearerTokenAuthenticator authenticator = new CachingBearerTokenAuthenticator(new BearerTokenAuthenticator(key, "keyId", "issuerId", "com.example"));
+        return new JdkHttpAppStoreServerAPIClient(authenticator, Environment.LOCAL_TESTING, httpClient, Duration.ofSeconds(30)) {
+            @Override
+            protected String getUrlForEnvironment(Environment environment) {
+                return baseUrl;
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        // Looked up reflectively, as the library and its tests are compiled for Java 11
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    /**
+     * @return The CPU time used by the carrier threads of virtual threads, which belong to the scheduler's ForkJoinPool
+     */
+    private static long carrierCpuNanos(ThreadMXBean threads) {
+        long total = 0;
+        for (ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (thread != null && thread.getThreadName().startsWith("ForkJoinPool-") && thread.getThreadName().contains("-worker-")) {
+                long cpuTime = threads.getThreadCpuTime(thread.getThreadId());
+                if (cpuTime > 0) {
+                    total += cpuTime;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder description = new StringBuilder("Pinned for ").append(event.getDuration().toNanos()).append("ns");
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                description.append("\n    at ").append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+            }
+        }
+        return description.toString();
+    }
+}
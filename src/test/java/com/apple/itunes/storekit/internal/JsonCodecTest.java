@@ -0,0 +1,43 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.internal;
+
+import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
+import com.apple.itunes.storekit.model.ResponseBodyV2DecodedPayload;
+import com.apple.itunes.storekit.model.TransactionHistoryRequest;
+import com.apple.itunes.storekit.util.TestingUtility;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class JsonCodecTest {
+
+    @Test
+    public void testSharedInstance() {
+        Assertions.assertSame(JsonCodec.getInstance(), JsonCodec.getInstance());
+        Assertions.assertSame(JsonCodec.getInstance().readerFor(JWSTransactionDecodedPayload.class), JsonCodec.getInstance().readerFor(JWSTransactionDecodedPayload.class));
+        Assertions.assertNotSame(JsonCodec.getInstance().readerFor(JWSTransactionDecodedPayload.class), JsonCodec.getInstance().readerFor(ResponseBodyV2DecodedPayload.class));
+    }
+
+    @Test
+    public void testReadValue() throws IOException {
+        byte[] json = TestingUtility.readBytes("models/signedTransaction.json");
+        JWSTransactionDecodedPayload fromBytes = JsonCodec.getInstance().readValue(json, 0, json.length, JWSTransactionDecodedPayload.class);
+        JWSTransactionDecodedPayload fromReader = JsonCodec.getInstance().readValue(new StringReader(new String(json, StandardCharsets.UTF_8)), JWSTransactionDecodedPayload.class);
+        Assertions.assertEquals("23456", fromBytes.getTransactionId());
+        Assertions.assertEquals(fromBytes, fromReader);
+    }
+
+    @Test
+    public void testWriteValueUsesFields() throws IOException {
+        TransactionHistoryRequest request = new TransactionHistoryRequest().startDate(123L);
+        byte[] json = JsonCodec.getInstance().writeValueAsBytes(request);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = JsonCodec.getInstance().readValue(json, 0, json.length, Map.class);
+        Assertions.assertEquals(123, fields.get("startDate"));
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+public class InMemoryNotificationDeduplicationStoreTest {
+
+    @Test
+    public void testClaimAndRelease() {
+        InMemoryNotificationDeduplicationStore store = new InMemoryNotificationDeduplicationStore(Duration.ofDays(1), 100_000);
+        List<String> notificationUUIDs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            notificationUUIDs.add(UUID.randomUUID().toString());
+        }
+        notificationUUIDs.add("00000000-0000-0000-0000-000000000000");
+        notificationUUIDs.add("not a UUID");
+
+        for (String notificationUUID : notificationUUIDs) {
+            Assertions.assertTrue(store.claim(notificationUUID));
+        }
+        for (String notificationUUID : notificationUUIDs) {
+            Assertions.assertFalse(store.claim(notificationUUID));
+        }
+        Assertions.assertEquals(notificationUUIDs.size(), store.getSize());
+
+        // Release every other notificationUUID, the others must remain claimed
+        for (int i = 0; i < notificationUUIDs.size(); i += 2) {
+            store.release(notificationUUIDs.get(i));
+        }
+        store.release(UUID.randomUUID().toString());
+        for (int i = 0; i < notificationUUIDs.size(); i++) {
+            Assertions.assertEquals(i % 2 == 0, store.claim(notificationUUIDs.get(i)), notificationUUIDs.get(i));
+        }
+        Assertions.assertEquals(notificationUUIDs.size(), store.getSize());
+    }
+
+    @Test
+    public void testReleaseWithCollidingProbeSequences() {
+        // Sequential UUIDs released in random order exercise the removal of entries within probe sequences
+        InMemoryNotificationDeduplicationStore store = new InMemoryNotificationDeduplicationStore(Duration.ofDays(1), 100_000);
+        List<String> notificationUUIDs = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            notificationUUIDs.add(new UUID(0, i).toString());
+            Assertions.assertTrue(store.claim(notificationUUIDs.get(i - 1)));
+        }
+        Random random = new Random(1);
+        List<String> remaining = new ArrayList<>(notificationUUIDs);
+        while (!remaining.isEmpty()) {
+            store.release(remaining.remove(random.nextInt(remaining.size())));
+            if (remaining.size() % 500 == 0) {
+                for (String notificationUUID : remaining) {
+                    Assertions.assertFalse(store.claim(notificationUUID));
+                }
+            }
+        }
+        Assertions.assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testWindow() {
+        Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH);
+        InMemoryNotificationDeduplicationStore store = new InMemoryNotificationDeduplicationStore(Duration.ofHours(4), 100, clock);
+
+        Assertions.assertTrue(store.claim("002e14d5-51f5-4503-b5a8-c3a1af68eb20"));
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofHours(2)));
+        Assertions.assertTrue(store.claim("f3f1d5a6-8d7b-4a4c-9e39-1c7c2fbb8d42"));
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofHours(4)));
+        Assertions.assertFalse(store.claim("002e14d5-51f5-4503-b5a8-c3a1af68eb20"));
+
+        // Remembered for at most a quarter of the window longer
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofHours(5)));
+        Assertions.assertTrue(store.claim("002e14d5-51f5-4503-b5a8-c3a1af68eb20"));
+        Assertions.assertFalse(store.claim("f3f1d5a6-8d7b-4a4c-9e39-1c7c2fbb8d42"));
+        Assertions.assertEquals(2, store.getSize());
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofHours(7)));
+        Assertions.assertTrue(store.claim("f3f1d5a6-8d7b-4a4c-9e39-1c7c2fbb8d42"));
+    }
+
+    @Test
+    public void testMaximumSize() {
+        Clock clock = Mockito.mock(Clock.class);
+        InMemoryNotificationDeduplicationStore store = new InMemoryNotificationDeduplicationStore(Duration.ofHours(4), 10, clock);
+        List<String> notificationUUIDs = new ArrayList<>();
+        for (int hour = 0; hour < 3; hour++) {
+            Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofHours(hour)));
+            for (int i = 0; i < 4; i++) {
+                String notificationUUID = UUID.randomUUID().toString();
+                notificationUUIDs.add(notificationUUID);
+                Assertions.assertTrue(store.claim(notificationUUID));
+                Assertions.assertTrue(store.getSize() <= 10);
+            }
+        }
+
+        // The notificationUUIDs of the first hour were dropped to make room
+        Assertions.assertEquals(8, store.getSize());
+        for (int i = 4; i < notificationUUIDs.size(); i++) {
+            Assertions.assertFalse(store.claim(notificationUUIDs.get(i)));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a burst of notifications, including retries of the same notifications, to a local HTTP server acknowledging
+ * them through a {@link NotificationReceiver}, and checks that each notification is handled exactly once.
+ * <p>
+ * Senders retry requests answered with 503, as the App Store does, without waiting as long.
+ * <p>
+ * Excluded from the test task. Run it with {@code gradle stressTest}, and select the number of notifications with
+ * {@code -DstressTest.notifications}.
+ */
+@Tag("stress")
+public class NotificationReceiverLoadTest {
+
+    private static final int NOTIFICATIONS = Integer.getInteger("stressTest.notifications", 500);
+    private static final int DELIVERIES_PER_NOTIFICATION = 2;
+    private static final int SENDERS = 32;
+
+    @Test
+    public void testBurstOfNotifications() throws Exception {
+        List<byte[]> requestBodies = new ArrayList<>();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            requestBodies.add(NotificationReceiverTest.requestBody(UUID.randomUUID().toString()));
+        }
+        Set<String> handled = ConcurrentHashMap.newKeySet();
+        AtomicInteger handledTwice = new AtomicInteger();
+        NotificationReceiver receiver = new NotificationReceiver(TestingUtility.getSignedPayloadVerifier(), notification -> {
+            notification.getTransactionInfo();
+            if (!handled.add(notification.getPayload().getNotificationUUID())) {
+                handledTwice.incrementAndGet();
+            }
+        }, 64, 4);
+        AtomicInteger maximumQueueDepth = new AtomicInteger();
+        AtomicLong totalQueueNanos = new AtomicLong();
+        AtomicLong totalProcessingNanos = new AtomicLong();
+        receiver.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordNotificationReceived(boolean accepted, int queueDepth) {
+                maximumQueueDepth.accumulateAndGet(queueDepth, Math::max);
+            }
+
+            @Override
+            public void recordNotificationProcessed(NotificationOutcome outcome, long queueNanos, long processingNanos) {
+                totalQueueNanos.addAndGet(queueNanos);
+                totalProcessingNanos.addAndGet(processingNanos);
+            }
+        });
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/notifications", exchange -> {
+            byte[] requestBody;
+            try (InputStream inputStream = exchange.getRequestBody()) {
+                requestBody = inputStream.readAllBytes();
+            }
+            exchange.sendResponseHeaders(receiver.receive(requestBody) ? 200 : 503, -1);
+            exchange.close();
+        });
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(SENDERS);
+        server.setExecutor(serverExecutor);
+        server.start();
+        ExecutorService senders = Executors.newFixedThreadPool(SENDERS);
+        try {
+            HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/notifications");
+            AtomicInteger serviceUnavailable = new AtomicInteger();
+            AtomicLong totalAcknowledgementNanos = new AtomicLong();
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int delivery = 0; delivery < DELIVERIES_PER_NOTIFICATION; delivery++) {
+                for (byte[] requestBody : requestBodies) {
+                    futures.add(senders.submit(() -> {
+                        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofByteArray(requestBody)).build();
+                        while (true) {
+                            long sent = System.nanoTime();
+                            int statusCode = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            totalAcknowledgementNanos.addAndGet(System.nanoTime() - sent);
+                            if (statusCode == 200) {
+                                return null;
+                            }
+                            Assertions.assertEquals(503, statusCode);
+                            serviceUnavailable.incrementAndGet();
+                            Thread.sleep(5);
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            receiver.shutdown();
+            Assertions.assertTrue(receiver.awaitTermination(Duration.ofMinutes(1)));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long deliveries = (long) NOTIFICATIONS * DELIVERIES_PER_NOTIFICATION;
+            System.out.printf("%d deliveries in %.2fs, %.0f notifications/s, mean acknowledgement %.2fms, %d answered with 503, maximum queue depth %d, mean queue wait %.2fms, mean processing %.2fms%n",
+                    deliveries, seconds, deliveries / seconds, totalAcknowledgementNanos.get() / 1e6 / (deliveries + serviceUnavailable.get()),
+                    serviceUnavailable.get(), maximumQueueDepth.get(), totalQueueNanos.get() / 1e6 / deliveries, totalProcessingNanos.get() / 1e6 / deliveries);
+
+            Assertions.assertEquals(NOTIFICATIONS, handled.size());
+            Assertions.assertEquals(0, handledTwice.get());
+            Assertions.assertEquals(NOTIFICATIONS, receiver.getProcessedCount(NotificationOutcome.PROCESSED));
+            Assertions.assertEquals(deliveries - NOTIFICATIONS, receiver.getProcessedCount(NotificationOutcome.DUPLICATE));
+            Assertions.assertEquals(serviceUnavailable.get(), receiver.getRejectedCount());
+            Assertions.assertTrue(maximumQueueDepth.get() <= 64);
+        } finally {
+            senders.shutdownNow();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+}
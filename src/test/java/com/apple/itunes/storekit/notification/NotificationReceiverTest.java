@@ -0,0 +1,182 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.notification;
+
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.util.TestingUtility;
+import com.apple.itunes.storekit.verification.DecodedNotification;
+import com.apple.itunes.storekit.verification.VerificationException;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class NotificationReceiverTest {
+
+    @Test
+    public void testNotificationsAreProcessedOnce() throws Exception {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        NotificationReceiver receiver = new NotificationReceiver(TestingUtility.getSignedPayloadVerifier(), notification -> {
+            handled.add(notification.getPayload().getNotificationUUID());
+            Assertions.assertEquals("23456", notification.getTransactionInfo().getTransactionId());
+        }, 10, 2);
+
+        Assertions.assertTrue(receiver.receive(requestBody("002e14d5-51f5-4503-b5a8-c3a1af68eb20")));
+        Assertions.assertTrue(receiver.receive(requestBody("002e14d5-51f5-4503-b5a8-c3a1af68eb20")));
+        Assertions.assertTrue(receiver.receive(requestBody("f3f1d5a6-8d7b-4a4c-9e39-1c7c2fbb8d42")));
+        awaitProcessing(receiver);
+
+        Assertions.assertEquals(2, handled.size());
+        Assertions.assertTrue(handled.containsAll(List.of("002e14d5-51f5-4503-b5a8-c3a1af68eb20", "f3f1d5a6-8d7b-4a4c-9e39-1c7c2fbb8d42")));
+        Assertions.assertEquals(2, receiver.getProcessedCount(NotificationOutcome.PROCESSED));
+        Assertions.assertEquals(1, receiver.getProcessedCount(NotificationOutcome.DUPLICATE));
+    }
+
+    @Test
+    public void testFullQueueRejectsRequests() throws Exception {
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationReceiver receiver = new NotificationReceiver(TestingUtility.getSignedPayloadVerifier(), notification -> {
+            handling.countDown();
+            release.await();
+        }, 1, 1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        List<NotificationOutcome> processed = Collections.synchronizedList(new ArrayList<>());
+        receiver.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordNotificationReceived(boolean accepted, int queueDepth) {
+                received.add(accepted + " " + queueDepth);
+            }
+
+            @Override
+            public void recordNotificationProcessed(NotificationOutcome outcome, long queueNanos, long processingNanos) {
+                Assertions.assertTrue(queueNanos >= 0 && processingNanos >= 0);
+                processed.add(outcome);
+            }
+        });
+
+        Assertions.assertTrue(receiver.receive(requestBody("00000000-0000-0000-0000-000000000001")));
+        Assertions.assertTrue(handling.await(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(receiver.receive(requestBody("00000000-0000-0000-0000-000000000002")));
+        Assertions.assertFalse(receiver.receive(requestBody("00000000-0000-0000-0000-000000000003")));
+        Assertions.assertEquals(1, receiver.getQueueDepth());
+        Assertions.assertEquals(1, receiver.getRejectedCount());
+        release.countDown();
+        awaitProcessing(receiver);
+
+        // The first request body may or may not have been taken by the worker when the depth is recorded
+        Assertions.assertTrue(received.get(0).startsWith("true"));
+        Assertions.assertEquals(List.of("true 1", "false 1"), received.subList(1, 3));
+        Assertions.assertEquals(List.of(NotificationOutcome.PROCESSED, NotificationOutcome.PROCESSED), processed);
+        Assertions.assertFalse(receiver.receive(requestBody("00000000-0000-0000-0000-000000000004")));
+    }
+
+    @Test
+    public void testFailedNotificationsAreProcessedAgain() throws Exception {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+        NotificationReceiver receiver = new NotificationReceiver(TestingUtility.getSignedPayloadVerifier(), new NotificationHandler() {
+            @Override
+            public void handle(DecodedNotification notification) {
+                if (fail.getAndSet(false)) {
+                    throw new IllegalStateException("Unavailable");
+                }
+            }
+
+            @Override
+            public void handleFailure(byte[] requestBody, Exception cause) {
+                failures.add(cause);
+            }
+        }, 10, 1);
+
+        byte[] requestBody = requestBody("002e14d5-51f5-4503-b5a8-c3a1af68eb20");
+        Assertions.assertTrue(receiver.receive(requestBody));
+        Assertions.assertTrue(receiver.receive(requestBody));
+        Assertions.assertTrue(receiver.receive("{\"signedPayload\": \"a.b.c\"}".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertTrue(receiver.receive("not json".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertTrue(receiver.receive("{}".getBytes(StandardCharsets.UTF_8)));
+        awaitProcessing(receiver);
+
+        Assertions.assertEquals(1, receiver.getProcessedCount(NotificationOutcome.FAILED));
+        Assertions.assertEquals(1, receiver.getProcessedCount(NotificationOutcome.PROCESSED));
+        Assertions.assertEquals(3, receiver.getProcessedCount(NotificationOutcome.INVALID));
+        Assertions.assertEquals(4, failures.size());
+        Assertions.assertInstanceOf(IllegalStateException.class, failures.get(0));
+        Assertions.assertInstanceOf(VerificationException.class, failures.get(1));
+        Assertions.assertInstanceOf(IOException.class, failures.get(2));
+        Assertions.assertInstanceOf(VerificationException.class, failures.get(3));
+    }
+
+    @Test
+    public void testDeduplicationWindow() throws Exception {
+        Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH);
+        NotificationReceiver receiver = new NotificationReceiver(TestingUtility.getSignedPayloadVerifier(), notification -> {
+        }, 10, 1, new InMemoryNotificationDeduplicationStore(Duration.ofHours(1), 100, clock));
+
+        byte[] requestBody = requestBody("002e14d5-51f5-4503-b5a8-c3a1af68eb20");
+        receiver.receive(requestBody);
+        awaitProcessed(receiver, 1);
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofMinutes(59)));
+        receiver.receive(requestBody);
+        awaitProcessed(receiver, 2);
+        Mockito.when(clock.instant()).thenReturn(Instant.EPOCH.plus(Duration.ofMinutes(76)));
+        receiver.receive(requestBody);
+        awaitProcessing(receiver);
+
+        Assertions.assertEquals(2, receiver.getProcessedCount(NotificationOutcome.PROCESSED));
+        Assertions.assertEquals(1, receiver.getProcessedCount(NotificationOutcome.DUPLICATE));
+    }
+
+    static byte[] requestBody(String notificationUUID) throws IOException, NoSuchAlgorithmException {
+        String notification = TestingUtility.readFile("models/signedNotification.json")
+                .replace("002e14d5-51f5-4503-b5a8-c3a1af68eb20", notificationUUID)
+                .replace("signed_transaction_info_value", sign(TestingUtility.readFile("models/signedTransaction.json")));
+        return ("{\"signedPayload\": \"" + sign(notification) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sign(String json) throws NoSuchAlgorithmException {
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        return JWT.create()
+                .withPayload(json)
+                .sign(Algorithm.ECDSA256((ECPrivateKey) ec.generateKeyPair().getPrivate()));
+    }
+
+    private static void awaitProcessing(NotificationReceiver receiver) throws InterruptedException {
+        receiver.shutdown();
+        Assertions.assertTrue(receiver.awaitTermination(Duration.ofSeconds(10)));
+    }
+
+    private static void awaitProcessed(NotificationReceiver receiver, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (total(receiver) < count) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "The notification was not processed");
+            Thread.sleep(1);
+        }
+    }
+
+    private static long total(NotificationReceiver receiver) {
+        long total = 0;
+        for (NotificationOutcome outcome : NotificationOutcome.values()) {
+            total += receiver.getProcessedCount(outcome);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.util.TestingUtility;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+public class CertificateCacheTest {
+
+    @Test
+    public void testRepeatedCertificateIsParsedOnce() throws IOException, CertificateException {
+        CertificateCache cache = new CertificateCache(4);
+        String leaf = readBase64Certificate("certs/testLeaf.pem");
+        X509Certificate first = cache.getCertificate(leaf);
+        // A distinct String instance with the same contents should hit the cache
+        X509Certificate second = cache.getCertificate(new String(leaf.toCharArray()));
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testDistinctCertificatesAreCachedSeparately() throws IOException, CertificateException {
+        CertificateCache cache = new CertificateCache(4);
+        X509Certificate leaf = cache.getCertificate(readBase64Certificate("certs/testLeaf.pem"));
+        X509Certificate intermediate = cache.getCertificate(readBase64Certificate("certs/testIntermediate.pem"));
+        Assertions.assertNotEquals(leaf, intermediate);
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() throws IOException, CertificateException {
+        CertificateCache cache = new CertificateCache(1);
+        cache.getCertificate(readBase64Certificate("certs/testLeaf.pem"));
+        cache.getCertificate(readBase64Certificate("certs/testIntermediate.pem"));
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidCertificate() {
+        CertificateCache cache = new CertificateCache(4);
+        Assertions.assertThrows(CertificateException.class, () -> cache.getCertificate("abc="));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.getCertificate("not base64!"));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private static String readBase64Certificate(String path) throws IOException {
+        String pem = TestingUtility.readFile(path);
+        int start = pem.indexOf("-----BEGIN CERTIFICATE-----") + "-----BEGIN CERTIFICATE-----".length();
+        int end = pem.indexOf("-----END CERTIFICATE-----");
+        return pem.substring(start, end).replaceAll("\\s", "");
+    }
+}
@@ -2,6 +2,7 @@
 
 package com.apple.itunes.storekit.verification;
 
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +13,19 @@ import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.security.cert.CertPathValidatorException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class ChainVerifierTest {
 
@@ -176,6 +186,282 @@ public class ChainVerifierTest {
         Mockito.verify(mockedChainVerifier, Mockito.times(1)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
     }
 
+    @Test
+    public void testOfflineCaching() throws VerificationException {
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, false, EFFECTIVE_DATE);
+        // A different effective date within the validity of the chain should be cached
+        Date laterEffectiveDate = new Date(EFFECTIVE_DATE.getTime() + 86_400_000L); // 1 day
+        PublicKey key = mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, false, laterEffectiveDate);
+        Assertions.assertSame(publicKey, key);
+        Mockito.verify(mockedChainVerifier, Mockito.times(1)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testSignatureVerifierIsCachedWithKey() throws VerificationException {
+        String[] chain = new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        };
+        SignatureVerifier offlineVerifier = mockedChainVerifier.verifyChainForSignatures(chain, false, EFFECTIVE_DATE);
+        Assertions.assertSame(publicKey, offlineVerifier.getPublicKey());
+        Assertions.assertSame(offlineVerifier, mockedChainVerifier.verifyChainForSignatures(chain, false, EFFECTIVE_DATE));
+        SignatureVerifier onlineVerifier = mockedChainVerifier.verifyChainForSignatures(chain, true, EFFECTIVE_DATE);
+        Assertions.assertSame(publicKey, onlineVerifier.getPublicKey());
+        Assertions.assertSame(onlineVerifier, mockedChainVerifier.verifyChainForSignatures(chain, true, EFFECTIVE_DATE));
+        Mockito.verify(mockedChainVerifier, Mockito.times(2)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testOfflineCachingOutsideValidity() throws VerificationException {
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, false, EFFECTIVE_DATE);
+        // The leaf and intermediate certificates expire in January 2033
+        Date expiredEffectiveDate = new Date(2000000000000L); // May 2033
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, false, expiredEffectiveDate);
+        Mockito.verify(mockedChainVerifier, Mockito.times(2)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testOfflineCachingIsSeparateFromOcspCaching() throws VerificationException {
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, false, EFFECTIVE_DATE);
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Mockito.verify(mockedChainVerifier, Mockito.times(2)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testMetricsRecorderCacheLookups() throws VerificationException {
+        List<String> lookups = new ArrayList<>();
+        mockedChainVerifier.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordChainCacheLookup(boolean revocationChecking, boolean hit) {
+                lookups.add((revocationChecking ? "online " : "offline ") + (hit ? "hit" : "miss"));
+            }
+        });
+        String[] chain = new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        };
+        mockedChainVerifier.verifyChain(chain, false, EFFECTIVE_DATE);
+        mockedChainVerifier.verifyChain(chain, false, EFFECTIVE_DATE);
+        mockedChainVerifier.verifyChain(chain, true, EFFECTIVE_DATE);
+        mockedChainVerifier.verifyChain(chain, true, EFFECTIVE_DATE);
+        Assertions.assertEquals(List.of("offline miss", "offline hit", "online miss", "online hit"), lookups);
+    }
+
+    @Test
+    public void testOcspResponseCachingWithSharedCache() throws VerificationException {
+        StripedLruPublicKeyCache sharedCache = new StripedLruPublicKeyCache(8, 2, clock);
+        ChainVerifier firstVerifier = Mockito.spy(new ChainVerifier(Set.of(new ByteArrayInputStream(Base64.getDecoder().decode(ROOT_CA_BASE64_ENCODED))), sharedCache, clock));
+        ChainVerifier secondVerifier = Mockito.spy(new ChainVerifier(Set.of(new ByteArrayInputStream(Base64.getDecoder().decode(ROOT_CA_BASE64_ENCODED))), sharedCache, clock));
+        Mockito.doReturn(publicKey).when(firstVerifier).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        Mockito.doReturn(publicKey).when(secondVerifier).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        firstVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        PublicKey key = secondVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Assertions.assertSame(publicKey, key);
+        Mockito.verify(secondVerifier, Mockito.never()).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        Assertions.assertEquals(1, sharedCache.getHitCount());
+        Assertions.assertEquals(1, sharedCache.getMissCount());
+    }
+
+    @Test
+    public void testSharedCacheIsScopedToTrustAnchors() throws VerificationException {
+        StripedLruPublicKeyCache sharedCache = new StripedLruPublicKeyCache(8, 2, clock);
+        ChainVerifier testRootVerifier = Mockito.spy(new ChainVerifier(Set.of(new ByteArrayInputStream(Base64.getDecoder().decode(ROOT_CA_BASE64_ENCODED))), sharedCache, clock));
+        ChainVerifier appleRootVerifier = new ChainVerifier(Set.of(new ByteArrayInputStream(Base64.getDecoder().decode(REAL_APPLE_ROOT_BASE64_ENCODED))), sharedCache, clock);
+        Mockito.doReturn(publicKey).when(testRootVerifier).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        String[] chain = new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        };
+        testRootVerifier.verifyChain(chain, true, EFFECTIVE_DATE);
+
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> appleRootVerifier.verifyChain(chain, true, EFFECTIVE_DATE));
+        Assertions.assertEquals(VerificationStatus.INVALID_CHAIN, exception.getStatus());
+        Assertions.assertEquals(0, sharedCache.getHitCount());
+    }
+
+    @Test
+    public void testConcurrentOcspValidationsAreCoalesced() throws Exception {
+        CountDownLatch validationStarted = new CountDownLatch(1);
+        CountDownLatch releaseValidation = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            validationStarted.countDown();
+            releaseValidation.await();
+            return publicKey;
+        }).when(mockedChainVerifier).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PublicKey>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> mockedChainVerifier.verifyChain(new String[] {
+                        LEAF_CERT_BASE64_ENCODED,
+                        INTERMEDIATE_CA_BASE64_ENCODED,
+                        ROOT_CA_BASE64_ENCODED
+                }, true, EFFECTIVE_DATE)));
+            }
+            Assertions.assertTrue(validationStarted.await(10, TimeUnit.SECONDS));
+            releaseValidation.countDown();
+            for (Future<PublicKey> result : results) {
+                Assertions.assertSame(publicKey, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(mockedChainVerifier, Mockito.times(1)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testConcurrentOcspValidationFailureIsShared() throws Exception {
+        CountDownLatch validationStarted = new CountDownLatch(1);
+        CountDownLatch releaseValidation = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            validationStarted.countDown();
+            releaseValidation.await();
+            throw new VerificationException(VerificationStatus.RETRYABLE_VERIFICATION_FAILURE);
+        }).when(mockedChainVerifier).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PublicKey>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> mockedChainVerifier.verifyChain(new String[] {
+                        LEAF_CERT_BASE64_ENCODED,
+                        INTERMEDIATE_CA_BASE64_ENCODED,
+                        ROOT_CA_BASE64_ENCODED
+                }, true, EFFECTIVE_DATE)));
+            }
+            Assertions.assertTrue(validationStarted.await(10, TimeUnit.SECONDS));
+            releaseValidation.countDown();
+            for (Future<PublicKey> result : results) {
+                ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                Assertions.assertInstanceOf(VerificationException.class, exception.getCause());
+                Assertions.assertEquals(VerificationStatus.RETRYABLE_VERIFICATION_FAILURE, ((VerificationException) exception.getCause()).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRefreshAheadRevalidatesBeforeExpiration() throws VerificationException {
+        mockedChainVerifier.enableRefreshAhead(Duration.ofMinutes(2), Duration.ZERO, Runnable::run);
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        // Move 14 minutes into the future, within the refresh window
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 840_000)); // 14 minutes
+        PublicKey key = mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Assertions.assertSame(publicKey, key);
+        Mockito.verify(mockedChainVerifier, Mockito.times(2)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        // The refreshed entry is valid for another 15 minutes
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 1_500_000)); // 25 minutes
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Mockito.verify(mockedChainVerifier, Mockito.times(2)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testRefreshAheadServesLastGoodKeyDuringGracePeriod() throws VerificationException {
+        mockedChainVerifier.enableRefreshAhead(Duration.ofMinutes(2), Duration.ofMinutes(5), Runnable::run);
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Mockito.doThrow(new VerificationException(VerificationStatus.RETRYABLE_VERIFICATION_FAILURE))
+                .when(mockedChainVerifier)
+                .verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        // Move 19 minutes into the future, past expiration but within the grace period
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 1_140_000)); // 19 minutes
+        PublicKey key = mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Assertions.assertSame(publicKey, key);
+        // Move 20 minutes into the future, such that the grace period has elapsed
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 1_200_000)); // 20 minutes
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE));
+        Assertions.assertEquals(VerificationStatus.RETRYABLE_VERIFICATION_FAILURE, exception.getStatus());
+    }
+
+    @Test
+    public void testRefreshAheadRemovesKeyOnInvalidChain() throws VerificationException {
+        mockedChainVerifier.enableRefreshAhead(Duration.ofMinutes(2), Duration.ofMinutes(5), Runnable::run);
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        Mockito.doThrow(new VerificationException(VerificationStatus.INVALID_CHAIN))
+                .when(mockedChainVerifier)
+                .verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochMilli(CLOCK_DATE + 840_000)); // 14 minutes
+        mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE);
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> mockedChainVerifier.verifyChain(new String[] {
+                LEAF_CERT_BASE64_ENCODED,
+                INTERMEDIATE_CA_BASE64_ENCODED,
+                ROOT_CA_BASE64_ENCODED
+        }, true, EFFECTIVE_DATE));
+        Assertions.assertEquals(VerificationStatus.INVALID_CHAIN, exception.getStatus());
+    }
+
+    @Test
+    public void testRefreshAheadInvalidSettings() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mockedChainVerifier.enableRefreshAhead(Duration.ofMinutes(15), Duration.ZERO, Runnable::run));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mockedChainVerifier.enableRefreshAhead(Duration.ofMinutes(1), Duration.ofMinutes(-1), Runnable::run));
+    }
+
     @Test
     public void testOcspResponseCachingHasExpiration() throws VerificationException {
         mockedChainVerifier.verifyChain(new String[] {
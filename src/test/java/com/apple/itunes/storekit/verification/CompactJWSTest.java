@@ -0,0 +1,97 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CompactJWSTest {
+
+    private final JsonCodec jsonCodec = JsonCodec.getInstance();
+
+    @Test
+    public void testHeaderParametersAndPayload() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String token = JWT.create()
+                .withHeader(Map.of("x5c", List.of("leaf", "intermediate", "root"), "kid", "ignored", "crit", List.of(Map.of("nested", true))))
+                .withPayload("{\"value\": \"été\"}")
+                .sign(Algorithm.ECDSA256((ECPrivateKey) keyPair.getPrivate()));
+
+        CompactJWS jws = CompactJWS.parse(token, jsonCodec);
+
+        Assertions.assertEquals("ES256", jws.getAlgorithm());
+        Assertions.assertArrayEquals(new String[] {"leaf", "intermediate", "root"}, jws.getX5cChain());
+        Assertions.assertEquals(Map.of("value", "été"), jws.readPayload(Map.class, jsonCodec));
+        Assertions.assertTrue(jws.verifySignature(keyPair.getPublic()));
+        Assertions.assertFalse(jws.verifySignature(generateKeyPair().getPublic()));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String token = JWT.create()
+                .withPayload("{\"value\": 1}")
+                .sign(Algorithm.ECDSA256((ECPrivateKey) keyPair.getPrivate()));
+        String[] parts = token.split("\\.");
+        String tamperedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"value\": 2}".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertFalse(CompactJWS.parse(parts[0] + "." + tamperedPayload + "." + parts[2], jsonCodec).verifySignature(keyPair.getPublic()));
+        // A signature of the wrong length
+        Assertions.assertFalse(CompactJWS.parse(parts[0] + "." + parts[1] + "." + parts[2].substring(4), jsonCodec).verifySignature(keyPair.getPublic()));
+    }
+
+    @Test
+    public void testUnsupportedAlgorithm() throws Exception {
+        String token = JWT.create().withPayload("{}").sign(Algorithm.HMAC256("secret"));
+        CompactJWS jws = CompactJWS.parse(token, jsonCodec);
+        Assertions.assertEquals("HS256", jws.getAlgorithm());
+        Assertions.assertNull(jws.getX5cChain());
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> jws.verifySignature(generateKeyPair().getPublic()));
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
+    }
+
+    @Test
+    public void testMalformedTokens() {
+        String header = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"alg\":\"ES256\"}".getBytes(StandardCharsets.UTF_8));
+        for (String token : List.of("", "a.b", "a.b.c.d", header + ".b.c", "a.b.c", header + "=.e30.", "W10.e30.", header + ".e30.é", "e30.e30.")) {
+            VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> CompactJWS.parse(token, jsonCodec).verifySignature(generateKeyPair().getPublic()), token);
+            Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
+        }
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> CompactJWS.parse(header + ".e3*.", jsonCodec).readPayload(Map.class, jsonCodec));
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
+    }
+
+    @Test
+    public void testDecodeMatchesJdkDecoder() throws Exception {
+        Random random = new Random(42);
+        for (int length = 0; length < 200; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            for (Base64.Encoder encoder : List.of(Base64.getUrlEncoder(), Base64.getUrlEncoder().withoutPadding())) {
+                byte[] encoded = encoder.encode(data);
+                byte[] decoded = new byte[length + 2];
+                int decodedLength = CompactJWS.decode(encoded, 0, encoded.length, decoded);
+                Assertions.assertArrayEquals(data, Arrays.copyOf(decoded, decodedLength));
+            }
+        }
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        return ec.generateKeyPair();
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import com.apple.itunes.storekit.internal.JsonCodec;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SignatureVerifierTest {
+
+    private final JsonCodec jsonCodec = JsonCodec.getInstance();
+
+    @Test
+    public void testConcurrentVerification() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        CompactJWS valid = CompactJWS.parse(sign(keyPair, "{\"value\": 1}"), jsonCodec);
+        CompactJWS invalid = CompactJWS.parse(sign(generateKeyPair(), "{\"value\": 1}"), jsonCodec);
+        SignatureVerifier signatureVerifier = new SignatureVerifier(keyPair.getPublic(), 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        // Signatures returned to the pool after a failed verification must not affect the next one
+                        Assertions.assertTrue(valid.verifySignature(signatureVerifier));
+                        Assertions.assertFalse(invalid.verifySignature(signatureVerifier));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSignaturesOutsideTheCurveOrderAreRejected() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String token = sign(keyPair, "{\"value\": 1}");
+        String signedData = token.substring(0, token.lastIndexOf('.'));
+        byte[] validSignature = Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1));
+        SignatureVerifier signatureVerifier = new SignatureVerifier(keyPair.getPublic(), 1);
+        Assertions.assertTrue(CompactJWS.parse(token, jsonCodec).verifySignature(signatureVerifier));
+
+        // R = S = 0 is accepted for any data by JDK 15 to 18 without the fix for CVE-2022-21449
+        byte[] zeroSignature = new byte[64];
+        Assertions.assertFalse(CompactJWS.parse(signedData + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(zeroSignature), jsonCodec).verifySignature(signatureVerifier));
+
+        byte[] curveOrder = ((ECPublicKey) keyPair.getPublic()).getParams().getOrder().toByteArray();
+        curveOrder = Arrays.copyOfRange(curveOrder, curveOrder.length - 32, curveOrder.length);
+        byte[] data = signedData.getBytes(StandardCharsets.US_ASCII);
+        byte[] zeroR = validSignature.clone();
+        Arrays.fill(zeroR, 0, 32, (byte) 0);
+        byte[] zeroS = validSignature.clone();
+        Arrays.fill(zeroS, 32, 64, (byte) 0);
+        byte[] orderR = validSignature.clone();
+        System.arraycopy(curveOrder, 0, orderR, 0, 32);
+        byte[] orderS = validSignature.clone();
+        System.arraycopy(curveOrder, 0, orderS, 32, 32);
+        for (byte[] signature : List.of(zeroR, zeroS, orderR, orderS, Arrays.copyOf(validSignature, 63))) {
+            Assertions.assertFalse(signatureVerifier.verify(data, data.length, signature));
+        }
+        Assertions.assertTrue(signatureVerifier.verify(data, data.length, validSignature));
+    }
+
+    private static String sign(KeyPair keyPair, String payload) {
+        return JWT.create().withPayload(payload).sign(Algorithm.ECDSA256((ECPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        return ec.generateKeyPair();
+    }
+}
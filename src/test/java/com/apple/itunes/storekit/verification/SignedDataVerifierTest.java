@@ -2,16 +2,36 @@
 
 package com.apple.itunes.storekit.verification;
 
+import com.apple.itunes.storekit.metrics.MetricsRecorder;
+import com.apple.itunes.storekit.model.DecodedSignedData;
 import com.apple.itunes.storekit.model.Environment;
 import com.apple.itunes.storekit.model.JWSRenewalInfoDecodedPayload;
 import com.apple.itunes.storekit.model.JWSTransactionDecodedPayload;
 import com.apple.itunes.storekit.model.NotificationTypeV2;
 import com.apple.itunes.storekit.model.ResponseBodyV2DecodedPayload;
+import com.apple.itunes.storekit.util.SignedDataCreator;
 import com.apple.itunes.storekit.util.TestingUtility;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
 
 public class SignedDataVerifierTest {
 
@@ -71,6 +91,17 @@ public class SignedDataVerifierTest {
         Assertions.assertEquals(Environment.SANDBOX, transaction.getEnvironment());
     }
 
+    @Test
+    public void testInvalidSignature() throws IOException {
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example");
+        String signedTransaction = TestingUtility.readFile("mock_signed_data/transactionInfo").trim();
+        int signatureStart = signedTransaction.lastIndexOf('.') + 1;
+        char replaced = signedTransaction.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = signedTransaction.substring(0, signatureStart) + replaced + signedTransaction.substring(signatureStart + 1);
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> verifier.verifyAndDecodeTransaction(tampered));
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
+    }
+
     @Test
     public void testMalformedJWTWithTooManyParts() throws IOException {
         SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier();
@@ -84,4 +115,206 @@ public class SignedDataVerifierTest {
         VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> verifier.verifyAndDecodeNotification("a.b.c"));
         Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
     }
+
+    @Test
+    public void testBatchTransactionDecoding() throws IOException {
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example");
+        String signedTransaction = TestingUtility.readFile("mock_signed_data/transactionInfo");
+        List<VerificationResult<JWSTransactionDecodedPayload>> results = verifier.verifyAndDecodeTransactions(List.of(signedTransaction, "a.b.c", signedTransaction), Executors.newFixedThreadPool(2));
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertTrue(results.get(0).isSuccess());
+        Assertions.assertEquals(Environment.SANDBOX, results.get(0).getDecodedData().getEnvironment());
+        Assertions.assertFalse(results.get(1).isSuccess());
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, results.get(1).getException().getStatus());
+        Assertions.assertTrue(results.get(2).isSuccess());
+    }
+
+    @Test
+    public void testBatchTransactionDecodingWithWrongBundleId() throws IOException {
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example.x");
+        List<VerificationResult<JWSTransactionDecodedPayload>> results = verifier.verifyAndDecodeTransactions(List.of(TestingUtility.readFile("mock_signed_data/transactionInfo")));
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, () -> results.get(0).getOrThrow());
+        Assertions.assertEquals(VerificationStatus.INVALID_APP_IDENTIFIER, exception.getStatus());
+    }
+
+    @Test
+    public void testBatchRenewalInfoDecoding() throws IOException, VerificationException {
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example");
+        List<VerificationResult<JWSRenewalInfoDecodedPayload>> results = verifier.verifyAndDecodeRenewalInfos(List.of(TestingUtility.readFile("mock_signed_data/renewalInfo")));
+        Assertions.assertEquals(Environment.SANDBOX, results.get(0).getOrThrow().getEnvironment());
+    }
+
+    @Test
+    public void testBatchDecodingValidatesChainOnceAcrossSignedDates() throws IOException, VerificationException {
+        ChainVerifier chainVerifier = Mockito.spy(new ChainVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der")))));
+        SignedDataVerifier verifier = new SignedDataVerifier(chainVerifier, "com.example", 1234L, Environment.SANDBOX, false);
+        String signedTransaction = TestingUtility.readFile("mock_signed_data/transactionInfo");
+        String[] parts = signedTransaction.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        // Re-signing is not possible, but the chain is resolved for the signed date before the signature is checked
+        String laterTransaction = withPayload(parts, payload.replace("1672956154000", "1672956155000"));
+        String earlyTransaction = withPayload(parts, payload.replace("1672956154000", "1600000000000"));
+
+        List<VerificationResult<JWSTransactionDecodedPayload>> results = verifier.verifyAndDecodeTransactions(List.of(signedTransaction, laterTransaction, earlyTransaction), Executors.newFixedThreadPool(2));
+
+        Assertions.assertTrue(results.get(0).isSuccess());
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, results.get(1).getException().getStatus());
+        Assertions.assertEquals(VerificationStatus.INVALID_CHAIN, results.get(2).getException().getStatus());
+        Mockito.verify(chainVerifier, Mockito.times(1)).verifyChainWithoutCaching(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    private static String withPayload(String[] parts, String payload) {
+        return parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+    }
+
+    @Test
+    public void testNonAsciiPayloadDecoding() throws IOException, NoSuchAlgorithmException, VerificationException {
+        String json = TestingUtility.readFile("models/signedTransaction.json").replace("\"com.example.product\"", "\"com.example.\u00e9t\u00e9\"");
+        JWSTransactionDecodedPayload transaction = TestingUtility.getSignedPayloadVerifier().verifyAndDecodeTransaction(sign(json));
+        Assertions.assertEquals("com.example.\u00e9t\u00e9", transaction.getProductId());
+    }
+
+    @Test
+    public void testLargePayloadDecoding() throws IOException, NoSuchAlgorithmException, VerificationException {
+        // Larger than the reused decoding buffer
+        String json = TestingUtility.readFile("models/signedTransaction.json").replaceFirst("\\{", "{\"padding\": \"" + "a".repeat(100_000) + "\",");
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier();
+        Assertions.assertEquals("23456", verifier.verifyAndDecodeTransaction(sign(json)).getTransactionId());
+        Assertions.assertEquals("23456", verifier.verifyAndDecodeTransaction(SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json")).getTransactionId());
+    }
+
+    @Test
+    public void testNotificationContentsDecoding() throws IOException, NoSuchAlgorithmException, VerificationException {
+        String signedPayload = sign(TestingUtility.readFile("models/signedNotification.json")
+                .replace("signed_transaction_info_value", SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json"))
+                .replace("signed_renewal_info_value", SignedDataCreator.createSignedDataFromJson("models/signedRenewalInfo.json")));
+
+        DecodedNotification notification = TestingUtility.getSignedPayloadVerifier().verifyAndDecodeNotificationContents(signedPayload);
+
+        Assertions.assertEquals(NotificationTypeV2.SUBSCRIBED, notification.getPayload().getNotificationType());
+        Assertions.assertEquals("23456", notification.getTransactionInfo().getTransactionId());
+        Assertions.assertSame(notification.getTransactionInfo(), notification.getTransactionInfo());
+        Assertions.assertEquals(Environment.LOCAL_TESTING, notification.getRenewalInfo().getEnvironment());
+        Assertions.assertNull(notification.getAppTransaction());
+    }
+
+    @Test
+    public void testNotificationContentsWithInvalidSignedData() throws IOException, NoSuchAlgorithmException, VerificationException {
+        String signedPayload = sign(TestingUtility.readFile("models/signedNotification.json")
+                .replace("signed_renewal_info_value", SignedDataCreator.createSignedDataFromJson("models/signedRenewalInfo.json")));
+
+        DecodedNotification notification = TestingUtility.getSignedPayloadVerifier().verifyAndDecodeNotificationContents(signedPayload, Executors.newSingleThreadExecutor());
+
+        // The notification itself, and its other signed data, remain usable
+        VerificationException exception = Assertions.assertThrows(VerificationException.class, notification::getTransactionInfo);
+        Assertions.assertEquals(VerificationStatus.VERIFICATION_FAILURE, exception.getStatus());
+        Assertions.assertEquals("com.example", notification.getPayload().getData().getBundleId());
+        Assertions.assertEquals(Environment.LOCAL_TESTING, notification.getRenewalInfo().getEnvironment());
+    }
+
+    @Test
+    public void testNotificationContentsShareChainValidation() throws Exception {
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        KeyPair keyPair = ec.generateKeyPair();
+        ChainVerifier chainVerifier = Mockito.spy(new ChainVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der")))));
+        Mockito.doReturn(new SignatureVerifier(keyPair.getPublic()))
+                .when(chainVerifier)
+                .verifyChainForSignatures(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+        SignedDataVerifier verifier = new SignedDataVerifier(chainVerifier, "com.example", 1234L, Environment.SANDBOX, true);
+        String signedPayload = signWithChain(keyPair, TestingUtility.readFile("models/signedNotification.json")
+                .replace("LocalTesting", "Sandbox")
+                .replace("signed_transaction_info_value", signWithChain(keyPair, TestingUtility.readFile("models/signedTransaction.json").replace("LocalTesting", "Sandbox")))
+                .replace("signed_renewal_info_value", signWithChain(keyPair, TestingUtility.readFile("models/signedRenewalInfo.json").replace("LocalTesting", "Sandbox"))));
+
+        DecodedNotification notification = verifier.verifyAndDecodeNotificationContents(signedPayload, Executors.newFixedThreadPool(2));
+
+        Assertions.assertEquals("23456", notification.getTransactionInfo().getTransactionId());
+        Assertions.assertEquals(Environment.SANDBOX, notification.getRenewalInfo().getEnvironment());
+        Mockito.verify(chainVerifier, Mockito.times(1)).verifyChainForSignatures(Mockito.any(), Mockito.anyBoolean(), Mockito.any());
+    }
+
+    @Test
+    public void testAllDecodingGoesThroughDecodeSignedObject() throws IOException, NoSuchAlgorithmException, VerificationException {
+        List<Class<?>> decodedClasses = Collections.synchronizedList(new ArrayList<>());
+        List<SignedDataVerifier.ChainResolver> chainResolvers = Collections.synchronizedList(new ArrayList<>());
+        SignedDataVerifier verifier = new SignedDataVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der"))), "com.example", 1234L, Environment.LOCAL_TESTING, false) {
+            @Override
+            protected <T extends DecodedSignedData> T decodeSignedObject(String signedObject, Class<T> clazz, ChainResolver chainResolver) throws VerificationException {
+                decodedClasses.add(clazz);
+                chainResolvers.add(chainResolver);
+                return super.decodeSignedObject(signedObject, clazz, chainResolver);
+            }
+        };
+        String signedPayload = sign(TestingUtility.readFile("models/signedNotification.json")
+                .replace("signed_transaction_info_value", SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json"))
+                .replace("signed_renewal_info_value", SignedDataCreator.createSignedDataFromJson("models/signedRenewalInfo.json")));
+
+        DecodedNotification notification = verifier.verifyAndDecodeNotificationContents(signedPayload, Executors.newSingleThreadExecutor());
+        notification.getTransactionInfo();
+        notification.getRenewalInfo();
+        verifier.verifyAndDecodeTransactions(List.of(SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json")));
+        verifier.verifyAndDecodeTransaction(SignedDataCreator.createSignedDataFromJson("models/signedTransaction.json"));
+
+        Assertions.assertEquals(5, decodedClasses.size());
+        Assertions.assertEquals(Set.of(ResponseBodyV2DecodedPayload.class, JWSTransactionDecodedPayload.class, JWSRenewalInfoDecodedPayload.class), Set.copyOf(decodedClasses));
+        // The notification's signed data shares its resolver, while the batch and the single transaction have their own
+        Assertions.assertEquals(1, Set.copyOf(chainResolvers.subList(0, 3)).size());
+        Assertions.assertEquals(3, Set.copyOf(chainResolvers).size());
+    }
+
+    @Test
+    public void testOverriddenParseJWTPayloadIsCalled() throws IOException, VerificationException {
+        SignedDataVerifier verifier = new SignedDataVerifier(Set.of(new ByteArrayInputStream(TestingUtility.readBytes("certs/testCA.der"))), "com.example", 1234L, Environment.SANDBOX, false) {
+            @Override
+            @SuppressWarnings("deprecation")
+            protected <T extends DecodedSignedData> T parseJWTPayload(Class<T> clazz, DecodedJWT jwt) throws VerificationException {
+                T decodedData = super.parseJWTPayload(clazz, jwt);
+                ((JWSTransactionDecodedPayload) decodedData).setProductId(jwt.getAlgorithm());
+                return decodedData;
+            }
+        };
+
+        List<VerificationResult<JWSTransactionDecodedPayload>> results = verifier.verifyAndDecodeTransactions(List.of(TestingUtility.readFile("mock_signed_data/transactionInfo")));
+
+        Assertions.assertEquals("ES256", results.get(0).getDecodedData().getProductId());
+    }
+
+    @Test
+    public void testMetricsRecorder() throws IOException, VerificationException {
+        SignedDataVerifier verifier = TestingUtility.getSignedPayloadVerifier(Environment.SANDBOX, "com.example");
+        List<String> verifications = Collections.synchronizedList(new ArrayList<>());
+        verifier.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void recordVerification(Class<?> payloadType, VerificationStatus status, long durationNanos) {
+                Assertions.assertTrue(durationNanos >= 0);
+                verifications.add(payloadType.getSimpleName() + " " + status);
+            }
+        });
+
+        verifier.verifyAndDecodeTransaction(TestingUtility.readFile("mock_signed_data/transactionInfo"));
+        Assertions.assertThrows(VerificationException.class, () -> verifier.verifyAndDecodeNotification(TestingUtility.readFile("mock_signed_data/wrongBundleId")));
+        Assertions.assertThrows(VerificationException.class, () -> verifier.verifyAndDecodeRenewalInfo("a.b.c"));
+        verifier.verifyAndDecodeRenewalInfos(List.of(TestingUtility.readFile("mock_signed_data/renewalInfo")));
+
+        Assertions.assertEquals(List.of("JWSTransactionDecodedPayload OK",
+                "ResponseBodyV2DecodedPayload INVALID_APP_IDENTIFIER",
+                "JWSRenewalInfoDecodedPayload VERIFICATION_FAILURE",
+                "JWSRenewalInfoDecodedPayload OK"), verifications);
+    }
+
+    private static String signWithChain(KeyPair keyPair, String json) {
+        return JWT.create()
+                .withHeader(Map.of("x5c", List.of("leaf", "intermediate", "root")))
+                .withPayload(json)
+                .sign(Algorithm.ECDSA256((ECPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static String sign(String json) throws NoSuchAlgorithmException {
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        return JWT.create()
+                .withPayload(json)
+                .sign(Algorithm.ECDSA256((ECPrivateKey) ec.generateKeyPair().getPrivate()));
+    }
 }
@@ -0,0 +1,108 @@
+// Copyright (c) 2026 Apple Inc. Licensed under MIT License.
+
+package com.apple.itunes.storekit.verification;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+public class StripedLruPublicKeyCacheTest {
+
+    private static final Instant NOW = Instant.ofEpochMilli(1761962975000L);
+
+    private Clock clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        StripedLruPublicKeyCache cache = new StripedLruPublicKeyCache(4, 2, clock);
+        CachedPublicKey entry = entry(Duration.ofMinutes(15));
+        Assertions.assertNull(cache.get(chain("a")));
+        cache.put(chain("a"), entry);
+        Assertions.assertSame(entry, cache.get(chain("a")));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testExpiredEntryIsNotReturned() {
+        StripedLruPublicKeyCache cache = new StripedLruPublicKeyCache(4, 2, clock);
+        cache.put(chain("a"), entry(Duration.ofMinutes(15)));
+        Mockito.when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(15)));
+        Assertions.assertNull(cache.get(chain("a")));
+        Assertions.assertEquals(1, cache.getExpirationCount());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        StripedLruPublicKeyCache cache = new StripedLruPublicKeyCache(2, 1, clock);
+        cache.put(chain("a"), entry(Duration.ofMinutes(15)));
+        cache.put(chain("b"), entry(Duration.ofMinutes(15)));
+        // Accessing a makes b the least recently used entry
+        Assertions.assertNotNull(cache.get(chain("a")));
+        cache.put(chain("c"), entry(Duration.ofMinutes(15)));
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertNotNull(cache.get(chain("a")));
+        Assertions.assertNull(cache.get(chain("b")));
+        Assertions.assertNotNull(cache.get(chain("c")));
+    }
+
+    @Test
+    public void testExpiredEntriesAreRemovedBeforeEvictingLiveEntries() {
+        StripedLruPublicKeyCache cache = new StripedLruPublicKeyCache(2, 1, clock);
+        cache.put(chain("a"), entry(Duration.ofMinutes(15)));
+        cache.put(chain("b"), entry(Duration.ofMinutes(1)));
+        Mockito.when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(2)));
+        cache.put(chain("c"), entry(Duration.ofMinutes(15)));
+        Assertions.assertEquals(0, cache.getEvictionCount());
+        Assertions.assertEquals(1, cache.getExpirationCount());
+        Assertions.assertNotNull(cache.get(chain("a")));
+        Assertions.assertNotNull(cache.get(chain("c")));
+    }
+
+    @Test
+    public void testSizeIsBoundedAcrossStripes() {
+        StripedLruPublicKeyCache cache = new StripedLruPublicKeyCache(8, 4, clock);
+        for (int i = 0; i < 100; i++) {
+            cache.put(chain(Integer.toString(i)), entry(Duration.ofMinutes(15)));
+        }
+        Assertions.assertTrue(cache.size() <= 8);
+        Assertions.assertEquals(100 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidStripeCount() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StripedLruPublicKeyCache(2, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StripedLruPublicKeyCache(2, 0));
+    }
+
+    @Test
+    public void testChainDigest() {
+        Assertions.assertEquals(chain("a", "b"), chain("a", "b"));
+        Assertions.assertEquals(chain("a", "b").hashCode(), chain("a", "b").hashCode());
+        Assertions.assertNotEquals(chain("a", "b"), chain("ab"));
+        Assertions.assertNotEquals(chain("a", "b"), chain("b", "a"));
+        Assertions.assertEquals(64, chain("a").toString().length());
+    }
+
+    private CachedPublicKey entry(Duration timeToLive) {
+        return new CachedPublicKey(Mockito.mock(PublicKey.class), clock.instant(), clock.instant().plus(timeToLive));
+    }
+
+    private static ChainDigest chain(String... certificates) {
+        return ChainDigest.of(certificates);
+    }
+}